@@ -0,0 +1,78 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.concurrent.ProducerQueueIterator;
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Merges sorted iterables by their key, see AMergingIterator.
+ *
+ * With producer queues enabled, each source is read ahead by its own thread through a ProducerQueueIterator, which
+ * pays off when the sources are expensive to read (e.g. loading from disk). Since that costs one thread per source,
+ * it should not be enabled for thousands of cheap sources.
+ */
+@NotThreadSafe
+public abstract class AMergingIterable<E> implements ICloseableIterable<E> {
+
+    private final List<ICloseableIterable<? extends E>> sources;
+    private String producerQueueName;
+    private int producerQueueSize;
+
+    public AMergingIterable(final Collection<? extends ICloseableIterable<? extends E>> sources) {
+        this.sources = new ArrayList<ICloseableIterable<? extends E>>(sources);
+    }
+
+    public AMergingIterable<E> withProducerQueues(final String name) {
+        return withProducerQueues(name, ProducerQueueIterator.DEFAULT_QUEUE_SIZE);
+    }
+
+    public AMergingIterable<E> withProducerQueues(final String name, final int queueSize) {
+        this.producerQueueName = name;
+        this.producerQueueSize = queueSize;
+        return this;
+    }
+
+    protected abstract long extractKey(E element);
+
+    @Override
+    public ICloseableIterator<E> iterator() {
+        final List<ICloseableIterator<? extends E>> iterators = new ArrayList<ICloseableIterator<? extends E>>(
+                sources.size());
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                iterators.add(newSourceIterator(sources.get(i), i));
+            }
+        } catch (final Throwable t) {
+            //the sources that were already opened would otherwise never be closed
+            for (final ICloseableIterator<? extends E> iterator : iterators) {
+                try {
+                    iterator.close();
+                } catch (final Throwable closeThrowable) {
+                    t.addSuppressed(closeThrowable);
+                }
+            }
+            throw Throwables.propagate(t);
+        }
+        return new AMergingIterator<E>(iterators) {
+            @Override
+            protected long extractKey(final E element) {
+                return AMergingIterable.this.extractKey(element);
+            }
+        };
+    }
+
+    private <T extends E> ICloseableIterator<T> newSourceIterator(final ICloseableIterable<T> source, final int index) {
+        final ICloseableIterator<T> iterator = source.iterator();
+        if (producerQueueName != null) {
+            return new ProducerQueueIterator<T>(producerQueueName + "_" + index, iterator, producerQueueSize);
+        } else {
+            return iterator;
+        }
+    }
+
+}
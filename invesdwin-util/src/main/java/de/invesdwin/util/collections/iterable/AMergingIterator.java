@@ -0,0 +1,165 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Merges sources that are each sorted by the key (e.g. FDate.millisValue()) into one sorted stream, while
+ * FlatteningIterator only concatenates them. The current head of each source is kept in a binary min heap, so each
+ * element costs O(log k) for k sources.
+ *
+ * Ties are broken by the index of the source, so for equal keys the element of the earlier source comes first and the
+ * order is stable. Exhausted sources are closed immediately, closing this iterator closes all remaining ones. Each source
+ * is closed only once.
+ */
+@NotThreadSafe
+public abstract class AMergingIterator<E> implements ICloseableIterator<E> {
+
+    /**
+     * Closed sources are set to null.
+     */
+    private final List<ICloseableIterator<? extends E>> sources;
+    private final Object[] heads;
+    private final long[] heapKeys;
+    private final int[] heapSources;
+    private int heapSize;
+    private boolean initialized;
+
+    public AMergingIterator(final List<? extends ICloseableIterator<? extends E>> sources) {
+        this.sources = new ArrayList<ICloseableIterator<? extends E>>(sources);
+        this.heads = new Object[sources.size()];
+        this.heapKeys = new long[sources.size()];
+        this.heapSources = new int[sources.size()];
+    }
+
+    protected abstract long extractKey(E element);
+
+    @Override
+    public boolean hasNext() {
+        maybeInitialize();
+        return heapSize > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E next() {
+        maybeInitialize();
+        if (heapSize == 0) {
+            throw new NoSuchElementException();
+        }
+        final int source = heapSources[0];
+        final E next = (E) heads[source];
+        if (readHead(source)) {
+            heapKeys[0] = extractKey((E) heads[source]);
+        } else {
+            heapSize--;
+            heapKeys[0] = heapKeys[heapSize];
+            heapSources[0] = heapSources[heapSize];
+        }
+        siftDown(0);
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void maybeInitialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        for (int source = 0; source < sources.size(); source++) {
+            if (readHead(source)) {
+                heapKeys[heapSize] = extractKey((E) heads[source]);
+                heapSources[heapSize] = source;
+                heapSize++;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Returns false and closes the source if it is exhausted.
+     */
+    private boolean readHead(final int source) {
+        final ICloseableIterator<? extends E> iterator = sources.get(source);
+        final Object next = CloseableIterators.tryNext(iterator);
+        if (next != CloseableIterators.END_OF_DATA) {
+            heads[source] = next;
+            return true;
+        }
+        heads[source] = null;
+        sources.set(source, null);
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+        return false;
+    }
+
+    private void siftDown(final int index) {
+        int parent = index;
+        final long key = heapKeys[parent];
+        final int source = heapSources[parent];
+        while (true) {
+            int child = parent * 2 + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            final int right = child + 1;
+            if (right < heapSize && isLess(heapKeys[right], heapSources[right], heapKeys[child], heapSources[child])) {
+                child = right;
+            }
+            if (!isLess(heapKeys[child], heapSources[child], key, source)) {
+                break;
+            }
+            heapKeys[parent] = heapKeys[child];
+            heapSources[parent] = heapSources[child];
+            parent = child;
+        }
+        heapKeys[parent] = key;
+        heapSources[parent] = source;
+    }
+
+    private static boolean isLess(final long key1, final int source1, final long key2, final int source2) {
+        return key1 < key2 || key1 == key2 && source1 < source2;
+    }
+
+    /**
+     * Closes all sources that are not closed yet, the first exception is thrown after all of them were closed.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (int i = 0; i < sources.size(); i++) {
+            heads[i] = null;
+            final ICloseableIterator<? extends E> source = sources.get(i);
+            if (source == null) {
+                continue;
+            }
+            sources.set(i, null);
+            try {
+                source.close();
+            } catch (final IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        heapSize = 0;
+        initialized = true;
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+}
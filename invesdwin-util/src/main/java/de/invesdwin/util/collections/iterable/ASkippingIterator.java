@@ -5,8 +5,9 @@ import java.util.NoSuchElementException;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+@SuppressWarnings("unchecked")
 @NotThreadSafe
-public abstract class ASkippingIterator<E> implements ICloseableIterator<E> {
+public abstract class ASkippingIterator<E> implements IBatchCloseableIterator<E>, ITryNextCloseableIterator<E> {
 
     private final ICloseableIterator<E> delegate;
     private E cachedReadNext;
@@ -30,25 +31,76 @@ public abstract class ASkippingIterator<E> implements ICloseableIterator<E> {
         return readNext;
     }
 
-    @SuppressWarnings("null")
+    /**
+     * Does not cache a lookahead element when called without hasNext().
+     */
+    @Override
+    public Object tryNext() {
+        if (cachedReadNext != null) {
+            final E next = cachedReadNext;
+            cachedReadNext = null;
+            return next;
+        }
+        return readNextNotSkipped();
+    }
+
     private E readNext() {
+        if (cachedReadNext == null) {
+            final Object next = readNextNotSkipped();
+            if (next != CloseableIterators.END_OF_DATA) {
+                cachedReadNext = (E) next;
+            }
+        }
+        return cachedReadNext;
+    }
+
+    private Object readNextNotSkipped() {
+        while (true) {
+            final Object next = CloseableIterators.tryNext(delegate);
+            if (next == CloseableIterators.END_OF_DATA || !skip((E) next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public int nextBatch(final E[] buffer) {
+        return nextBatch(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Reads chunks from the delegate directly into the buffer and compacts the elements that are not skipped.
+     */
+    @Override
+    public int nextBatch(final E[] buffer, final int offset, final int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        int count = 0;
         if (cachedReadNext != null) {
-            return cachedReadNext;
-        } else {
-            try {
-                while (delegate.hasNext()) {
-                    final E next = delegate.next();
-                    if (!skip(next)) {
-                        cachedReadNext = next;
-                        break;
-                    }
+            buffer[offset] = cachedReadNext;
+            cachedReadNext = null;
+            count++;
+        }
+        while (count < length) {
+            final int readOffset = offset + count;
+            final int read = CloseableIterators.nextBatch(delegate, buffer, readOffset, length - count);
+            if (read == 0) {
+                break;
+            }
+            final int readEnd = readOffset + read;
+            int writeIndex = readOffset;
+            for (int i = readOffset; i < readEnd; i++) {
+                final E element = buffer[i];
+                if (!skip(element)) {
+                    buffer[writeIndex] = element;
+                    writeIndex++;
                 }
-                //catching nosuchelement might be faster sometimes than checking hasNext(), e.g. for LevelDB
-            } catch (final NoSuchElementException e) {
-                return null;
             }
-            return cachedReadNext;
+            CloseableIterators.clear(buffer, writeIndex, readEnd);
+            count = writeIndex - offset;
         }
+        return count;
     }
 
     protected abstract boolean skip(E element);
@@ -6,9 +6,10 @@ import java.util.Iterator;
 import javax.annotation.concurrent.NotThreadSafe;
 
 @NotThreadSafe
-public abstract class ATransformingCloseableIterator<S, R> implements ICloseableIterator<R> {
+public abstract class ATransformingCloseableIterator<S, R> implements IBatchCloseableIterator<R>, ITryNextCloseableIterator<R> {
 
     private final ICloseableIterator<? extends S> delegate;
+    private Object[] sourceBuffer;
 
     public ATransformingCloseableIterator(final ICloseableIterator<? extends S> delegate) {
         this.delegate = delegate;
@@ -34,6 +35,41 @@ public abstract class ATransformingCloseableIterator<S, R> implements ICloseable
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object tryNext() {
+        final Object next = CloseableIterators.tryNext(delegate);
+        if (next == CloseableIterators.END_OF_DATA || next == null) {
+            return next;
+        }
+        return transform((S) next);
+    }
+
+    @Override
+    public int nextBatch(final R[] buffer) {
+        return nextBatch(buffer, 0, buffer.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int nextBatch(final R[] buffer, final int offset, final int length) {
+        if (sourceBuffer == null || sourceBuffer.length < length) {
+            sourceBuffer = new Object[length];
+        }
+        final S[] source = (S[]) sourceBuffer;
+        final int count = CloseableIterators.nextBatch(delegate, source, 0, length);
+        for (int i = 0; i < count; i++) {
+            final S next = source[i];
+            if (next == null) {
+                buffer[offset + i] = null;
+            } else {
+                buffer[offset + i] = transform(next);
+            }
+        }
+        CloseableIterators.clear(sourceBuffer, 0, count);
+        return count;
+    }
+
     protected abstract R transform(S value);
 
     @Override
@@ -0,0 +1,36 @@
+package de.invesdwin.util.collections.iterable;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.concurrent.CancellationToken;
+
+/**
+ * Without a token, the iterators use the token that is attached to the thread that creates them.
+ */
+@NotThreadSafe
+public class CancellableIterable<E> implements ICloseableIterable<E> {
+
+    private final ICloseableIterable<? extends E> delegate;
+    private final CancellationToken token;
+
+    public CancellableIterable(final ICloseableIterable<? extends E> delegate) {
+        this(delegate, null);
+    }
+
+    public CancellableIterable(final ICloseableIterable<? extends E> delegate, final CancellationToken token) {
+        this.delegate = delegate;
+        this.token = token;
+    }
+
+    @Override
+    public ICloseableIterator<E> iterator() {
+        final CancellationToken iteratorToken;
+        if (token != null) {
+            iteratorToken = token;
+        } else {
+            iteratorToken = CancellationToken.getCurrent();
+        }
+        return new CancellableIterator<E>(delegate.iterator(), iteratorToken);
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.concurrent.CancellationToken;
+
+/**
+ * Aborts the iteration with a CancellationException once the token gets cancelled. The delegate gets closed before the
+ * exception is thrown. Checking the token is a single volatile read per element.
+ */
+@NotThreadSafe
+public class CancellableIterator<E> implements ICloseableIterator<E> {
+
+    private final ICloseableIterator<? extends E> delegate;
+    private final CancellationToken token;
+
+    public CancellableIterator(final ICloseableIterator<? extends E> delegate, final CancellationToken token) {
+        this.delegate = delegate;
+        this.token = token;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (token.isCancelled()) {
+            throwCancelled();
+        }
+        return delegate.hasNext();
+    }
+
+    @Override
+    public E next() {
+        if (token.isCancelled()) {
+            throwCancelled();
+        }
+        return delegate.next();
+    }
+
+    private void throwCancelled() {
+        try {
+            close();
+        } catch (final IOException e) {
+            final CancellationException cancelled = new CancellationException(e.toString());
+            cancelled.initCause(e);
+            throw cancelled;
+        }
+        token.throwIfCancelled();
+    }
+
+    @Override
+    public void remove() {
+        delegate.remove();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
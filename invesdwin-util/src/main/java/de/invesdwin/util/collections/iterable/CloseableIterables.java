@@ -0,0 +1,57 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Adapts ICloseableIterable to java.util.stream. The streams close the underlying iterator via onClose(), so they
+ * should be used inside try-with-resources or be closed in a finally block.
+ *
+ * Iterables that wrap a collection are streamed via the sized spliterator of the collection, which splits evenly for
+ * parallel streams. Other iterables use a spliterator of unknown size that splits off growing batches. Parallel streams
+ * run on the common pool, or on a ConfiguredForkJoinPool when the terminal operation is submitted as a task to it.
+ */
+@Immutable
+public final class CloseableIterables {
+
+    private CloseableIterables() {}
+
+    public static <E> Stream<E> stream(final ICloseableIterable<E> iterable) {
+        return stream(iterable, false);
+    }
+
+    public static <E> Stream<E> parallelStream(final ICloseableIterable<E> iterable) {
+        return stream(iterable, true);
+    }
+
+    public static <E> Stream<E> stream(final ICloseableIterable<E> iterable, final boolean parallel) {
+        if (iterable instanceof WrapperCloseableIterable) {
+            final WrapperCloseableIterable<E> wrapper = (WrapperCloseableIterable<E>) iterable;
+            if (wrapper.isCollection()) {
+                return StreamSupport.stream(wrapper.collectionSpliterator(), parallel);
+            }
+        }
+        return stream(iterable.iterator(), parallel);
+    }
+
+    public static <E> Stream<E> stream(final ICloseableIterator<E> iterator, final boolean parallel) {
+        final Spliterator<E> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, parallel).onClose(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    iterator.close();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+}
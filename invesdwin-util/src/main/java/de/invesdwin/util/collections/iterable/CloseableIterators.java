@@ -0,0 +1,77 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public final class CloseableIterators {
+
+    /**
+     * Returned by tryNext() when the iterator is exhausted.
+     */
+    public static final Object END_OF_DATA = new Object() {
+        @Override
+        public String toString() {
+            return "END_OF_DATA";
+        }
+    };
+
+    private CloseableIterators() {}
+
+    /**
+     * Returns the next element or END_OF_DATA. Uses ITryNextCloseableIterator.tryNext() when available, otherwise
+     * hasNext() and next().
+     */
+    public static Object tryNext(final Iterator<?> iterator) {
+        if (iterator instanceof ITryNextCloseableIterator) {
+            return ((ITryNextCloseableIterator<?>) iterator).tryNext();
+        }
+        try {
+            if (iterator.hasNext()) {
+                return iterator.next();
+            }
+            //legacy iterators might still signal the end this way
+        } catch (final NoSuchElementException e) {
+            return END_OF_DATA;
+        }
+        return END_OF_DATA;
+    }
+
+    public static <E> int nextBatch(final ICloseableIterator<? extends E> iterator, final E[] buffer) {
+        return nextBatch(iterator, buffer, 0, buffer.length);
+    }
+
+    /**
+     * Uses IBatchCloseableIterator.nextBatch() when available, otherwise fills the buffer element by element. Returns 0
+     * when the iterator is exhausted.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> int nextBatch(final ICloseableIterator<? extends E> iterator, final E[] buffer,
+            final int offset, final int length) {
+        if (iterator instanceof IBatchCloseableIterator) {
+            return ((IBatchCloseableIterator<E>) iterator).nextBatch(buffer, offset, length);
+        }
+        int count = 0;
+        while (count < length) {
+            final Object next = tryNext(iterator);
+            if (next == END_OF_DATA) {
+                break;
+            }
+            buffer[offset + count] = (E) next;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Nulls the references in the buffer range so that the elements can be garbage collected.
+     */
+    static void clear(final Object[] buffer, final int fromIndex, final int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            buffer[i] = null;
+        }
+    }
+
+}
@@ -6,7 +6,7 @@ import java.util.NoSuchElementException;
 import javax.annotation.concurrent.Immutable;
 
 @Immutable
-public class EmptyCloseableIterator<E> implements ICloseableIterator<E> {
+public class EmptyCloseableIterator<E> implements ITryNextCloseableIterator<E> {
 
     @Override
     public boolean hasNext() {
@@ -18,6 +18,11 @@ public class EmptyCloseableIterator<E> implements ICloseableIterator<E> {
         throw new NoSuchElementException();
     }
 
+    @Override
+    public Object tryNext() {
+        return CloseableIterators.END_OF_DATA;
+    }
+
     @Override
     public void close() throws IOException {}
 
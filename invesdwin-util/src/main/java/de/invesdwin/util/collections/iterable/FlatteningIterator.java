@@ -6,8 +6,11 @@ import java.util.NoSuchElementException;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.error.Throwables;
+
+@SuppressWarnings("unchecked")
 @NotThreadSafe
-public class FlatteningIterator<E> implements ICloseableIterator<E> {
+public class FlatteningIterator<E> implements IBatchCloseableIterator<E>, ITryNextCloseableIterator<E> {
 
     private final ICloseableIterator<? extends Iterator<? extends E>> delegate;
     private ICloseableIterator<? extends E> curIterator;
@@ -18,29 +21,98 @@ public class FlatteningIterator<E> implements ICloseableIterator<E> {
 
     @Override
     public boolean hasNext() {
-        try {
-            return getIterator().hasNext() || delegate.hasNext();
-        } catch (final NoSuchElementException e) {
-            return false;
-        }
+        return getIterator() != null;
     }
 
     @Override
     public E next() {
-        return getIterator().next();
+        final ICloseableIterator<? extends E> iterator = getIterator();
+        if (iterator == null) {
+            throw new NoSuchElementException();
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public Object tryNext() {
+        while (true) {
+            if (curIterator != null) {
+                final Object next = CloseableIterators.tryNext(curIterator);
+                if (next != CloseableIterators.END_OF_DATA) {
+                    return next;
+                }
+                closeCurIterator();
+            }
+            if (!nextIterator()) {
+                return CloseableIterators.END_OF_DATA;
+            }
+        }
+    }
+
+    @Override
+    public int nextBatch(final E[] buffer) {
+        return nextBatch(buffer, 0, buffer.length);
     }
 
+    /**
+     * Fills the buffer from as many of the flattened iterators as needed.
+     */
+    @Override
+    public int nextBatch(final E[] buffer, final int offset, final int length) {
+        int count = 0;
+        while (count < length) {
+            if (curIterator == null && !nextIterator()) {
+                break;
+            }
+            final int read = CloseableIterators.nextBatch(curIterator, buffer, offset + count, length - count);
+            if (read == 0) {
+                closeCurIterator();
+            } else {
+                count += read;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns null when all iterators are exhausted.
+     */
     private ICloseableIterator<? extends E> getIterator() {
         while (curIterator == null || !curIterator.hasNext()) {
-            curIterator = WrapperCloseableIterator.maybeWrap(delegate.next());
+            if (curIterator != null) {
+                closeCurIterator();
+            }
+            if (!nextIterator()) {
+                return null;
+            }
         }
         return curIterator;
     }
 
+    private boolean nextIterator() {
+        final Object next = CloseableIterators.tryNext(delegate);
+        if (next == CloseableIterators.END_OF_DATA) {
+            return false;
+        }
+        curIterator = WrapperCloseableIterator.maybeWrap((Iterator<? extends E>) next);
+        return true;
+    }
+
+    private void closeCurIterator() {
+        final ICloseableIterator<? extends E> iterator = curIterator;
+        curIterator = null;
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (curIterator != null) {
             curIterator.close();
+            curIterator = null;
         }
         delegate.close();
     }
@@ -0,0 +1,80 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A fluent alternative to nesting ASkippingIterable, ATransformingCloseableIterable and LimitingIterable. The stages
+ * are not wrapped around each other, instead a single FusedIterator runs all of them in one loop per element. So there
+ * is only one lookahead and one hasNext/next call on the source per element, no matter how many stages are added.
+ *
+ * Each call returns a new instance, so a pipeline can be used as a template for several others. Null elements are
+ * passed through transform stages without calling the function, same as ATransformingCloseableIterator does.
+ */
+@Immutable
+public final class FusedIterable<E> implements ICloseableIterable<E> {
+
+    static final byte STAGE_SKIP = 0;
+    static final byte STAGE_TRANSFORM = 1;
+    static final byte STAGE_LIMIT = 2;
+
+    private final ICloseableIterable<?> source;
+    private final byte[] stageTypes;
+    private final Object[] stageFunctions;
+    private final int[] stageLimits;
+
+    private FusedIterable(final ICloseableIterable<?> source, final byte[] stageTypes, final Object[] stageFunctions,
+            final int[] stageLimits) {
+        this.source = source;
+        this.stageTypes = stageTypes;
+        this.stageFunctions = stageFunctions;
+        this.stageLimits = stageLimits;
+    }
+
+    public static <E> FusedIterable<E> of(final ICloseableIterable<? extends E> source) {
+        return new FusedIterable<E>(source, new byte[0], new Object[0], new int[0]);
+    }
+
+    public static <E> FusedIterable<E> of(final Iterable<? extends E> source) {
+        return of(new WrapperCloseableIterable<E>(source));
+    }
+
+    /**
+     * Removes the elements for which the predicate returns true.
+     */
+    public FusedIterable<E> skip(final Predicate<? super E> predicate) {
+        return withStage(STAGE_SKIP, predicate, 0);
+    }
+
+    public <R> FusedIterable<R> transform(final Function<? super E, ? extends R> function) {
+        return withStage(STAGE_TRANSFORM, function, 0);
+    }
+
+    /**
+     * Limits the number of elements that pass this stage, stages that are added afterwards might still skip some of
+     * them.
+     */
+    public FusedIterable<E> limit(final int limit) {
+        return withStage(STAGE_LIMIT, null, limit);
+    }
+
+    private <R> FusedIterable<R> withStage(final byte type, final Object function, final int limit) {
+        final int stages = stageTypes.length;
+        final byte[] newStageTypes = Arrays.copyOf(stageTypes, stages + 1);
+        newStageTypes[stages] = type;
+        final Object[] newStageFunctions = Arrays.copyOf(stageFunctions, stages + 1);
+        newStageFunctions[stages] = function;
+        final int[] newStageLimits = Arrays.copyOf(stageLimits, stages + 1);
+        newStageLimits[stages] = limit;
+        return new FusedIterable<R>(source, newStageTypes, newStageFunctions, newStageLimits);
+    }
+
+    @Override
+    public ICloseableIterator<E> iterator() {
+        return new FusedIterator<E>(source.iterator(), stageTypes, stageFunctions, stageLimits);
+    }
+
+}
@@ -0,0 +1,114 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Runs all stages of a FusedIterable in a single loop, see there.
+ */
+@NotThreadSafe
+public class FusedIterator<E> implements ITryNextCloseableIterator<E> {
+
+    private final ICloseableIterator<?> source;
+    private final byte[] stageTypes;
+    private final Object[] stageFunctions;
+    private final int[] stageLimits;
+    private final int[] stageCounts;
+    private boolean cachedReadNextPresent;
+    private E cachedReadNext;
+    private boolean exhausted;
+
+    FusedIterator(final ICloseableIterator<?> source, final byte[] stageTypes, final Object[] stageFunctions,
+            final int[] stageLimits) {
+        this.source = source;
+        this.stageTypes = stageTypes;
+        this.stageFunctions = stageFunctions;
+        this.stageLimits = stageLimits;
+        this.stageCounts = new int[stageTypes.length];
+        for (int i = 0; i < stageTypes.length; i++) {
+            if (stageTypes[i] == FusedIterable.STAGE_LIMIT && stageLimits[i] <= 0) {
+                exhausted = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return readNext();
+    }
+
+    @Override
+    public E next() {
+        if (!readNext()) {
+            throw new NoSuchElementException();
+        }
+        final E next = cachedReadNext;
+        cachedReadNext = null;
+        cachedReadNextPresent = false;
+        return next;
+    }
+
+    @Override
+    public Object tryNext() {
+        if (!readNext()) {
+            return CloseableIterators.END_OF_DATA;
+        }
+        final E next = cachedReadNext;
+        cachedReadNext = null;
+        cachedReadNextPresent = false;
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean readNext() {
+        if (cachedReadNextPresent) {
+            return true;
+        }
+        elements: while (!exhausted) {
+            Object value = CloseableIterators.tryNext(source);
+            if (value == CloseableIterators.END_OF_DATA) {
+                break;
+            }
+            for (int i = 0; i < stageTypes.length; i++) {
+                switch (stageTypes[i]) {
+                case FusedIterable.STAGE_SKIP:
+                    if (((Predicate<Object>) stageFunctions[i]).test(value)) {
+                        continue elements;
+                    }
+                    break;
+                case FusedIterable.STAGE_TRANSFORM:
+                    if (value != null) {
+                        value = ((Function<Object, Object>) stageFunctions[i]).apply(value);
+                    }
+                    break;
+                case FusedIterable.STAGE_LIMIT:
+                    stageCounts[i]++;
+                    if (stageCounts[i] >= stageLimits[i]) {
+                        //this is the last element that can pass this stage
+                        exhausted = true;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown stage type: " + stageTypes[i]);
+                }
+            }
+            cachedReadNext = (E) value;
+            cachedReadNextPresent = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        exhausted = true;
+        cachedReadNext = null;
+        cachedReadNextPresent = false;
+        source.close();
+    }
+
+}
@@ -0,0 +1,24 @@
+package de.invesdwin.util.collections.iterable;
+
+/**
+ * Optional interface for iterators that can fill a whole chunk of elements at once, so that pipelines of several
+ * wrappers pay the per element overhead of hasNext/next only once per chunk. Use CloseableIterators.nextBatch() to
+ * read chunks from any iterator, it falls back to element by element iteration for iterators without this interface.
+ *
+ * Element by element and batch iteration can be mixed on the same iterator.
+ */
+public interface IBatchCloseableIterator<E> extends ICloseableIterator<E> {
+
+    /**
+     * Same as nextBatch(buffer, 0, buffer.length).
+     */
+    int nextBatch(E[] buffer);
+
+    /**
+     * Fills up to length elements into the buffer starting at offset and returns the count filled. Less than length
+     * elements might be returned even if there are more elements available, only 0 (for a length above 0) signals
+     * that the iterator is exhausted.
+     */
+    int nextBatch(E[] buffer, int offset, int length);
+
+}
@@ -0,0 +1,22 @@
+package de.invesdwin.util.collections.iterable;
+
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Optional interface for time ordered sources that can position an iterator near a key without scanning from the
+ * beginning, e.g. via an index or binary search.
+ */
+public interface ISeekableCloseableIterable<E> extends ICloseableIterable<E> {
+
+    /**
+     * Positions the iterator at the first element with a key that is not before the given key.
+     */
+    ICloseableIterator<E> seekCeiling(FDate key);
+
+    /**
+     * Positions the iterator at the last element with a key that is not after the given key, or at the first element
+     * when all keys are after the given key.
+     */
+    ICloseableIterator<E> seekFloor(FDate key);
+
+}
@@ -0,0 +1,16 @@
+package de.invesdwin.util.collections.iterable;
+
+/**
+ * Optional interface for iterators that can signal the end of data without a separate hasNext() call and without
+ * throwing a NoSuchElementException, whose stack trace is expensive when thousands of short iterator chains are
+ * created per second. Use CloseableIterators.tryNext() to read from any iterator, it falls back to hasNext()/next()
+ * for iterators without this interface.
+ */
+public interface ITryNextCloseableIterator<E> extends ICloseableIterator<E> {
+
+    /**
+     * Returns the next element (which is an E) or CloseableIterators.END_OF_DATA when the iterator is exhausted.
+     */
+    Object tryNext();
+
+}
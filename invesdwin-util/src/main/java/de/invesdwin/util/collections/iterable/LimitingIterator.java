@@ -10,7 +10,7 @@ import javax.annotation.concurrent.NotThreadSafe;
  * NoSuchElementException.
  */
 @NotThreadSafe
-public class LimitingIterator<E> implements ICloseableIterator<E> {
+public class LimitingIterator<E> implements IBatchCloseableIterator<E>, ITryNextCloseableIterator<E> {
 
     private final ICloseableIterator<? extends E> delegate;
     private final int limit;
@@ -38,6 +38,34 @@ public class LimitingIterator<E> implements ICloseableIterator<E> {
         return delegate.next();
     }
 
+    @Override
+    public Object tryNext() {
+        if (curCount >= limit) {
+            return CloseableIterators.END_OF_DATA;
+        }
+        final Object next = CloseableIterators.tryNext(delegate);
+        if (next != CloseableIterators.END_OF_DATA) {
+            curCount++;
+        }
+        return next;
+    }
+
+    @Override
+    public int nextBatch(final E[] buffer) {
+        return nextBatch(buffer, 0, buffer.length);
+    }
+
+    @Override
+    public int nextBatch(final E[] buffer, final int offset, final int length) {
+        final int limitedLength = Math.min(length, limit - curCount);
+        if (limitedLength <= 0) {
+            return 0;
+        }
+        final int count = CloseableIterators.nextBatch(delegate, buffer, offset, limitedLength);
+        curCount += count;
+        return count;
+    }
+
     @Override
     public void close() throws IOException {
         delegate.close();
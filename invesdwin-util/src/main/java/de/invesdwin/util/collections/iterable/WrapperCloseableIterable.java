@@ -1,5 +1,8 @@
 package de.invesdwin.util.collections.iterable;
 
+import java.util.Collection;
+import java.util.Spliterator;
+
 import javax.annotation.concurrent.NotThreadSafe;
 
 @NotThreadSafe
@@ -16,6 +19,20 @@ public class WrapperCloseableIterable<E> implements ICloseableIterable<E> {
         return new WrapperCloseableIterator<E>(delegate.iterator());
     }
 
+    boolean isCollection() {
+        return delegate instanceof Collection;
+    }
+
+    /**
+     * Collections provide sized spliterators that can be split efficiently for parallel streams and do not need to be
+     * closed. Only valid if isCollection() is true, other iterables are streamed via CloseableIterables.stream() so that
+     * their iterator gets closed.
+     */
+    @SuppressWarnings("unchecked")
+    Spliterator<E> collectionSpliterator() {
+        return ((Collection<E>) delegate).spliterator();
+    }
+
     public static <T> ICloseableIterable<T> maybeWrap(final Iterable<T> iterator) {
         if (iterator instanceof ICloseableIterable) {
             return (ICloseableIterable<T>) iterator;
@@ -10,7 +10,7 @@ import javax.annotation.concurrent.NotThreadSafe;
 import de.invesdwin.util.lang.Reflections;
 
 @NotThreadSafe
-public class WrapperCloseableIterator<E> implements ICloseableIterator<E> {
+public class WrapperCloseableIterator<E> implements ITryNextCloseableIterator<E> {
 
     private final Iterator<? extends E> delegate;
     private boolean closed;
@@ -33,6 +33,14 @@ public class WrapperCloseableIterator<E> implements ICloseableIterator<E> {
         return delegate.next();
     }
 
+    @Override
+    public Object tryNext() {
+        if (!closed && delegate.hasNext()) {
+            return delegate.next();
+        }
+        return CloseableIterators.END_OF_DATA;
+    }
+
     @Override
     public void remove() {
         assertNotClosed();
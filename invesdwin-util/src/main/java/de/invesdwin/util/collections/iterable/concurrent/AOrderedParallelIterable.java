@@ -0,0 +1,41 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+@Immutable
+public abstract class AOrderedParallelIterable<R, E> implements ICloseableIterable<E> {
+
+    private final String name;
+    private final ICloseableIterable<R> requests;
+    private final int consumerCount;
+    private final int windowSize;
+
+    public AOrderedParallelIterable(final String name, final ICloseableIterable<R> requests) {
+        this(name, requests, AOrderedParallelIterator.DEFAULT_CONSUMER_COUNT,
+                AOrderedParallelIterator.DEFAULT_WINDOW_SIZE);
+    }
+
+    public AOrderedParallelIterable(final String name, final ICloseableIterable<R> requests,
+            final int consumerCount, final int windowSize) {
+        this.name = name;
+        this.requests = requests;
+        this.consumerCount = consumerCount;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public AOrderedParallelIterator<R, E> iterator() {
+        return new AOrderedParallelIterator<R, E>(name, requests.iterator(), consumerCount, windowSize) {
+            @Override
+            protected E doWork(final R request) {
+                return AOrderedParallelIterable.this.doWork(request);
+            }
+        };
+    }
+
+    protected abstract E doWork(R request);
+
+}
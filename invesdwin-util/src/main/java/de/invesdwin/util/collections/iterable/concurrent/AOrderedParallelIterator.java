@@ -0,0 +1,314 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.error.Throwables;
+import de.invesdwin.util.time.Duration;
+
+/**
+ * Processes requests in parallel while returning the results in strict request order. Results are tagged with a
+ * sequence number and kept in a bounded reorder window. Workers refill the window themselves when they complete a
+ * request, so a slow request at the head only blocks the consumer, while the other workers continue with the requests
+ * behind it until the window is full.
+ *
+ * The back-pressure metrics tell how often the consumer had to wait for the head and how often the window was full.
+ * If the window is full often, it should be enlarged.
+ */
+@ThreadSafe
+public abstract class AOrderedParallelIterator<R, E> implements ICloseableIterator<E> {
+
+    public static final int DEFAULT_CONSUMER_COUNT = Executors.getCpuThreadPoolCount();
+    public static final int DEFAULT_WINDOW_SIZE = DEFAULT_CONSUMER_COUNT * 4;
+
+    private static final Object NULL_RESULT = new Object();
+
+    private final ICloseableIterator<R> requests;
+    private final WrappedExecutorService consumerExecutor;
+    private final int windowSize;
+
+    private final Lock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Condition headCompletedCondition = lock.newCondition();
+    @GuardedBy("lock")
+    private final Object[] window;
+    @GuardedBy("lock")
+    private long nextSubmitSequence;
+    @GuardedBy("lock")
+    private long nextEmitSequence;
+    @GuardedBy("lock")
+    private int completedCount;
+    @GuardedBy("lock")
+    private int maxCompletedCount;
+    @GuardedBy("lock")
+    private boolean requestsExhausted;
+    @GuardedBy("lock")
+    private long headOfLineBlockedCount;
+    @GuardedBy("lock")
+    private long headOfLineBlockedNanos;
+    @GuardedBy("lock")
+    private long windowFullCount;
+    @GuardedBy("lock")
+    private boolean windowFull;
+    private volatile boolean closed;
+
+    public AOrderedParallelIterator(final String name, final ICloseableIterator<R> requests) {
+        this(name, requests, DEFAULT_CONSUMER_COUNT, DEFAULT_WINDOW_SIZE);
+    }
+
+    public AOrderedParallelIterator(final String name, final ICloseableIterator<R> requests,
+            final int consumerCount, final int windowSize) {
+        if (windowSize < consumerCount) {
+            throw new IllegalArgumentException("windowSize [" + windowSize
+                    + "] should not be smaller than consumerCount [" + consumerCount + "]");
+        }
+        this.requests = requests;
+        this.windowSize = windowSize;
+        this.window = new Object[windowSize];
+        this.consumerExecutor = Executors.newFixedThreadPool(name, consumerCount);
+    }
+
+    @Override
+    public boolean hasNext() {
+        lock.lock();
+        try {
+            fill();
+            return nextEmitSequence < nextSubmitSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E next() {
+        final Object result;
+        lock.lock();
+        try {
+            fill();
+            if (nextEmitSequence >= nextSubmitSequence) {
+                throw new NoSuchElementException();
+            }
+            final int slot = slot(nextEmitSequence);
+            if (window[slot] == null) {
+                headOfLineBlockedCount++;
+                final long startNanos = System.nanoTime();
+                try {
+                    while (window[slot] == null) {
+                        if (closed) {
+                            throw new NoSuchElementException("Already closed");
+                        }
+                        headCompletedCondition.await(1, TimeUnit.SECONDS);
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new NoSuchElementException("Interrupted");
+                } finally {
+                    headOfLineBlockedNanos += System.nanoTime() - startNanos;
+                }
+            }
+            result = window[slot];
+            window[slot] = null;
+            nextEmitSequence++;
+            completedCount--;
+            //there is space in the window again
+            fill();
+        } finally {
+            lock.unlock();
+        }
+        return unwrapResult(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E unwrapResult(final Object result) {
+        if (result == NULL_RESULT) {
+            return (E) null;
+        } else if (result instanceof Failure) {
+            throw Throwables.propagate(((Failure) result).cause);
+        } else {
+            return (E) result;
+        }
+    }
+
+    @GuardedBy("lock")
+    private void fill() {
+        while (!closed && !requestsExhausted) {
+            if (nextSubmitSequence - nextEmitSequence >= windowSize) {
+                if (!windowFull) {
+                    windowFull = true;
+                    windowFullCount++;
+                }
+                return;
+            }
+            windowFull = false;
+            if (!requests.hasNext()) {
+                requestsExhausted = true;
+                return;
+            }
+            final R request = requests.next();
+            consumerExecutor.execute(new WorkRunnable(nextSubmitSequence, request));
+            nextSubmitSequence++;
+        }
+    }
+
+    private int slot(final long sequence) {
+        return (int) (sequence % windowSize);
+    }
+
+    private void onCompleted(final long sequence, final Object result) {
+        lock.lock();
+        try {
+            window[slot(sequence)] = result;
+            completedCount++;
+            if (completedCount > maxCompletedCount) {
+                maxCompletedCount = completedCount;
+            }
+            if (sequence == nextEmitSequence) {
+                headCompletedCondition.signalAll();
+            }
+            //keep this worker busy with the next request
+            fill();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected abstract E doWork(R request);
+
+    /**
+     * The number of results that are completed but not yet consumed.
+     */
+    public int getReorderBufferSize() {
+        lock.lock();
+        try {
+            return completedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxReorderBufferSize() {
+        lock.lock();
+        try {
+            return maxCompletedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of requests that are submitted but not yet completed.
+     */
+    public int getInProgressCount() {
+        lock.lock();
+        try {
+            return (int) (nextSubmitSequence - nextEmitSequence) - completedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * How often the consumer had to wait for the head request to complete.
+     */
+    public long getHeadOfLineBlockedCount() {
+        lock.lock();
+        try {
+            return headOfLineBlockedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration getHeadOfLineBlockedDuration() {
+        lock.lock();
+        try {
+            return new Duration(headOfLineBlockedNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * How often the window became full so that no further request could be submitted. Repeated attempts while the
+     * window stays full are counted once.
+     */
+    public long getWindowFullCount() {
+        lock.lock();
+        try {
+            return windowFullCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                requests.close();
+                consumerExecutor.shutdown();
+                headCompletedCondition.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+
+        private Failure(final Throwable cause) {
+            this.cause = cause;
+        }
+    }
+
+    private final class WorkRunnable implements Runnable {
+
+        private final long sequence;
+        private final R request;
+
+        private WorkRunnable(final long sequence, final R request) {
+            this.sequence = sequence;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            if (closed) {
+                return;
+            }
+            Object result;
+            try {
+                result = doWork(request);
+                if (result == null) {
+                    result = NULL_RESULT;
+                }
+            } catch (final Throwable t) {
+                result = new Failure(t);
+            }
+            onCompleted(sequence, result);
+        }
+    }
+
+}
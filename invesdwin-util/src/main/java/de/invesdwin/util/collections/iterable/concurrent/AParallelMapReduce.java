@@ -0,0 +1,290 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Reads the source sequentially in chunks and processes those chunks on a ForkJoinPool. Each chunk gets split further
+ * into subtasks, so idle workers can steal work from busy ones. Elements pass through the skip, map and reduce stages,
+ * the partial results are merged either in source order or in completion order.
+ *
+ * The source iterator is always closed, also on failures, interrupts or early termination via isFinished().
+ *
+ * The stages are called concurrently by the pool workers and thus need to be threadsafe. Merge should be associative,
+ * in ordered mode it does not need to be commutative.
+ *
+ * @param <S>
+ *            the source element type
+ * @param <M>
+ *            the mapped element type
+ * @param <R>
+ *            the reduced result type
+ */
+@NotThreadSafe
+public abstract class AParallelMapReduce<S, M, R> {
+
+    public static final int DEFAULT_CHUNK_SIZE = AParallelChunkConsumerIterable.DEFAULT_CHUNK_SIZE;
+    public static final int DEFAULT_SPLIT_THRESHOLD = 1000;
+
+    private final ConfiguredForkJoinPool pool;
+    private final ICloseableIterable<? extends S> source;
+    private final int chunkSize;
+    private int splitThreshold = DEFAULT_SPLIT_THRESHOLD;
+    private int maxChunksInProgress;
+    private boolean ordered = true;
+    private volatile boolean aborted;
+
+    public AParallelMapReduce(final ConfiguredForkJoinPool pool, final ICloseableIterable<? extends S> source) {
+        this(pool, source, DEFAULT_CHUNK_SIZE);
+    }
+
+    public AParallelMapReduce(final ConfiguredForkJoinPool pool, final ICloseableIterable<? extends S> source,
+            final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize should be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.maxChunksInProgress = pool.getParallelism() * 2;
+    }
+
+    /**
+     * Default is true. When ordered, the chunk results are merged in the order of the source. Otherwise they get merged
+     * as soon as they are completed, which requires merge to be commutative.
+     */
+    public AParallelMapReduce<S, M, R> withOrdered(final boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Chunks larger than this are split into subtasks that can be stolen by other workers.
+     */
+    public AParallelMapReduce<S, M, R> withSplitThreshold(final int splitThreshold) {
+        if (splitThreshold <= 0) {
+            throw new IllegalArgumentException("splitThreshold should be positive: " + splitThreshold);
+        }
+        this.splitThreshold = splitThreshold;
+        return this;
+    }
+
+    /**
+     * Limits how many chunks are read ahead from the source and kept in memory. Default is twice the parallelism of
+     * the pool.
+     */
+    public AParallelMapReduce<S, M, R> withMaxChunksInProgress(final int maxChunksInProgress) {
+        if (maxChunksInProgress <= 0) {
+            throw new IllegalArgumentException("maxChunksInProgress should be positive: " + maxChunksInProgress);
+        }
+        this.maxChunksInProgress = maxChunksInProgress;
+        return this;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    public R reduce() throws InterruptedException {
+        aborted = false;
+        final BlockingQueue<ChunkResult> completed = new LinkedBlockingQueue<ChunkResult>();
+        final Map<Integer, ForkJoinTask<?>> inProgress = new HashMap<Integer, ForkJoinTask<?>>();
+        final Map<Integer, R> unmerged = new HashMap<Integer, R>();
+        final ICloseableIterator<? extends S> iterator = source.iterator();
+        Throwable failure = null;
+        try {
+            R result = getIdentity();
+            int submittedChunks = 0;
+            int mergedChunks = 0;
+            boolean sourceDrained = false;
+            while (true) {
+                while (!sourceDrained && submittedChunks - mergedChunks < maxChunksInProgress) {
+                    final List<S> chunk = readChunk(iterator);
+                    if (chunk.isEmpty()) {
+                        sourceDrained = true;
+                    } else {
+                        final int index = submittedChunks;
+                        inProgress.put(index, pool.submit(new ChunkTask(index, chunk, completed)));
+                        submittedChunks++;
+                    }
+                }
+                if (inProgress.isEmpty()) {
+                    return result;
+                }
+                final ChunkResult chunkResult = completed.take();
+                inProgress.remove(chunkResult.index);
+                if (chunkResult.error != null) {
+                    throw Throwables.propagate(chunkResult.error);
+                }
+                if (ordered) {
+                    unmerged.put(chunkResult.index, chunkResult.result);
+                    while (unmerged.containsKey(mergedChunks)) {
+                        result = merge(result, unmerged.remove(mergedChunks));
+                        mergedChunks++;
+                    }
+                } else {
+                    result = merge(result, chunkResult.result);
+                    mergedChunks++;
+                }
+                if (isFinished(result)) {
+                    return result;
+                }
+            }
+        } catch (final InterruptedException e) {
+            failure = e;
+            throw e;
+        } catch (final RuntimeException e) {
+            failure = e;
+            throw e;
+        } catch (final Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            aborted = true;
+            for (final ForkJoinTask<?> task : inProgress.values()) {
+                task.cancel(true);
+            }
+            try {
+                iterator.close();
+            } catch (final IOException e) {
+                if (failure != null) {
+                    //do not mask the original exception
+                    failure.addSuppressed(e);
+                } else {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    private List<S> readChunk(final ICloseableIterator<? extends S> iterator) {
+        final List<S> chunk = new ArrayList<S>(chunkSize);
+        while (chunk.size() < chunkSize && iterator.hasNext()) {
+            chunk.add(iterator.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Can be overridden to filter source elements before they get mapped.
+     */
+    protected boolean skip(final S element) {
+        return false;
+    }
+
+    /**
+     * Null results are not passed to reduce.
+     */
+    protected abstract M map(S element);
+
+    /**
+     * Should return a new neutral result, it is used as the start value for each subtask.
+     */
+    protected abstract R getIdentity();
+
+    protected abstract R reduce(R accumulated, M element);
+
+    protected abstract R merge(R left, R right);
+
+    /**
+     * Can be overridden to terminate early when the merged result is already sufficient. Remaining tasks will then be
+     * cancelled.
+     */
+    protected boolean isFinished(final R merged) {
+        return false;
+    }
+
+    private final class ChunkResult {
+        private final int index;
+        private final R result;
+        private final Throwable error;
+
+        private ChunkResult(final int index, final R result, final Throwable error) {
+            this.index = index;
+            this.result = result;
+            this.error = error;
+        }
+    }
+
+    private final class ChunkTask extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final List<S> chunk;
+        private final BlockingQueue<ChunkResult> completed;
+
+        private ChunkTask(final int index, final List<S> chunk, final BlockingQueue<ChunkResult> completed) {
+            this.index = index;
+            this.chunk = chunk;
+            this.completed = completed;
+        }
+
+        @Override
+        protected R compute() {
+            try {
+                final R result = new RangeTask(chunk, 0, chunk.size()).compute();
+                completed.add(new ChunkResult(index, result, null));
+                return result;
+            } catch (final Throwable t) {
+                completed.add(new ChunkResult(index, null, t));
+                throw Throwables.propagate(t);
+            }
+        }
+
+    }
+
+    private final class RangeTask extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<S> chunk;
+        private final int from;
+        private final int to;
+
+        private RangeTask(final List<S> chunk, final int from, final int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from > splitThreshold) {
+                final int middle = (from + to) >>> 1;
+                final RangeTask left = new RangeTask(chunk, from, middle);
+                left.fork();
+                final R rightResult = new RangeTask(chunk, middle, to).compute();
+                return merge(left.join(), rightResult);
+            }
+            R result = getIdentity();
+            for (int i = from; i < to && !aborted; i++) {
+                final S element = chunk.get(i);
+                if (skip(element)) {
+                    continue;
+                }
+                final M mapped = map(element);
+                if (mapped != null) {
+                    result = reduce(result, mapped);
+                }
+            }
+            return result;
+        }
+
+    }
+
+}
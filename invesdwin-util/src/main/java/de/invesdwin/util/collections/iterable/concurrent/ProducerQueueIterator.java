@@ -13,6 +13,7 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.CloseableIterators;
 import de.invesdwin.util.collections.iterable.ICloseableIterator;
 import de.invesdwin.util.collections.loadingcache.historical.AHistoricalCache;
 import de.invesdwin.util.concurrent.Executors;
@@ -23,15 +24,17 @@ public class ProducerQueueIterator<E> implements ICloseableIterator<E> {
 
     private final class ProducerRunnable implements Runnable {
 
+        @SuppressWarnings("unchecked")
         @Override
         public void run() {
             try {
-                while (!closed && producer.hasNext()) {
-                    final E next = producer.next();
-                    onElement(next);
+                while (!closed) {
+                    final Object next = CloseableIterators.tryNext(producer);
+                    if (next == CloseableIterators.END_OF_DATA) {
+                        break;
+                    }
+                    onElement((E) next);
                 }
-            } catch (final NoSuchElementException e) {
-                close();
             } finally {
                 //closing does not prevent queue from getting drained completely
                 close();
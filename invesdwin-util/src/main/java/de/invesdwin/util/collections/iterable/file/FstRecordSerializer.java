@@ -0,0 +1,42 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.lang.Objects;
+
+/**
+ * The default serializer that uses the FST configuration of Objects. FST needs a byte array, so the record is copied
+ * out of the mapped buffer before deserializing it.
+ */
+@Immutable
+public class FstRecordSerializer<E> implements IRecordSerializer<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final FstRecordSerializer INSTANCE = new FstRecordSerializer();
+
+    @SuppressWarnings("unchecked")
+    public static <T> FstRecordSerializer<T> getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public int getFixedLength() {
+        return 0;
+    }
+
+    @Override
+    public byte[] serialize(final E value) {
+        return Objects.serialize((Serializable) value);
+    }
+
+    @Override
+    public E deserialize(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return Objects.deserialize(bytes);
+    }
+
+}
@@ -0,0 +1,21 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.nio.ByteBuffer;
+
+public interface IRecordSerializer<E> {
+
+    /**
+     * Returns the length of each serialized record if it is always the same, which saves storing the length per
+     * record. Return a value of 0 or below for variable length records.
+     */
+    int getFixedLength();
+
+    byte[] serialize(E value);
+
+    /**
+     * The buffer is positioned at the start of the record and limited to its end. It is a view on the memory mapped
+     * file, so fixed layouts can be read without copying. The buffer must not be kept after this call.
+     */
+    E deserialize(ByteBuffer buffer);
+
+}
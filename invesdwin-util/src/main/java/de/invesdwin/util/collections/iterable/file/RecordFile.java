@@ -0,0 +1,136 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Layout of the append only record files:
+ *
+ * <pre>
+ * header: int MAGIC, int VERSION, int fixedLength
+ * record: long timestampMillis, [int length if fixedLength &lt;= 0], byte[] payload
+ * </pre>
+ *
+ * The sparse index is stored next to it in a file with the INDEX_SUFFIX. It contains pairs of long timestampMillis and
+ * long fileOffset for every n-th record, so that a reader can seek close to a start timestamp via binary search.
+ */
+@Immutable
+final class RecordFile {
+
+    static final int MAGIC = 0x52454346;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 12;
+    static final String INDEX_SUFFIX = ".index";
+    static final int INDEX_ENTRY_LENGTH = 16;
+    static final int TIMESTAMP_LENGTH = 8;
+    static final int LENGTH_LENGTH = 4;
+
+    private RecordFile() {}
+
+    static File getIndexFile(final File file) {
+        return new File(file.getAbsolutePath() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Returns the index entries as timestamps and offsets, an entry that was only partially written is ignored.
+     */
+    static long[][] readIndex(final File file) throws IOException {
+        return readIndex(file, new long[][] { new long[0], new long[0] });
+    }
+
+    /**
+     * Only reads the entries that were appended after the given ones. The given arrays are not modified.
+     */
+    static long[][] readIndex(final File file, final long[][] previous) throws IOException {
+        final File indexFile = getIndexFile(file);
+        if (!indexFile.exists()) {
+            return new long[][] { new long[0], new long[0] };
+        }
+        final int previousEntries = previous[0].length;
+        final int entries = (int) (indexFile.length() / INDEX_ENTRY_LENGTH);
+        if (entries <= previousEntries) {
+            return previous;
+        }
+        final long[] timestamps = Arrays.copyOf(previous[0], entries);
+        final long[] offsets = Arrays.copyOf(previous[1], entries);
+        final FileInputStream fileIn = new FileInputStream(indexFile);
+        try {
+            fileIn.getChannel().position((long) previousEntries * INDEX_ENTRY_LENGTH);
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn));
+            for (int i = previousEntries; i < entries; i++) {
+                timestamps[i] = in.readLong();
+                offsets[i] = in.readLong();
+            }
+        } finally {
+            fileIn.close();
+        }
+        return new long[][] { timestamps, offsets };
+    }
+
+    /**
+     * Returns the fixed length from the header.
+     */
+    static int readHeader(final DataInput dataIn, final File file) throws IOException {
+        try {
+            final int magic = dataIn.readInt();
+            if (magic != MAGIC) {
+                throw new IOException("Not a record file: " + file);
+            }
+            final int version = dataIn.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version [" + version + "] of record file: " + file);
+            }
+            return dataIn.readInt();
+        } catch (final EOFException e) {
+            throw new IOException("Incomplete header in record file: " + file, e);
+        }
+    }
+
+    /**
+     * Returns the index of the last entry with a timestamp not after the given one, or -1 if there is none.
+     */
+    static int binarySearchFloor(final long[] timestamps, final long timestamp) {
+        int low = 0;
+        int high = timestamps.length - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= timestamp) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the last entry with a timestamp before the given one, or -1 if there is none. Records with
+     * the same timestamp might span several index entries, so the search stops before them.
+     */
+    static int binarySearchBefore(final long[] timestamps, final long timestamp) {
+        int low = 0;
+        int high = timestamps.length - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (timestamps[mid] < timestamp) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,82 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.collections.iterable.EmptyCloseableIterator;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.ISeekableCloseableIterable;
+import de.invesdwin.util.error.Throwables;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Reads the records of a file written by RecordFileWriter, optionally limited to a time range (both inclusive). The
+ * sparse index is used to seek close to the start, records outside of the range are skipped without deserializing
+ * them.
+ *
+ * Each iterator sees the records that were flushed when it was created.
+ */
+@Immutable
+public class RecordFileIterable<E> implements ISeekableCloseableIterable<E> {
+
+    private final File file;
+    private final IRecordSerializer<E> serializer;
+    private final FDate from;
+    private final FDate to;
+
+    public RecordFileIterable(final File file, final IRecordSerializer<E> serializer) {
+        this(file, serializer, null, null);
+    }
+
+    /**
+     * Null for from or to means unlimited.
+     */
+    public RecordFileIterable(final File file, final IRecordSerializer<E> serializer, final FDate from,
+            final FDate to) {
+        this.file = file;
+        this.serializer = serializer;
+        this.from = from;
+        this.to = to;
+    }
+
+    public RecordFileIterable<E> withRange(final FDate from, final FDate to) {
+        return new RecordFileIterable<E>(file, serializer, from, to);
+    }
+
+    @Override
+    public ICloseableIterator<E> iterator() {
+        return newIterator(from, false);
+    }
+
+    /**
+     * Starts at the later one of the given key and the start of the range.
+     */
+    @Override
+    public ICloseableIterator<E> seekCeiling(final FDate key) {
+        return newIterator(FDate.max(from, key), false);
+    }
+
+    /**
+     * Starts at the floor of the given key, records before the start of the range are included in that case.
+     */
+    @Override
+    public ICloseableIterator<E> seekFloor(final FDate key) {
+        return newIterator(key, true);
+    }
+
+    private ICloseableIterator<E> newIterator(final FDate start, final boolean floor) {
+        if (!file.exists()) {
+            return new EmptyCloseableIterator<E>();
+        }
+        final long fromMillis = start == null ? Long.MIN_VALUE : start.millisValue();
+        final long toMillis = to == null ? Long.MAX_VALUE : to.millisValue();
+        try {
+            return new RecordFileIterator<E>(file, serializer, fromMillis, toMillis, floor);
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+}
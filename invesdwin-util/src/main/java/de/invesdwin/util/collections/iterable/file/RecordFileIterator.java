@@ -0,0 +1,228 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.CloseableIterators;
+import de.invesdwin.util.collections.iterable.ITryNextCloseableIterator;
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Reads the records through windows of the file that are memory mapped read only, so files larger than 2 GB are
+ * supported. The windows are shared with the other iterators on the same file, see RecordFileMapping. The rare records
+ * that span two windows are read into a heap buffer instead.
+ */
+@NotThreadSafe
+public class RecordFileIterator<E> implements ITryNextCloseableIterator<E> {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final IRecordSerializer<E> serializer;
+    private final long toMillis;
+    private final long fromMillis;
+    private final int fixedLength;
+    private final int prefixLength;
+    private final long fileLength;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private RecordFileMapping mapping;
+    private ByteBuffer window;
+    private long windowOffset;
+    private long offset;
+    private Object cachedReadNext = CloseableIterators.END_OF_DATA;
+    private boolean cachedReadNextPresent;
+
+    RecordFileIterator(final File file, final IRecordSerializer<E> serializer, final long fromMillis,
+            final long toMillis) throws IOException {
+        this(file, serializer, fromMillis, toMillis, false);
+    }
+
+    /**
+     * With floor, the iterator starts at the last record with a timestamp not after fromMillis (or the first record if
+     * there is none) and only the end of the range is checked.
+     */
+    RecordFileIterator(final File file, final IRecordSerializer<E> serializer, final long fromMillis,
+            final long toMillis, final boolean floor) throws IOException {
+        this.serializer = serializer;
+        this.toMillis = toMillis;
+        this.fixedLength = serializer.getFixedLength();
+        this.prefixLength = RecordFile.TIMESTAMP_LENGTH + (fixedLength > 0 ? 0 : RecordFile.LENGTH_LENGTH);
+        this.raf = new RandomAccessFile(file, "r");
+        try {
+            this.fileLength = raf.length();
+            final int storedFixedLength = RecordFile.readHeader(raf, file);
+            if (storedFixedLength != fixedLength) {
+                throw new IOException("Fixed length [" + fixedLength + "] of serializer does not match ["
+                        + storedFixedLength + "] of file: " + file);
+            }
+            this.channel = raf.getChannel();
+            this.mapping = RecordFileMapping.getInstance(file);
+            if (floor) {
+                this.offset = seekFloor(file, fromMillis);
+                this.fromMillis = Long.MIN_VALUE;
+            } else {
+                this.offset = seek(file, fromMillis);
+                this.fromMillis = fromMillis;
+            }
+        } catch (final IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private long seek(final File file, final long fromMillis) throws IOException {
+        if (fromMillis == Long.MIN_VALUE) {
+            return RecordFile.HEADER_LENGTH;
+        }
+        final long[][] index = mapping.getIndex(file);
+        final int entry = RecordFile.binarySearchBefore(index[0], fromMillis);
+        if (entry < 0) {
+            return RecordFile.HEADER_LENGTH;
+        }
+        return Math.min(index[1][entry], fileLength);
+    }
+
+    /**
+     * Scans the timestamps from the closest index entry without mapping or deserializing the payloads.
+     */
+    private long seekFloor(final File file, final long fromMillis) throws IOException {
+        final long[][] index = mapping.getIndex(file);
+        final int entry = RecordFile.binarySearchFloor(index[0], fromMillis);
+        long position = RecordFile.HEADER_LENGTH;
+        if (entry >= 0) {
+            position = Math.min(index[1][entry], fileLength);
+        }
+        long floorOffset = position;
+        while (position + prefixLength <= fileLength) {
+            raf.seek(position);
+            final long timestamp = raf.readLong();
+            if (timestamp > fromMillis) {
+                break;
+            }
+            final int length = fixedLength > 0 ? fixedLength : raf.readInt();
+            if (position + prefixLength + length > fileLength) {
+                //incomplete record at the end
+                break;
+            }
+            floorOffset = position;
+            position += prefixLength + length;
+        }
+        return floorOffset;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!cachedReadNextPresent) {
+            cachedReadNext = readNext();
+            cachedReadNextPresent = true;
+        }
+        return cachedReadNext != CloseableIterators.END_OF_DATA;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E next() {
+        final Object next = tryNext();
+        if (next == CloseableIterators.END_OF_DATA) {
+            throw new NoSuchElementException();
+        }
+        return (E) next;
+    }
+
+    @Override
+    public Object tryNext() {
+        if (cachedReadNextPresent) {
+            final Object next = cachedReadNext;
+            cachedReadNext = CloseableIterators.END_OF_DATA;
+            cachedReadNextPresent = false;
+            return next;
+        }
+        return readNext();
+    }
+
+    private Object readNext() {
+        try {
+            while (channel != null && offset + prefixLength <= fileLength) {
+                ensureMapped(offset, prefixLength);
+                final int position = (int) (offset - windowOffset);
+                final long timestamp = window.getLong(position);
+                if (timestamp > toMillis) {
+                    break;
+                }
+                final int length;
+                if (fixedLength > 0) {
+                    length = fixedLength;
+                } else {
+                    length = window.getInt(position + RecordFile.TIMESTAMP_LENGTH);
+                }
+                final long end = offset + prefixLength + length;
+                if (length < 0 || end > fileLength) {
+                    //incomplete record at the end
+                    break;
+                }
+                final long payloadOffset = offset + prefixLength;
+                offset = end;
+                if (timestamp >= fromMillis) {
+                    ensureMapped(payloadOffset, length);
+                    final ByteBuffer payload = window.duplicate();
+                    final int payloadPosition = (int) (payloadOffset - windowOffset);
+                    payload.limit(payloadPosition + length);
+                    payload.position(payloadPosition);
+                    return serializer.deserialize(payload.slice());
+                }
+            }
+            close();
+            return CloseableIterators.END_OF_DATA;
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private void ensureMapped(final long start, final int length) throws IOException {
+        final long end = start + length;
+        if (window != null && start >= windowOffset && end <= windowOffset + window.limit()) {
+            return;
+        }
+        final long windowIndex = start / DEFAULT_WINDOW_SIZE;
+        final long alignedOffset = windowIndex * DEFAULT_WINDOW_SIZE;
+        if (end <= alignedOffset + DEFAULT_WINDOW_SIZE) {
+            window = mapping.getWindow(channel, windowIndex, DEFAULT_WINDOW_SIZE, end);
+            windowOffset = alignedOffset;
+        } else {
+            //spans two windows
+            final ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file at: " + (start + buffer.position()));
+                }
+            }
+            buffer.flip();
+            window = buffer;
+            windowOffset = start;
+        }
+    }
+
+    /**
+     * The shared windows are released by the garbage collector, since there is no portable way to unmap them
+     * explicitly.
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        mapping = null;
+        channel = null;
+        cachedReadNext = CloseableIterators.END_OF_DATA;
+        cachedReadNextPresent = false;
+        if (raf != null) {
+            raf.close();
+            raf = null;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+
+/**
+ * The read only windows and the parsed index of a record file, shared by all iterators on that file so that each window
+ * is mapped only once and the index is only read once instead of once per iterator. Windows are aligned to multiples of
+ * the window size and are remapped when the file grew past the end of a window that was mapped before. Only the most
+ * recently used windows of a file are kept, so large files do not pin a mapping for every window that was ever read.
+ * The index is read again incrementally when the index file grew.
+ *
+ * The mappings of the most recently used files are cached by the file key, thus a file that gets replaced by a new one
+ * with the same name gets new mappings. Windows are released by the garbage collector once they are evicted and no
+ * iterator references them anymore.
+ */
+@ThreadSafe
+final class RecordFileMapping {
+
+    private static final int MAX_CACHED_FILES = 64;
+    private static final int MAX_CACHED_WINDOWS_PER_FILE = 16;
+
+    private static final ALoadingCache<Object, RecordFileMapping> FILEKEY_MAPPING = new ALoadingCache<Object, RecordFileMapping>() {
+        @Override
+        protected Integer getMaximumSize() {
+            return MAX_CACHED_FILES;
+        }
+
+        @Override
+        protected RecordFileMapping loadValue(final Object key) {
+            return new RecordFileMapping();
+        }
+    };
+
+    @GuardedBy("this")
+    private final Map<Long, MappedByteBuffer> index_window = new LinkedHashMap<Long, MappedByteBuffer>(16, 0.75f,
+            true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, MappedByteBuffer> eldest) {
+            return size() > MAX_CACHED_WINDOWS_PER_FILE;
+        }
+    };
+    @GuardedBy("this")
+    private long[][] index;
+    @GuardedBy("this")
+    private long indexLength;
+
+    private RecordFileMapping() {}
+
+    static RecordFileMapping getInstance(final File file) throws IOException {
+        Object key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        if (key == null) {
+            key = file.getAbsoluteFile();
+        }
+        return FILEKEY_MAPPING.get(key);
+    }
+
+    /**
+     * Returns the window that starts at windowIndex * windowSize and reaches at least until requiredEnd. The returned
+     * buffer is shared, so it must only be read with absolute positions or via duplicate().
+     */
+    synchronized MappedByteBuffer getWindow(final FileChannel channel, final long windowIndex, final int windowSize,
+            final long requiredEnd) throws IOException {
+        final long windowOffset = windowIndex * windowSize;
+        MappedByteBuffer window = index_window.get(windowIndex);
+        if (window == null || windowOffset + window.limit() < requiredEnd) {
+            final long size = Math.min(windowSize, channel.size() - windowOffset);
+            window = channel.map(MapMode.READ_ONLY, windowOffset, size);
+            index_window.put(windowIndex, window);
+        }
+        return window;
+    }
+
+    synchronized int getWindowCount() {
+        return index_window.size();
+    }
+
+    /**
+     * Returns the index entries as timestamps and offsets, see RecordFile.readIndex(). The returned arrays are shared
+     * and must not be modified.
+     */
+    synchronized long[][] getIndex(final File file) throws IOException {
+        //length is 0 if the index does not exist
+        final long length = RecordFile.getIndexFile(file).length();
+        if (index == null || length < indexLength) {
+            index = RecordFile.readIndex(file);
+            indexLength = length;
+        } else if (length > indexLength) {
+            index = RecordFile.readIndex(file, index);
+            indexLength = length;
+        }
+        return index;
+    }
+
+    /**
+     * The index has to be read again completely after it was truncated or deleted by a writer.
+     */
+    synchronized void invalidateIndex() {
+        index = null;
+        indexLength = 0;
+    }
+
+}
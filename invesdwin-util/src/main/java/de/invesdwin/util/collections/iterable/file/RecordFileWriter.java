@@ -0,0 +1,222 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Appends time ordered records to a file that can be read via RecordFileIterable, see RecordFile for the layout. An
+ * existing file is continued, a partially written last record (e.g. after a crash) is truncated.
+ *
+ * Readers only see records that were flushed. Index entries are kept in memory until the records they point to were
+ * flushed, so a reader never finds an index entry for data that is not readable yet.
+ */
+@NotThreadSafe
+public class RecordFileWriter<E> implements Closeable {
+
+    public static final int DEFAULT_INDEX_INTERVAL = 1024;
+
+    private final File file;
+    private final IRecordSerializer<E> serializer;
+    private final int fixedLength;
+    private final int indexInterval;
+    private final DataOutputStream out;
+    private final DataOutputStream indexOut;
+    private final ByteArrayOutputStream pendingIndex = new ByteArrayOutputStream();
+    private final DataOutputStream pendingIndexOut = new DataOutputStream(pendingIndex);
+    private long offset;
+    private long recordCount;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    public RecordFileWriter(final File file, final IRecordSerializer<E> serializer) throws IOException {
+        this(file, serializer, DEFAULT_INDEX_INTERVAL);
+    }
+
+    public RecordFileWriter(final File file, final IRecordSerializer<E> serializer, final int indexInterval)
+            throws IOException {
+        if (indexInterval <= 0) {
+            throw new IllegalArgumentException("indexInterval should be positive: " + indexInterval);
+        }
+        this.file = file;
+        this.serializer = serializer;
+        this.fixedLength = serializer.getFixedLength();
+        this.indexInterval = indexInterval;
+        if (file.exists() && file.length() > 0) {
+            recover();
+        } else {
+            initialize();
+        }
+        //readers in this process should not use an index that was truncated or deleted above
+        RecordFileMapping.getInstance(file).invalidateIndex();
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        this.indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+                RecordFile.getIndexFile(file), true)));
+    }
+
+    private void initialize() throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("Unable to create directory: " + parent);
+        }
+        final DataOutputStream headerOut = new DataOutputStream(new FileOutputStream(file));
+        try {
+            headerOut.writeInt(RecordFile.MAGIC);
+            headerOut.writeInt(RecordFile.VERSION);
+            headerOut.writeInt(fixedLength);
+        } finally {
+            headerOut.close();
+        }
+        final File indexFile = RecordFile.getIndexFile(file);
+        if (indexFile.exists() && !indexFile.delete()) {
+            throw new IOException("Unable to delete stale index: " + indexFile);
+        }
+        offset = RecordFile.HEADER_LENGTH;
+    }
+
+    /**
+     * Continues from the last index entry to find the end of the last complete record.
+     */
+    private void recover() throws IOException {
+        final long[][] index = RecordFile.readIndex(file);
+        final long[] indexTimestamps = index[0];
+        final long[] indexOffsets = index[1];
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            final long fileLength = raf.length();
+            final int storedFixedLength = RecordFile.readHeader(raf, file);
+            if (storedFixedLength != fixedLength) {
+                throw new IOException("Fixed length [" + fixedLength + "] of serializer does not match ["
+                        + storedFixedLength + "] of file: " + file);
+            }
+            int validIndexEntries = indexOffsets.length;
+            while (validIndexEntries > 0 && indexOffsets[validIndexEntries - 1] >= fileLength) {
+                validIndexEntries--;
+            }
+            final int prefixLength = RecordFile.TIMESTAMP_LENGTH + (fixedLength > 0 ? 0 : RecordFile.LENGTH_LENGTH);
+            long position;
+            long count;
+            while (true) {
+                position = RecordFile.HEADER_LENGTH;
+                count = 0;
+                if (validIndexEntries > 0) {
+                    position = indexOffsets[validIndexEntries - 1];
+                    count = (long) (validIndexEntries - 1) * indexInterval;
+                }
+                final long startCount = count;
+                while (position + prefixLength <= fileLength) {
+                    raf.seek(position);
+                    final long timestamp = raf.readLong();
+                    final int length = fixedLength > 0 ? fixedLength : raf.readInt();
+                    final long end = position + prefixLength + length;
+                    if (length < 0 || end > fileLength) {
+                        break;
+                    }
+                    lastTimestamp = timestamp;
+                    position = end;
+                    count++;
+                }
+                if (count > startCount || validIndexEntries == 0) {
+                    break;
+                }
+                //the record of the last index entry is incomplete, thus the entry is invalid too
+                validIndexEntries--;
+            }
+            if (position < fileLength) {
+                raf.setLength(position);
+            }
+            if (validIndexEntries < indexOffsets.length) {
+                truncateIndex(validIndexEntries);
+            }
+            offset = position;
+            recordCount = count;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void truncateIndex(final int entries) throws IOException {
+        final RandomAccessFile indexRaf = new RandomAccessFile(RecordFile.getIndexFile(file), "rw");
+        try {
+            indexRaf.setLength((long) entries * RecordFile.INDEX_ENTRY_LENGTH);
+        } finally {
+            indexRaf.close();
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void append(final FDate timestamp, final E value) throws IOException {
+        append(timestamp.millisValue(), value);
+    }
+
+    /**
+     * Timestamps have to be appended in ascending order, equal timestamps are allowed.
+     */
+    public void append(final long timestampMillis, final E value) throws IOException {
+        if (timestampMillis < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp [" + timestampMillis
+                    + "] should not be before the last appended timestamp [" + lastTimestamp + "]");
+        }
+        final byte[] bytes = serializer.serialize(value);
+        if (fixedLength > 0 && bytes.length != fixedLength) {
+            throw new IllegalArgumentException("Serialized length [" + bytes.length
+                    + "] does not match the fixed length [" + fixedLength + "]");
+        }
+        if (recordCount % indexInterval == 0) {
+            pendingIndexOut.writeLong(timestampMillis);
+            pendingIndexOut.writeLong(offset);
+        }
+        out.writeLong(timestampMillis);
+        offset += RecordFile.TIMESTAMP_LENGTH;
+        if (fixedLength <= 0) {
+            out.writeInt(bytes.length);
+            offset += RecordFile.LENGTH_LENGTH;
+        }
+        out.write(bytes);
+        offset += bytes.length;
+        recordCount++;
+        lastTimestamp = timestampMillis;
+    }
+
+    /**
+     * The records are flushed before the pending index entries are written, so the index never points to data that is
+     * not readable yet.
+     */
+    public void flush() throws IOException {
+        out.flush();
+        if (pendingIndex.size() > 0) {
+            pendingIndex.writeTo(indexOut);
+            pendingIndex.reset();
+        }
+        indexOut.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            try {
+                out.close();
+            } finally {
+                indexOut.close();
+            }
+        }
+    }
+
+}
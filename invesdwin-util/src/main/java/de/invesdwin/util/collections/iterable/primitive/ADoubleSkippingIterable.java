@@ -0,0 +1,26 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public abstract class ADoubleSkippingIterable implements IDoubleCloseableIterable {
+
+    private final IDoubleCloseableIterable delegate;
+
+    public ADoubleSkippingIterable(final IDoubleCloseableIterable delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public IDoubleCloseableIterator iterator() {
+        return new ADoubleSkippingIterator(delegate.iterator()) {
+            @Override
+            protected boolean skip(final double element) {
+                return ADoubleSkippingIterable.this.skip(element);
+            }
+        };
+    }
+
+    protected abstract boolean skip(final double element);
+
+}
@@ -0,0 +1,55 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public abstract class ADoubleSkippingIterator implements IDoubleCloseableIterator {
+
+    private final IDoubleCloseableIterator delegate;
+    private boolean cachedReadNextPresent;
+    private double cachedReadNext;
+
+    public ADoubleSkippingIterator(final IDoubleCloseableIterator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return readNext();
+    }
+
+    @Override
+    public double nextDouble() {
+        if (!readNext()) {
+            throw new NoSuchElementException();
+        }
+        cachedReadNextPresent = false;
+        return cachedReadNext;
+    }
+
+    private boolean readNext() {
+        if (cachedReadNextPresent) {
+            return true;
+        }
+        while (delegate.hasNext()) {
+            final double next = delegate.nextDouble();
+            if (!skip(next)) {
+                cachedReadNext = next;
+                cachedReadNextPresent = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected abstract boolean skip(double element);
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@Immutable
+public abstract class ADoubleTransformingCloseableIterable<S> implements IDoubleCloseableIterable {
+
+    private final ICloseableIterable<? extends S> delegate;
+
+    public ADoubleTransformingCloseableIterable(final ICloseableIterable<? extends S> delegate) {
+        this.delegate = delegate;
+    }
+
+    public ADoubleTransformingCloseableIterable(final Iterable<? extends S> delegate) {
+        this.delegate = new WrapperCloseableIterable<S>(delegate);
+    }
+
+    protected abstract double transform(S value);
+
+    @Override
+    public IDoubleCloseableIterator iterator() {
+        return new ADoubleTransformingCloseableIterator<S>(delegate.iterator()) {
+
+            @Override
+            protected double transform(final S value) {
+                return ADoubleTransformingCloseableIterable.this.transform(value);
+            }
+
+        };
+    }
+
+}
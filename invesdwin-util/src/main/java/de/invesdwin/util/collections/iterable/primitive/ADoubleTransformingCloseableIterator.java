@@ -0,0 +1,45 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterator;
+
+/**
+ * Extracts a double from each element, e.g. to scan timestamps or prices of objects without boxing them. Null elements
+ * are passed to transform, since there is no null double.
+ */
+@NotThreadSafe
+public abstract class ADoubleTransformingCloseableIterator<S> implements IDoubleCloseableIterator {
+
+    private final ICloseableIterator<? extends S> delegate;
+
+    public ADoubleTransformingCloseableIterator(final ICloseableIterator<? extends S> delegate) {
+        this.delegate = delegate;
+    }
+
+    public ADoubleTransformingCloseableIterator(final Iterator<? extends S> delegate) {
+        this.delegate = WrapperCloseableIterator.maybeWrap(delegate);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public double nextDouble() {
+        return transform(delegate.next());
+    }
+
+    protected abstract double transform(S value);
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
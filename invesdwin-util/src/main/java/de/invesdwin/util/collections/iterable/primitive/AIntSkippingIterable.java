@@ -0,0 +1,26 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public abstract class AIntSkippingIterable implements IIntCloseableIterable {
+
+    private final IIntCloseableIterable delegate;
+
+    public AIntSkippingIterable(final IIntCloseableIterable delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public IIntCloseableIterator iterator() {
+        return new AIntSkippingIterator(delegate.iterator()) {
+            @Override
+            protected boolean skip(final int element) {
+                return AIntSkippingIterable.this.skip(element);
+            }
+        };
+    }
+
+    protected abstract boolean skip(final int element);
+
+}
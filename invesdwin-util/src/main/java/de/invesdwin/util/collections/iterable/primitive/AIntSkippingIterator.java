@@ -0,0 +1,55 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public abstract class AIntSkippingIterator implements IIntCloseableIterator {
+
+    private final IIntCloseableIterator delegate;
+    private boolean cachedReadNextPresent;
+    private int cachedReadNext;
+
+    public AIntSkippingIterator(final IIntCloseableIterator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return readNext();
+    }
+
+    @Override
+    public int nextInt() {
+        if (!readNext()) {
+            throw new NoSuchElementException();
+        }
+        cachedReadNextPresent = false;
+        return cachedReadNext;
+    }
+
+    private boolean readNext() {
+        if (cachedReadNextPresent) {
+            return true;
+        }
+        while (delegate.hasNext()) {
+            final int next = delegate.nextInt();
+            if (!skip(next)) {
+                cachedReadNext = next;
+                cachedReadNextPresent = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected abstract boolean skip(int element);
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@Immutable
+public abstract class AIntTransformingCloseableIterable<S> implements IIntCloseableIterable {
+
+    private final ICloseableIterable<? extends S> delegate;
+
+    public AIntTransformingCloseableIterable(final ICloseableIterable<? extends S> delegate) {
+        this.delegate = delegate;
+    }
+
+    public AIntTransformingCloseableIterable(final Iterable<? extends S> delegate) {
+        this.delegate = new WrapperCloseableIterable<S>(delegate);
+    }
+
+    protected abstract int transform(S value);
+
+    @Override
+    public IIntCloseableIterator iterator() {
+        return new AIntTransformingCloseableIterator<S>(delegate.iterator()) {
+
+            @Override
+            protected int transform(final S value) {
+                return AIntTransformingCloseableIterable.this.transform(value);
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,26 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public abstract class ALongSkippingIterable implements ILongCloseableIterable {
+
+    private final ILongCloseableIterable delegate;
+
+    public ALongSkippingIterable(final ILongCloseableIterable delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ILongCloseableIterator iterator() {
+        return new ALongSkippingIterator(delegate.iterator()) {
+            @Override
+            protected boolean skip(final long element) {
+                return ALongSkippingIterable.this.skip(element);
+            }
+        };
+    }
+
+    protected abstract boolean skip(final long element);
+
+}
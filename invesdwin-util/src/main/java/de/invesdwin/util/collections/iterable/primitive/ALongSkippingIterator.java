@@ -0,0 +1,55 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public abstract class ALongSkippingIterator implements ILongCloseableIterator {
+
+    private final ILongCloseableIterator delegate;
+    private boolean cachedReadNextPresent;
+    private long cachedReadNext;
+
+    public ALongSkippingIterator(final ILongCloseableIterator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return readNext();
+    }
+
+    @Override
+    public long nextLong() {
+        if (!readNext()) {
+            throw new NoSuchElementException();
+        }
+        cachedReadNextPresent = false;
+        return cachedReadNext;
+    }
+
+    private boolean readNext() {
+        if (cachedReadNextPresent) {
+            return true;
+        }
+        while (delegate.hasNext()) {
+            final long next = delegate.nextLong();
+            if (!skip(next)) {
+                cachedReadNext = next;
+                cachedReadNextPresent = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected abstract boolean skip(long element);
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@Immutable
+public abstract class ALongTransformingCloseableIterable<S> implements ILongCloseableIterable {
+
+    private final ICloseableIterable<? extends S> delegate;
+
+    public ALongTransformingCloseableIterable(final ICloseableIterable<? extends S> delegate) {
+        this.delegate = delegate;
+    }
+
+    public ALongTransformingCloseableIterable(final Iterable<? extends S> delegate) {
+        this.delegate = new WrapperCloseableIterable<S>(delegate);
+    }
+
+    protected abstract long transform(S value);
+
+    @Override
+    public ILongCloseableIterator iterator() {
+        return new ALongTransformingCloseableIterator<S>(delegate.iterator()) {
+
+            @Override
+            protected long transform(final S value) {
+                return ALongTransformingCloseableIterable.this.transform(value);
+            }
+
+        };
+    }
+
+}
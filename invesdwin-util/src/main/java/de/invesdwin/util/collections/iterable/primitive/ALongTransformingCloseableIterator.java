@@ -0,0 +1,45 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterator;
+
+/**
+ * Extracts a long from each element, e.g. to scan timestamps or prices of objects without boxing them. Null elements
+ * are passed to transform, since there is no null long.
+ */
+@NotThreadSafe
+public abstract class ALongTransformingCloseableIterator<S> implements ILongCloseableIterator {
+
+    private final ICloseableIterator<? extends S> delegate;
+
+    public ALongTransformingCloseableIterator(final ICloseableIterator<? extends S> delegate) {
+        this.delegate = delegate;
+    }
+
+    public ALongTransformingCloseableIterator(final Iterator<? extends S> delegate) {
+        this.delegate = WrapperCloseableIterator.maybeWrap(delegate);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public long nextLong() {
+        return transform(delegate.next());
+    }
+
+    protected abstract long transform(S value);
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,27 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public class DoubleArrayCloseableIterable implements IDoubleCloseableIterable {
+
+    private final double[] array;
+    private final int startIndex;
+    private final int endIndex;
+
+    public DoubleArrayCloseableIterable(final double[] array) {
+        this(array, 0, array.length);
+    }
+
+    public DoubleArrayCloseableIterable(final double[] array, final int startIndex, final int endIndex) {
+        this.array = array;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    @Override
+    public IDoubleCloseableIterator iterator() {
+        return new DoubleArrayCloseableIterator(array, startIndex, endIndex);
+    }
+
+}
@@ -0,0 +1,50 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class DoubleArrayCloseableIterator implements IDoubleCloseableIterator {
+
+    private final double[] array;
+    private final int endIndex;
+    private int curIndex;
+
+    public DoubleArrayCloseableIterator(final double[] array) {
+        this(array, 0, array.length);
+    }
+
+    /**
+     * The endIndex is exclusive.
+     */
+    public DoubleArrayCloseableIterator(final double[] array, final int startIndex, final int endIndex) {
+        if (startIndex < 0 || endIndex > array.length || startIndex > endIndex) {
+            throw new IndexOutOfBoundsException("startIndex [" + startIndex + "] and endIndex [" + endIndex
+                    + "] should be within array length [" + array.length + "]");
+        }
+        this.array = array;
+        this.curIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return curIndex < endIndex;
+    }
+
+    @Override
+    public double nextDouble() {
+        if (curIndex >= endIndex) {
+            throw new NoSuchElementException();
+        }
+        return array[curIndex++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        curIndex = endIndex;
+    }
+
+}
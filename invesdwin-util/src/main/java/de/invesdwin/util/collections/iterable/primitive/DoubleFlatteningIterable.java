@@ -0,0 +1,29 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ATransformingCloseableIterator;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+
+@NotThreadSafe
+public class DoubleFlatteningIterable implements IDoubleCloseableIterable {
+
+    private final ICloseableIterable<? extends IDoubleCloseableIterable> delegate;
+
+    public DoubleFlatteningIterable(final ICloseableIterable<? extends IDoubleCloseableIterable> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public IDoubleCloseableIterator iterator() {
+        final ATransformingCloseableIterator<IDoubleCloseableIterable, IDoubleCloseableIterator> transformingDelegate = new ATransformingCloseableIterator<IDoubleCloseableIterable, IDoubleCloseableIterator>(
+                delegate.iterator()) {
+            @Override
+            protected IDoubleCloseableIterator transform(final IDoubleCloseableIterable value) {
+                return value.iterator();
+            }
+        };
+        return new DoubleFlatteningIterator(transformingDelegate);
+    }
+
+}
@@ -0,0 +1,67 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+@NotThreadSafe
+public class DoubleFlatteningIterator implements IDoubleCloseableIterator {
+
+    private final ICloseableIterator<? extends IDoubleCloseableIterator> delegate;
+    private IDoubleCloseableIterator curIterator;
+
+    public DoubleFlatteningIterator(final ICloseableIterator<? extends IDoubleCloseableIterator> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return getIterator() != null;
+    }
+
+    @Override
+    public double nextDouble() {
+        final IDoubleCloseableIterator iterator = getIterator();
+        if (iterator == null) {
+            return EmptyDoubleCloseableIterator.INSTANCE.nextDouble();
+        }
+        return iterator.nextDouble();
+    }
+
+    /**
+     * Returns null when all iterators are exhausted. Exhausted iterators are closed when switching to the next one.
+     */
+    private IDoubleCloseableIterator getIterator() {
+        while (curIterator == null || !curIterator.hasNext()) {
+            if (curIterator != null) {
+                closeQuietly(curIterator);
+                curIterator = null;
+            }
+            if (!delegate.hasNext()) {
+                return null;
+            }
+            curIterator = delegate.next();
+        }
+        return curIterator;
+    }
+
+    private static void closeQuietly(final IDoubleCloseableIterator iterator) {
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            //ignore
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (curIterator != null) {
+            curIterator.close();
+            curIterator = null;
+        }
+        delegate.close();
+    }
+
+}
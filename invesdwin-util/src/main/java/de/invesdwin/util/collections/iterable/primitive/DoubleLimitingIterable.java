@@ -0,0 +1,21 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class DoubleLimitingIterable implements IDoubleCloseableIterable {
+
+    private final IDoubleCloseableIterable delegate;
+    private final int limit;
+
+    public DoubleLimitingIterable(final IDoubleCloseableIterable delegate, final int limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public IDoubleCloseableIterator iterator() {
+        return new DoubleLimitingIterator(delegate.iterator(), limit);
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class DoubleLimitingIterator implements IDoubleCloseableIterator {
+
+    private final IDoubleCloseableIterator delegate;
+    private final int limit;
+    private int curCount;
+
+    public DoubleLimitingIterator(final IDoubleCloseableIterator delegate, final int limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (curCount >= limit) {
+            return false;
+        }
+        return delegate.hasNext();
+    }
+
+    @Override
+    public double nextDouble() {
+        if (curCount >= limit) {
+            throw new NoSuchElementException();
+        }
+        curCount++;
+        return delegate.nextDouble();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
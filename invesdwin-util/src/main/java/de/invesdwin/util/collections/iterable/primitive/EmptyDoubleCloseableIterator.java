@@ -0,0 +1,28 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public final class EmptyDoubleCloseableIterator implements IDoubleCloseableIterator {
+
+    public static final EmptyDoubleCloseableIterator INSTANCE = new EmptyDoubleCloseableIterator();
+
+    private EmptyDoubleCloseableIterator() {}
+
+    @Override
+    public boolean hasNext() {
+        return false;
+    }
+
+    @Override
+    public double nextDouble() {
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void close() throws IOException {}
+
+}
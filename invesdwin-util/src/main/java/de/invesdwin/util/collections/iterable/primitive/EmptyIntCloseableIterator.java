@@ -0,0 +1,28 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public final class EmptyIntCloseableIterator implements IIntCloseableIterator {
+
+    public static final EmptyIntCloseableIterator INSTANCE = new EmptyIntCloseableIterator();
+
+    private EmptyIntCloseableIterator() {}
+
+    @Override
+    public boolean hasNext() {
+        return false;
+    }
+
+    @Override
+    public int nextInt() {
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void close() throws IOException {}
+
+}
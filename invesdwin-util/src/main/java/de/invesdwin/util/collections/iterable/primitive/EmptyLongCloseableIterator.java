@@ -0,0 +1,28 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public final class EmptyLongCloseableIterator implements ILongCloseableIterator {
+
+    public static final EmptyLongCloseableIterator INSTANCE = new EmptyLongCloseableIterator();
+
+    private EmptyLongCloseableIterator() {}
+
+    @Override
+    public boolean hasNext() {
+        return false;
+    }
+
+    @Override
+    public long nextLong() {
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void close() throws IOException {}
+
+}
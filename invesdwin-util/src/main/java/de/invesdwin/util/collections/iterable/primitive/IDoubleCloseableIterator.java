@@ -0,0 +1,13 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.util.PrimitiveIterator;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+/**
+ * Use nextDouble() to iterate without boxing. Since this is also an ICloseableIterator&lt;Double&gt;, it can be passed to
+ * code that expects the object version, which then boxes via next().
+ */
+public interface IDoubleCloseableIterator extends ICloseableIterator<Double>, PrimitiveIterator.OfDouble {
+
+}
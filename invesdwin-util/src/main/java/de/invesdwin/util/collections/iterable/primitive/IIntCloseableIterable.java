@@ -0,0 +1,10 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+
+public interface IIntCloseableIterable extends ICloseableIterable<Integer> {
+
+    @Override
+    IIntCloseableIterator iterator();
+
+}
@@ -0,0 +1,10 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+
+public interface ILongCloseableIterable extends ICloseableIterable<Long> {
+
+    @Override
+    ILongCloseableIterator iterator();
+
+}
@@ -0,0 +1,27 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public class IntArrayCloseableIterable implements IIntCloseableIterable {
+
+    private final int[] array;
+    private final int startIndex;
+    private final int endIndex;
+
+    public IntArrayCloseableIterable(final int[] array) {
+        this(array, 0, array.length);
+    }
+
+    public IntArrayCloseableIterable(final int[] array, final int startIndex, final int endIndex) {
+        this.array = array;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    @Override
+    public IIntCloseableIterator iterator() {
+        return new IntArrayCloseableIterator(array, startIndex, endIndex);
+    }
+
+}
@@ -0,0 +1,29 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ATransformingCloseableIterator;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+
+@NotThreadSafe
+public class IntFlatteningIterable implements IIntCloseableIterable {
+
+    private final ICloseableIterable<? extends IIntCloseableIterable> delegate;
+
+    public IntFlatteningIterable(final ICloseableIterable<? extends IIntCloseableIterable> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public IIntCloseableIterator iterator() {
+        final ATransformingCloseableIterator<IIntCloseableIterable, IIntCloseableIterator> transformingDelegate = new ATransformingCloseableIterator<IIntCloseableIterable, IIntCloseableIterator>(
+                delegate.iterator()) {
+            @Override
+            protected IIntCloseableIterator transform(final IIntCloseableIterable value) {
+                return value.iterator();
+            }
+        };
+        return new IntFlatteningIterator(transformingDelegate);
+    }
+
+}
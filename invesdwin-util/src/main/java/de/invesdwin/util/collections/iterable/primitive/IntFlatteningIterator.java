@@ -0,0 +1,67 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+@NotThreadSafe
+public class IntFlatteningIterator implements IIntCloseableIterator {
+
+    private final ICloseableIterator<? extends IIntCloseableIterator> delegate;
+    private IIntCloseableIterator curIterator;
+
+    public IntFlatteningIterator(final ICloseableIterator<? extends IIntCloseableIterator> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return getIterator() != null;
+    }
+
+    @Override
+    public int nextInt() {
+        final IIntCloseableIterator iterator = getIterator();
+        if (iterator == null) {
+            return EmptyIntCloseableIterator.INSTANCE.nextInt();
+        }
+        return iterator.nextInt();
+    }
+
+    /**
+     * Returns null when all iterators are exhausted. Exhausted iterators are closed when switching to the next one.
+     */
+    private IIntCloseableIterator getIterator() {
+        while (curIterator == null || !curIterator.hasNext()) {
+            if (curIterator != null) {
+                closeQuietly(curIterator);
+                curIterator = null;
+            }
+            if (!delegate.hasNext()) {
+                return null;
+            }
+            curIterator = delegate.next();
+        }
+        return curIterator;
+    }
+
+    private static void closeQuietly(final IIntCloseableIterator iterator) {
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            //ignore
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (curIterator != null) {
+            curIterator.close();
+            curIterator = null;
+        }
+        delegate.close();
+    }
+
+}
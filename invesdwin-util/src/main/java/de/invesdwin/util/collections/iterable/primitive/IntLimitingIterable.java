@@ -0,0 +1,21 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class IntLimitingIterable implements IIntCloseableIterable {
+
+    private final IIntCloseableIterable delegate;
+    private final int limit;
+
+    public IntLimitingIterable(final IIntCloseableIterable delegate, final int limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public IIntCloseableIterator iterator() {
+        return new IntLimitingIterator(delegate.iterator(), limit);
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class IntLimitingIterator implements IIntCloseableIterator {
+
+    private final IIntCloseableIterator delegate;
+    private final int limit;
+    private int curCount;
+
+    public IntLimitingIterator(final IIntCloseableIterator delegate, final int limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (curCount >= limit) {
+            return false;
+        }
+        return delegate.hasNext();
+    }
+
+    @Override
+    public int nextInt() {
+        if (curCount >= limit) {
+            throw new NoSuchElementException();
+        }
+        curCount++;
+        return delegate.nextInt();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,27 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public class LongArrayCloseableIterable implements ILongCloseableIterable {
+
+    private final long[] array;
+    private final int startIndex;
+    private final int endIndex;
+
+    public LongArrayCloseableIterable(final long[] array) {
+        this(array, 0, array.length);
+    }
+
+    public LongArrayCloseableIterable(final long[] array, final int startIndex, final int endIndex) {
+        this.array = array;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    @Override
+    public ILongCloseableIterator iterator() {
+        return new LongArrayCloseableIterator(array, startIndex, endIndex);
+    }
+
+}
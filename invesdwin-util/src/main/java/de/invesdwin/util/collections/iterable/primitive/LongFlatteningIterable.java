@@ -0,0 +1,29 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ATransformingCloseableIterator;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+
+@NotThreadSafe
+public class LongFlatteningIterable implements ILongCloseableIterable {
+
+    private final ICloseableIterable<? extends ILongCloseableIterable> delegate;
+
+    public LongFlatteningIterable(final ICloseableIterable<? extends ILongCloseableIterable> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ILongCloseableIterator iterator() {
+        final ATransformingCloseableIterator<ILongCloseableIterable, ILongCloseableIterator> transformingDelegate = new ATransformingCloseableIterator<ILongCloseableIterable, ILongCloseableIterator>(
+                delegate.iterator()) {
+            @Override
+            protected ILongCloseableIterator transform(final ILongCloseableIterable value) {
+                return value.iterator();
+            }
+        };
+        return new LongFlatteningIterator(transformingDelegate);
+    }
+
+}
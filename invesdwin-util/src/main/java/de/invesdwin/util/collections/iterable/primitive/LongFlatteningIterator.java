@@ -0,0 +1,67 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+@NotThreadSafe
+public class LongFlatteningIterator implements ILongCloseableIterator {
+
+    private final ICloseableIterator<? extends ILongCloseableIterator> delegate;
+    private ILongCloseableIterator curIterator;
+
+    public LongFlatteningIterator(final ICloseableIterator<? extends ILongCloseableIterator> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return getIterator() != null;
+    }
+
+    @Override
+    public long nextLong() {
+        final ILongCloseableIterator iterator = getIterator();
+        if (iterator == null) {
+            return EmptyLongCloseableIterator.INSTANCE.nextLong();
+        }
+        return iterator.nextLong();
+    }
+
+    /**
+     * Returns null when all iterators are exhausted. Exhausted iterators are closed when switching to the next one.
+     */
+    private ILongCloseableIterator getIterator() {
+        while (curIterator == null || !curIterator.hasNext()) {
+            if (curIterator != null) {
+                closeQuietly(curIterator);
+                curIterator = null;
+            }
+            if (!delegate.hasNext()) {
+                return null;
+            }
+            curIterator = delegate.next();
+        }
+        return curIterator;
+    }
+
+    private static void closeQuietly(final ILongCloseableIterator iterator) {
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            //ignore
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (curIterator != null) {
+            curIterator.close();
+            curIterator = null;
+        }
+        delegate.close();
+    }
+
+}
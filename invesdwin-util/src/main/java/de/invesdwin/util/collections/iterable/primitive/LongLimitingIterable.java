@@ -0,0 +1,21 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class LongLimitingIterable implements ILongCloseableIterable {
+
+    private final ILongCloseableIterable delegate;
+    private final int limit;
+
+    public LongLimitingIterable(final ILongCloseableIterable delegate, final int limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public ILongCloseableIterator iterator() {
+        return new LongLimitingIterator(delegate.iterator(), limit);
+    }
+
+}
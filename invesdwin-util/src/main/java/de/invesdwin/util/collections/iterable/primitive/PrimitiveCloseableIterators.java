@@ -0,0 +1,159 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+/**
+ * Adapters between the primitive and the object iterators. The primitive iterators are already object iterators that
+ * box on next(), so only unboxing needs an adapter. Null elements cause a NullPointerException when unboxed.
+ */
+@Immutable
+public final class PrimitiveCloseableIterators {
+
+    private static final int INITIAL_ARRAY_CAPACITY = 16;
+
+    private PrimitiveCloseableIterators() {}
+
+    public static ILongCloseableIterator toLongIterator(final ICloseableIterator<? extends Number> iterator) {
+        if (iterator instanceof ILongCloseableIterator) {
+            return (ILongCloseableIterator) iterator;
+        }
+        return new ALongTransformingCloseableIterator<Number>(iterator) {
+            @Override
+            protected long transform(final Number value) {
+                return value.longValue();
+            }
+        };
+    }
+
+    public static ILongCloseableIterable toLongIterable(final ICloseableIterable<? extends Number> iterable) {
+        if (iterable instanceof ILongCloseableIterable) {
+            return (ILongCloseableIterable) iterable;
+        }
+        return new ALongTransformingCloseableIterable<Number>(iterable) {
+            @Override
+            protected long transform(final Number value) {
+                return value.longValue();
+            }
+        };
+    }
+
+    /**
+     * Drains and closes the iterator.
+     */
+    public static long[] toArray(final ILongCloseableIterator iterator) {
+        long[] array = new long[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+        try {
+            while (iterator.hasNext()) {
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, size * 2);
+                }
+                array[size++] = iterator.nextLong();
+            }
+        } finally {
+            closeQuietly(iterator);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    public static IDoubleCloseableIterator toDoubleIterator(final ICloseableIterator<? extends Number> iterator) {
+        if (iterator instanceof IDoubleCloseableIterator) {
+            return (IDoubleCloseableIterator) iterator;
+        }
+        return new ADoubleTransformingCloseableIterator<Number>(iterator) {
+            @Override
+            protected double transform(final Number value) {
+                return value.doubleValue();
+            }
+        };
+    }
+
+    public static IDoubleCloseableIterable toDoubleIterable(final ICloseableIterable<? extends Number> iterable) {
+        if (iterable instanceof IDoubleCloseableIterable) {
+            return (IDoubleCloseableIterable) iterable;
+        }
+        return new ADoubleTransformingCloseableIterable<Number>(iterable) {
+            @Override
+            protected double transform(final Number value) {
+                return value.doubleValue();
+            }
+        };
+    }
+
+    /**
+     * Drains and closes the iterator.
+     */
+    public static double[] toArray(final IDoubleCloseableIterator iterator) {
+        double[] array = new double[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+        try {
+            while (iterator.hasNext()) {
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, size * 2);
+                }
+                array[size++] = iterator.nextDouble();
+            }
+        } finally {
+            closeQuietly(iterator);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    public static IIntCloseableIterator toIntIterator(final ICloseableIterator<? extends Number> iterator) {
+        if (iterator instanceof IIntCloseableIterator) {
+            return (IIntCloseableIterator) iterator;
+        }
+        return new AIntTransformingCloseableIterator<Number>(iterator) {
+            @Override
+            protected int transform(final Number value) {
+                return value.intValue();
+            }
+        };
+    }
+
+    public static IIntCloseableIterable toIntIterable(final ICloseableIterable<? extends Number> iterable) {
+        if (iterable instanceof IIntCloseableIterable) {
+            return (IIntCloseableIterable) iterable;
+        }
+        return new AIntTransformingCloseableIterable<Number>(iterable) {
+            @Override
+            protected int transform(final Number value) {
+                return value.intValue();
+            }
+        };
+    }
+
+    /**
+     * Drains and closes the iterator.
+     */
+    public static int[] toArray(final IIntCloseableIterator iterator) {
+        int[] array = new int[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+        try {
+            while (iterator.hasNext()) {
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, size * 2);
+                }
+                array[size++] = iterator.nextInt();
+            }
+        } finally {
+            closeQuietly(iterator);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    private static void closeQuietly(final ICloseableIterator<?> iterator) {
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            //ignore
+        }
+    }
+
+}
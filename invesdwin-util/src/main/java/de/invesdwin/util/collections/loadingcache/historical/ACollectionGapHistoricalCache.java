@@ -3,6 +3,7 @@ package de.invesdwin.util.collections.loadingcache.historical;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.RandomAccess;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -30,10 +31,21 @@ public abstract class ACollectionGapHistoricalCache<V> extends AGapHistoricalCac
         return new ArrayList<V>(getDelegate());
     }
 
+    /**
+     * Uses binary search when the collection is a RandomAccess list.
+     */
     @Override
     protected V readLatestValueFor(final FDate key) {
+        final Collection<V> collection = getDelegate();
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            final List<V> list = (List<V>) collection;
+            if (list.isEmpty()) {
+                return (V) null;
+            }
+            return list.get(Math.max(0, indexOfLastNotAfter(list, key)));
+        }
         V latestValue = (V) null;
-        for (final V value : getDelegate()) {
+        for (final V value : collection) {
             if (latestValue == null) {
                 latestValue = value;
             } else if (!extractKey(key, value).isAfter(key)) {
@@ -45,4 +57,23 @@ public abstract class ACollectionGapHistoricalCache<V> extends AGapHistoricalCac
         return latestValue;
     }
 
+    /**
+     * Returns -1 if all values are after the key.
+     */
+    private int indexOfLastNotAfter(final List<V> list, final FDate key) {
+        int low = 0;
+        int high = list.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (!extractKey(key, list.get(mid)).isAfter(key)) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
 }
@@ -1,19 +1,37 @@
 package de.invesdwin.util.collections.loadingcache.historical;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import de.invesdwin.util.collections.Lists;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.ISeekableCloseableIterable;
+import de.invesdwin.util.error.Throwables;
 import de.invesdwin.util.time.fdate.FDate;
 
+/**
+ * If the iterable is an ISeekableCloseableIterable or a RandomAccess list, it is seeked or binary searched instead of
+ * being scanned from the beginning on each read.
+ */
 @ThreadSafe
 public abstract class AIterableGapHistoricalCache<V> extends AGapHistoricalCache<V> {
 
     @Override
     protected List<V> readAllValuesAscendingFrom(final FDate key) {
+        final Iterable<V> iterable = getIterable();
+        if (iterable instanceof ISeekableCloseableIterable) {
+            return Lists.toList(((ISeekableCloseableIterable<V>) iterable).seekCeiling(key));
+        }
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            final List<V> list = (List<V>) iterable;
+            return new ArrayList<V>(list.subList(indexOfLastBefore(list, key) + 1, list.size()));
+        }
         final List<V> list = new ArrayList<V>();
-        for (final V e : getIterable()) {
+        for (final V e : iterable) {
             final FDate eKey = extractKey(e);
             if (!eKey.isBefore(key)) {
                 list.add(e);
@@ -29,8 +47,34 @@ public abstract class AIterableGapHistoricalCache<V> extends AGapHistoricalCache
 
     @Override
     protected V readLatestValueFor(final FDate key) {
+        final Iterable<V> iterable = getIterable();
+        if (iterable instanceof ISeekableCloseableIterable) {
+            //FDate has millisecond precision, so this is the floor of the values before the key
+            final ICloseableIterator<V> iterator = ((ISeekableCloseableIterable<V>) iterable)
+                    .seekFloor(key.addMilliseconds(-1));
+            try {
+                if (iterator.hasNext()) {
+                    return iterator.next();
+                } else {
+                    return (V) null;
+                }
+            } finally {
+                try {
+                    iterator.close();
+                } catch (final IOException e) {
+                    throw Throwables.propagate(e);
+                }
+            }
+        }
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            final List<V> list = (List<V>) iterable;
+            if (list.isEmpty()) {
+                return (V) null;
+            }
+            return list.get(Math.max(0, indexOfLastBefore(list, key)));
+        }
         V previousE = (V) null;
-        for (final V e : getIterable()) {
+        for (final V e : iterable) {
             if (previousE == null) {
                 previousE = e;
             } else {
@@ -45,6 +89,25 @@ public abstract class AIterableGapHistoricalCache<V> extends AGapHistoricalCache
         return previousE;
     }
 
+    /**
+     * Returns -1 if no value is before the key.
+     */
+    private int indexOfLastBefore(final List<V> list, final FDate key) {
+        int low = 0;
+        int high = list.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (extractKey(list.get(mid)).isBefore(key)) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
     protected abstract Iterable<V> getIterable();
 
     protected abstract FDate extractKey(V value);
@@ -0,0 +1,139 @@
+package de.invesdwin.util.collections.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Base class for the fixed size ring buffers. Values are addressed by their sequence number, which is the count of
+ * values pushed before them. The minimum and maximum are tracked with monotonic deques of sequence numbers, so
+ * push/evict and the queries are O(1) (amortized for push) without allocating.
+ */
+@NotThreadSafe
+public abstract class ARollingWindow {
+
+    protected final int capacity;
+    private long pushedCount;
+    private final long[] minDeque;
+    private int minDequeHead;
+    private int minDequeSize;
+    private final long[] maxDeque;
+    private int maxDequeHead;
+    private int maxDequeSize;
+
+    protected ARollingWindow(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.minDeque = new long[capacity];
+        this.maxDeque = new long[capacity];
+    }
+
+    public final int getCapacity() {
+        return capacity;
+    }
+
+    public final int size() {
+        return (int) Math.min(pushedCount, capacity);
+    }
+
+    public final boolean isEmpty() {
+        return pushedCount == 0;
+    }
+
+    public final boolean isFull() {
+        return pushedCount >= capacity;
+    }
+
+    /**
+     * The number of values that were pushed since the last clear, including the evicted ones.
+     */
+    public final long getPushedCount() {
+        return pushedCount;
+    }
+
+    /**
+     * Returns the slot of the index, where 0 is the oldest value in the window.
+     */
+    protected final int slotOfIndex(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index [" + index + "] should be between 0 and " + size()
+                    + " exclusive");
+        }
+        return slotOf(pushedCount - size() + index);
+    }
+
+    protected final int slotOf(final long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * The slot that will be overwritten by the next push, contains the value that gets evicted when the window is full.
+     */
+    protected final int nextSlot() {
+        return slotOf(pushedCount);
+    }
+
+    /**
+     * Has to be called by the subclass after the value was stored in nextSlot().
+     */
+    protected final void onPushed() {
+        final long sequence = pushedCount;
+        final long oldestSequence = sequence - capacity + 1;
+        final int slot = slotOf(sequence);
+
+        if (minDequeSize > 0 && minDeque[minDequeHead] < oldestSequence) {
+            minDequeHead = (minDequeHead + 1) % capacity;
+            minDequeSize--;
+        }
+        while (minDequeSize > 0 && compareSlots(slotOf(minDeque[(minDequeHead + minDequeSize - 1) % capacity]),
+                slot) >= 0) {
+            minDequeSize--;
+        }
+        minDeque[(minDequeHead + minDequeSize) % capacity] = sequence;
+        minDequeSize++;
+
+        if (maxDequeSize > 0 && maxDeque[maxDequeHead] < oldestSequence) {
+            maxDequeHead = (maxDequeHead + 1) % capacity;
+            maxDequeSize--;
+        }
+        while (maxDequeSize > 0 && compareSlots(slotOf(maxDeque[(maxDequeHead + maxDequeSize - 1) % capacity]),
+                slot) <= 0) {
+            maxDequeSize--;
+        }
+        maxDeque[(maxDequeHead + maxDequeSize) % capacity] = sequence;
+        maxDequeSize++;
+
+        pushedCount++;
+    }
+
+    /**
+     * Returns -1 if the window is empty.
+     */
+    protected final int minSlot() {
+        if (minDequeSize == 0) {
+            return -1;
+        }
+        return slotOf(minDeque[minDequeHead]);
+    }
+
+    /**
+     * Returns -1 if the window is empty.
+     */
+    protected final int maxSlot() {
+        if (maxDequeSize == 0) {
+            return -1;
+        }
+        return slotOf(maxDeque[maxDequeHead]);
+    }
+
+    protected abstract int compareSlots(int slot1, int slot2);
+
+    public void clear() {
+        pushedCount = 0;
+        minDequeHead = 0;
+        minDequeSize = 0;
+        maxDequeHead = 0;
+        maxDequeSize = 0;
+    }
+
+}
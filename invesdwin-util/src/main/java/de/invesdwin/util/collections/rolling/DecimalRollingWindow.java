@@ -0,0 +1,121 @@
+package de.invesdwin.util.collections.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+
+/**
+ * A rolling window of Decimals that calculates its statistics on a DoubleRollingWindow, thus pushing a value does not
+ * allocate. The original instances are kept so that get, getMin and getMax return them without conversion. Statistics
+ * of an empty window are null.
+ */
+@NotThreadSafe
+public class DecimalRollingWindow {
+
+    private final DoubleRollingWindow doubles;
+    private final Decimal[] values;
+
+    public DecimalRollingWindow(final int capacity) {
+        this.doubles = new DoubleRollingWindow(capacity);
+        this.values = new Decimal[capacity];
+    }
+
+    /**
+     * Returns the evicted value or null if the window was not full yet.
+     */
+    public Decimal push(final Decimal value) {
+        Assertions.assertThat(value).isNotNull();
+        final int slot = doubles.getNextSlot();
+        final Decimal evicted = values[slot];
+        values[slot] = value;
+        doubles.push(value.doubleValue());
+        return evicted;
+    }
+
+    public int getCapacity() {
+        return doubles.getCapacity();
+    }
+
+    public int size() {
+        return doubles.size();
+    }
+
+    public boolean isEmpty() {
+        return doubles.isEmpty();
+    }
+
+    public boolean isFull() {
+        return doubles.isFull();
+    }
+
+    /**
+     * Index 0 is the oldest value in the window.
+     */
+    public Decimal get(final int index) {
+        return values[doubles.getSlotOfIndex(index)];
+    }
+
+    public Decimal getFirst() {
+        return get(0);
+    }
+
+    public Decimal getLast() {
+        return get(size() - 1);
+    }
+
+    public Decimal getSum() {
+        return toDecimal(doubles.getSum());
+    }
+
+    public Decimal getMean() {
+        return toDecimal(doubles.getMean());
+    }
+
+    public Decimal getVariance() {
+        return toDecimal(doubles.getVariance());
+    }
+
+    public Decimal getSampleVariance() {
+        return toDecimal(doubles.getSampleVariance());
+    }
+
+    public Decimal getStandardDeviation() {
+        return toDecimal(doubles.getStandardDeviation());
+    }
+
+    public Decimal getSampleStandardDeviation() {
+        return toDecimal(doubles.getSampleStandardDeviation());
+    }
+
+    public Decimal getMin() {
+        final int slot = doubles.getMinSlot();
+        if (slot < 0) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public Decimal getMax() {
+        final int slot = doubles.getMaxSlot();
+        if (slot < 0) {
+            return null;
+        }
+        return values[slot];
+    }
+
+    public void clear() {
+        doubles.clear();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+        }
+    }
+
+    private static Decimal toDecimal(final double value) {
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        return new Decimal(value);
+    }
+
+}
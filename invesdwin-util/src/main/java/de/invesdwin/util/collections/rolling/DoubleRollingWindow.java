@@ -0,0 +1,196 @@
+package de.invesdwin.util.collections.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A fixed size ring buffer of doubles that keeps the sum, mean, variance, minimum and maximum of the values in the
+ * window up to date on each push, so sliding aggregates cost O(1) per value instead of recalculating the whole window.
+ *
+ * The running sum and variance are updated incrementally (Welford's algorithm with removal). To keep rounding errors
+ * from accumulating over long series, they are recalculated from the buffer each time the ring wraps around, which is
+ * still O(1) amortized.
+ *
+ * Statistics of an empty window are NaN.
+ */
+@NotThreadSafe
+public class DoubleRollingWindow extends ARollingWindow {
+
+    private final double[] values;
+    private double sum;
+    private double mean;
+    private double m2;
+
+    public DoubleRollingWindow(final int capacity) {
+        super(capacity);
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Returns the evicted value or NaN if the window was not full yet.
+     */
+    public double push(final double value) {
+        final int slot = nextSlot();
+        final double evicted;
+        if (isFull()) {
+            evicted = values[slot];
+            remove(evicted, capacity - 1);
+        } else {
+            evicted = Double.NaN;
+        }
+        values[slot] = value;
+        add(value, Math.min(size() + 1, capacity));
+        onPushed();
+        if (slot == capacity - 1 && isFull()) {
+            recalculate();
+        }
+        return evicted;
+    }
+
+    /**
+     * The count n includes the added value.
+     */
+    private void add(final double value, final int n) {
+        sum += value;
+        final double delta = value - mean;
+        mean += delta / n;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * The count n excludes the removed value.
+     */
+    private void remove(final double value, final int n) {
+        sum -= value;
+        if (n == 0) {
+            mean = 0D;
+            m2 = 0D;
+        } else {
+            final double delta = value - mean;
+            mean -= delta / n;
+            m2 -= delta * (value - mean);
+        }
+    }
+
+    private void recalculate() {
+        final int n = size();
+        double newSum = 0D;
+        for (int i = 0; i < n; i++) {
+            newSum += values[i];
+        }
+        final double newMean = newSum / n;
+        double newM2 = 0D;
+        for (int i = 0; i < n; i++) {
+            final double delta = values[i] - newMean;
+            newM2 += delta * delta;
+        }
+        sum = newSum;
+        mean = newMean;
+        m2 = newM2;
+    }
+
+    /**
+     * Index 0 is the oldest value in the window.
+     */
+    public double get(final int index) {
+        return values[slotOfIndex(index)];
+    }
+
+    public double getFirst() {
+        return get(0);
+    }
+
+    public double getLast() {
+        return get(size() - 1);
+    }
+
+    public double getSum() {
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        return sum;
+    }
+
+    public double getMean() {
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        return mean;
+    }
+
+    /**
+     * Population variance.
+     */
+    public double getVariance() {
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        return Math.max(0D, m2 / size());
+    }
+
+    /**
+     * Sample variance with Bessel's correction, NaN for less than two values.
+     */
+    public double getSampleVariance() {
+        if (size() < 2) {
+            return Double.NaN;
+        }
+        return Math.max(0D, m2 / (size() - 1));
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getSampleStandardDeviation() {
+        return Math.sqrt(getSampleVariance());
+    }
+
+    public double getMin() {
+        final int slot = minSlot();
+        if (slot < 0) {
+            return Double.NaN;
+        }
+        return values[slot];
+    }
+
+    public double getMax() {
+        final int slot = maxSlot();
+        if (slot < 0) {
+            return Double.NaN;
+        }
+        return values[slot];
+    }
+
+    /**
+     * Returns the slot of the minimum or -1 if empty, used by the Decimal window to return the original instance.
+     */
+    int getMinSlot() {
+        return minSlot();
+    }
+
+    int getMaxSlot() {
+        return maxSlot();
+    }
+
+    int getSlotOfIndex(final int index) {
+        return slotOfIndex(index);
+    }
+
+    int getNextSlot() {
+        return nextSlot();
+    }
+
+    @Override
+    protected int compareSlots(final int slot1, final int slot2) {
+        return Double.compare(values[slot1], values[slot2]);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        sum = 0D;
+        mean = 0D;
+        m2 = 0D;
+    }
+
+}
@@ -0,0 +1,170 @@
+package de.invesdwin.util.collections.rolling;
+
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A fixed size ring buffer of longs that keeps the sum, mean, variance, minimum and maximum of the values in the window
+ * up to date on each push. The sum is exact, mean and variance are calculated as doubles.
+ *
+ * Like in DoubleRollingWindow the variance is recalculated from the buffer each time the ring wraps around, so that
+ * rounding errors of the incremental updates do not accumulate over long series.
+ *
+ * The sum, minimum and maximum of an empty window throw a NoSuchElementException, mean and variance are NaN.
+ */
+@NotThreadSafe
+public class LongRollingWindow extends ARollingWindow {
+
+    private final long[] values;
+    private long sum;
+    private double mean;
+    private double m2;
+
+    public LongRollingWindow(final int capacity) {
+        super(capacity);
+        this.values = new long[capacity];
+    }
+
+    /**
+     * Returns the evicted value or 0 if the window was not full yet, check isFull() before pushing to distinguish both.
+     */
+    public long push(final long value) {
+        final int slot = nextSlot();
+        final long evicted;
+        if (isFull()) {
+            evicted = values[slot];
+            remove(evicted, capacity - 1);
+        } else {
+            evicted = 0L;
+        }
+        values[slot] = value;
+        add(value, Math.min(size() + 1, capacity));
+        onPushed();
+        if (slot == capacity - 1 && isFull()) {
+            recalculate();
+        }
+        return evicted;
+    }
+
+    /**
+     * The count n includes the added value.
+     */
+    private void add(final long value, final int n) {
+        sum += value;
+        final double delta = value - mean;
+        mean += delta / n;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * The count n excludes the removed value.
+     */
+    private void remove(final long value, final int n) {
+        sum -= value;
+        if (n == 0) {
+            mean = 0D;
+            m2 = 0D;
+        } else {
+            final double delta = value - mean;
+            mean -= delta / n;
+            m2 -= delta * (value - mean);
+        }
+    }
+
+    /**
+     * The sum is exact, so only mean and m2 need to be recalculated.
+     */
+    private void recalculate() {
+        final int n = size();
+        final double newMean = (double) sum / n;
+        double newM2 = 0D;
+        for (int i = 0; i < n; i++) {
+            final double delta = values[i] - newMean;
+            newM2 += delta * delta;
+        }
+        mean = newMean;
+        m2 = newM2;
+    }
+
+    /**
+     * Index 0 is the oldest value in the window.
+     */
+    public long get(final int index) {
+        return values[slotOfIndex(index)];
+    }
+
+    public long getFirst() {
+        return get(0);
+    }
+
+    public long getLast() {
+        return get(size() - 1);
+    }
+
+    public long getSum() {
+        assertNotEmpty();
+        return sum;
+    }
+
+    public double getMean() {
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        return (double) sum / size();
+    }
+
+    /**
+     * Population variance.
+     */
+    public double getVariance() {
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        return Math.max(0D, m2 / size());
+    }
+
+    /**
+     * Sample variance with Bessel's correction, NaN for less than two values.
+     */
+    public double getSampleVariance() {
+        if (size() < 2) {
+            return Double.NaN;
+        }
+        return Math.max(0D, m2 / (size() - 1));
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public long getMin() {
+        assertNotEmpty();
+        return values[minSlot()];
+    }
+
+    public long getMax() {
+        assertNotEmpty();
+        return values[maxSlot()];
+    }
+
+    private void assertNotEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Window is empty");
+        }
+    }
+
+    @Override
+    protected int compareSlots(final int slot1, final int slot2) {
+        return Long.compare(values[slot1], values[slot2]);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        sum = 0L;
+        mean = 0D;
+        m2 = 0D;
+    }
+
+}
@@ -0,0 +1,141 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.Duration;
+
+/**
+ * Adjusts the allowed number of in-flight tasks of a WrappedExecutorService by the latency of its tasks (additive
+ * increase, multiplicative decrease):
+ *
+ * <ul>
+ * <li>The latency from submit to completion is compared to the minimum latency that was observed recently. The minimum
+ * is taken as the latency without queueing.</li>
+ * <li>If the latency exceeds the minimum by the tolerance factor, tasks are queueing up or the downstream resource is
+ * overloaded. Then the limit is multiplied with the backoff ratio, at most once per observed latency.</li>
+ * <li>Otherwise the limit is increased by the reciprocal of itself if at least half of it is in use. Thus it grows by
+ * about one per round trip of a full limit of tasks instead of once per task.</li>
+ * </ul>
+ *
+ * The minimum latency gets reset periodically so that the limit can follow a downstream resource that became slower
+ * permanently.
+ */
+@ThreadSafe
+public class AdaptiveConcurrencyLimit {
+
+    public static final double DEFAULT_TOLERANCE = 2D;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9D;
+    public static final int DEFAULT_MIN_LATENCY_RESET_SAMPLES = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private volatile double tolerance = DEFAULT_TOLERANCE;
+    private volatile double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private volatile int minLatencyResetSamples = DEFAULT_MIN_LATENCY_RESET_SAMPLES;
+
+    @GuardedBy("this")
+    private double limitDouble;
+    private volatile int limit;
+    @GuardedBy("this")
+    private long minLatencyNanos = Long.MAX_VALUE;
+    @GuardedBy("this")
+    private long samples;
+    @GuardedBy("this")
+    private long lastDecreaseNanos;
+    @GuardedBy("this")
+    private boolean decreased;
+
+    public AdaptiveConcurrencyLimit(final int initialLimit, final int minLimit, final int maxLimit) {
+        if (minLimit <= 0) {
+            throw new IllegalArgumentException("minLimit should be positive: " + minLimit);
+        }
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("maxLimit [" + maxLimit + "] should not be less than minLimit ["
+                    + minLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limitDouble = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) limitDouble;
+    }
+
+    /**
+     * Default is 2, so latencies up to twice the minimum latency are tolerated.
+     */
+    public AdaptiveConcurrencyLimit withTolerance(final double tolerance) {
+        if (tolerance < 1D) {
+            throw new IllegalArgumentException("tolerance should not be less than 1: " + tolerance);
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Default is 0.9, so the limit shrinks by 10% when the latency is too high.
+     */
+    public AdaptiveConcurrencyLimit withBackoffRatio(final double backoffRatio) {
+        if (backoffRatio <= 0D || backoffRatio >= 1D) {
+            throw new IllegalArgumentException("backoffRatio should be between 0 and 1 exclusive: " + backoffRatio);
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    public AdaptiveConcurrencyLimit withMinLatencyResetSamples(final int minLatencyResetSamples) {
+        if (minLatencyResetSamples <= 0) {
+            throw new IllegalArgumentException("minLatencyResetSamples should be positive: "
+                    + minLatencyResetSamples);
+        }
+        this.minLatencyResetSamples = minLatencyResetSamples;
+        return this;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized Duration getMinLatency() {
+        if (minLatencyNanos == Long.MAX_VALUE) {
+            return null;
+        }
+        return new Duration(minLatencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void onSample(final long latencyNanos, final long inFlight) {
+        samples++;
+        if (samples % minLatencyResetSamples == 0) {
+            minLatencyNanos = latencyNanos;
+        } else if (latencyNanos < minLatencyNanos) {
+            minLatencyNanos = latencyNanos;
+        }
+        final long nowNanos = System.nanoTime();
+        if (latencyNanos > minLatencyNanos * tolerance) {
+            //only react once per round trip, the other samples of this round trip saw the old limit
+            if (!decreased || nowNanos - lastDecreaseNanos >= latencyNanos) {
+                limitDouble = Math.max(minLimit, limitDouble * backoffRatio);
+                lastDecreaseNanos = nowNanos;
+                decreased = true;
+            }
+        } else if (inFlight * 2 >= limitDouble) {
+            limitDouble = Math.min(maxLimit, limitDouble + 1D / limitDouble);
+        }
+        limit = (int) limitDouble;
+    }
+
+    @Override
+    public String toString() {
+        return "limit=" + getLimit() + " minLatency=" + getMinLatency();
+    }
+
+}
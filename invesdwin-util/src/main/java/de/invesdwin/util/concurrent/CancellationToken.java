@@ -0,0 +1,265 @@
+package de.invesdwin.util.concurrent;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.shutdown.IShutdownHook;
+import de.invesdwin.util.shutdown.ShutdownHookManager;
+import de.invesdwin.util.time.Duration;
+
+/**
+ * Cooperative cancellation that can be checked in hot loops with a single volatile read via isCancelled(). The
+ * exception of throwIfCancelled() is created once when the token gets cancelled, so checking does not allocate.
+ *
+ * Cancelling a token also cancels its children. Children with a timeout get cancelled by a shared timer wheel when
+ * their deadline is reached. Children should be closed when they are not needed anymore so that they are detached from
+ * their parent.
+ *
+ * The token that is attached to the current thread gets propagated into tasks of WrappedExecutorService, where tasks
+ * that are already cancelled when they are started do not run at all.
+ */
+@ThreadSafe
+public class CancellationToken implements Closeable {
+
+    /**
+     * Is never cancelled, returned by getCurrent() when no token is attached to the current thread.
+     */
+    public static final CancellationToken NONE = new CancellationToken(null) {
+        @Override
+        public void cancel(final String reason) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CancellationToken newChild() {
+            //children would never be cancelled or detached
+            return new CancellationToken();
+        }
+    };
+
+    /**
+     * Gets cancelled when the JVM shuts down.
+     */
+    public static final CancellationToken SHUTDOWN = new CancellationToken(null);
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<CancellationToken>();
+    /**
+     * Only a thread that attached a token itself can have one, and it always sees its own write. Thus this does not
+     * need to be volatile and submitting tasks does not touch the thread local while tokens are not used at all.
+     */
+    private static boolean attachedOnce;
+
+    static {
+        if (ShutdownHookManager.isShuttingDown()) {
+            SHUTDOWN.cancel("JVM is shutting down");
+        } else {
+            ShutdownHookManager.register(new IShutdownHook() {
+                @Override
+                public void shutdown() throws Exception {
+                    SHUTDOWN.cancel("JVM is shutting down");
+                }
+            }, Integer.MAX_VALUE);
+        }
+    }
+
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+    private volatile CancellationException exception;
+    @GuardedBy("this")
+    private Set<CancellationToken> children;
+    @GuardedBy("this")
+    private Future<?> deadlineFuture;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    private CancellationToken(final CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    public final boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws the same CancellationException on each call, it contains the stack trace of the cancelling thread.
+     */
+    public final void throwIfCancelled() {
+        if (cancelled) {
+            throw exception;
+        }
+    }
+
+    public void cancel() {
+        cancel("Cancelled");
+    }
+
+    public void cancel(final String reason) {
+        final List<CancellationToken> childrenCopy;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            //publish the exception before the flag
+            exception = new CancellationException(reason);
+            cancelled = true;
+            if (deadlineFuture != null) {
+                deadlineFuture.cancel(false);
+                deadlineFuture = null;
+            }
+            if (children == null) {
+                childrenCopy = null;
+            } else {
+                childrenCopy = new ArrayList<CancellationToken>(children);
+                children = null;
+            }
+        }
+        if (childrenCopy != null) {
+            for (final CancellationToken child : childrenCopy) {
+                child.cancel(reason);
+            }
+        }
+    }
+
+    /**
+     * The child gets cancelled together with this token.
+     */
+    public CancellationToken newChild() {
+        final CancellationToken child = new CancellationToken(this);
+        synchronized (this) {
+            if (!cancelled) {
+                if (children == null) {
+                    children = new LinkedHashSet<CancellationToken>();
+                }
+                children.add(child);
+                return child;
+            }
+        }
+        child.cancel(exception.getMessage());
+        return child;
+    }
+
+    /**
+     * The child gets cancelled together with this token or when the timeout is exceeded.
+     */
+    public CancellationToken newChild(final Duration timeout) {
+        final CancellationToken child = newChild();
+        child.setDeadline(timeout);
+        return child;
+    }
+
+    private void setDeadline(final Duration timeout) {
+        //the timer task should not inherit the token of the current thread
+        final CancellationToken previous = attach(null);
+        final Future<?> future;
+        try {
+            future = TimerHolder.TIMER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    cancel("Timeout of " + timeout + " exceeded");
+                }
+            }, timeout.longValue(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } finally {
+            detach(previous);
+        }
+        synchronized (this) {
+            if (cancelled) {
+                future.cancel(false);
+            } else {
+                deadlineFuture = future;
+            }
+        }
+    }
+
+    public CancellationToken getParent() {
+        return parent;
+    }
+
+    /**
+     * Detaches this token from its parent and stops its deadline timer. The token keeps its cancellation state.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (deadlineFuture != null) {
+                deadlineFuture.cancel(false);
+                deadlineFuture = null;
+            }
+        }
+        if (parent != null) {
+            parent.removeChild(this);
+        }
+    }
+
+    private synchronized void removeChild(final CancellationToken child) {
+        if (children != null) {
+            children.remove(child);
+        }
+    }
+
+    /**
+     * Returns NONE when no token is attached to the current thread.
+     */
+    public static CancellationToken getCurrent() {
+        final CancellationToken current = CURRENT.get();
+        if (current == null) {
+            return NONE;
+        }
+        return current;
+    }
+
+    static CancellationToken getCurrentOrNull() {
+        if (!attachedOnce) {
+            return null;
+        }
+        return CURRENT.get();
+    }
+
+    /**
+     * Attaches the token to the current thread and returns the previous token, which should be restored with
+     * detach(previous) in a finally block.
+     */
+    public static CancellationToken attach(final CancellationToken token) {
+        final CancellationToken previous = CURRENT.get();
+        if (token == null || token == NONE) {
+            CURRENT.remove();
+        } else {
+            if (!attachedOnce) {
+                attachedOnce = true;
+            }
+            CURRENT.set(token);
+        }
+        return previous;
+    }
+
+    public static void detach(final CancellationToken previous) {
+        attach(previous);
+    }
+
+    @Override
+    public String toString() {
+        if (cancelled) {
+            return getClass().getSimpleName() + "[cancelled: " + exception.getMessage() + "]";
+        } else {
+            return getClass().getSimpleName() + "[active]";
+        }
+    }
+
+    private static final class TimerHolder {
+        private static final WrappedScheduledExecutorService TIMER = Executors.newHashedWheelScheduledThreadPool(
+                CancellationToken.class.getSimpleName() + "_TIMER", 1);
+
+        private TimerHolder() {}
+    }
+
+}
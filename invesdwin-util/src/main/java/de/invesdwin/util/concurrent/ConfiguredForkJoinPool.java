@@ -1,27 +1,45 @@
 package de.invesdwin.util.concurrent;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import de.invesdwin.util.concurrent.affinity.CpuSet;
+import de.invesdwin.util.concurrent.metrics.ExecutorMetrics;
+import de.invesdwin.util.concurrent.metrics.IExecutorMetricsSource;
 import de.invesdwin.util.shutdown.IShutdownHook;
 import de.invesdwin.util.shutdown.ShutdownHookManager;
 
 @ThreadSafe
 public class ConfiguredForkJoinPool extends ForkJoinPool {
 
+    private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
     private final IShutdownHook shutdownHook = new IShutdownHook() {
         @Override
         public void shutdown() throws Exception {
             shutdownNow();
         }
     };
+    private final String name;
+    private volatile ExecutorMetrics metrics;
 
     public ConfiguredForkJoinPool(final String name, final int parallelism, final boolean asyncMode) {
-        super(parallelism, new ConfiguredForkJoinWorkerThreadFactory(name),
+        this(name, parallelism, asyncMode, null);
+    }
+
+    /**
+     * The workers get pinned to the given cpus, null disables pinning.
+     */
+    public ConfiguredForkJoinPool(final String name, final int parallelism, final boolean asyncMode,
+            final CpuSet cpuSet) {
+        super(parallelism, new ConfiguredForkJoinWorkerThreadFactory(name, cpuSet),
                 Thread.getDefaultUncaughtExceptionHandler(), false);
+        this.name = name;
         configure(name);
     }
 
@@ -30,12 +48,103 @@ public class ConfiguredForkJoinPool extends ForkJoinPool {
          * All executors should be shutdown on application shutdown.
          */
         ShutdownHookManager.register(shutdownHook);
+        shutdownHookRegistered.set(true);
     }
 
     private void unconfigure() {
-        if (!isShutdown()) {
+        //the executor is already shut down here, so the registration itself needs to be tracked
+        if (shutdownHookRegistered.compareAndSet(true, false)) {
             ShutdownHookManager.unregister(shutdownHook);
         }
+        final ExecutorMetrics metricsCopy = metrics;
+        if (metricsCopy != null) {
+            metricsCopy.unregisterMBean();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Metrics are disabled by default. When enabled, submitted Runnables and Callables get wrapped to record their
+     * queue wait and run times. ForkJoinTasks are not wrapped to keep their fork/join semantics, they are only visible
+     * in the gauges.
+     */
+    public synchronized ConfiguredForkJoinPool withMetrics(final boolean enabled) {
+        if (enabled && metrics == null) {
+            final ExecutorMetrics newMetrics = new ExecutorMetrics(name, new IExecutorMetricsSource() {
+                @Override
+                public int getActiveCount() {
+                    return getActiveThreadCount();
+                }
+
+                @Override
+                public long getPendingCount() {
+                    return getQueuedSubmissionCount() + getQueuedTaskCount();
+                }
+
+                @Override
+                public int getQueueSize() {
+                    return getQueuedSubmissionCount();
+                }
+
+                @Override
+                public int getPoolSize() {
+                    return ConfiguredForkJoinPool.this.getPoolSize();
+                }
+
+                @Override
+                public int getMaximumPoolSize() {
+                    return getParallelism();
+                }
+            });
+            newMetrics.registerMBean();
+            metrics = newMetrics;
+        } else if (!enabled && metrics != null) {
+            metrics.unregisterMBean();
+            metrics = null;
+        }
+        return this;
+    }
+
+    /**
+     * Returns null if metrics are disabled.
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        super.execute(maybeMeasure(task));
+    }
+
+    @Override
+    public ForkJoinTask<?> submit(final Runnable task) {
+        return super.submit(maybeMeasure(task));
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(final Runnable task, final T result) {
+        return super.submit(maybeMeasure(task), result);
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(final Callable<T> task) {
+        final ExecutorMetrics metricsCopy = metrics;
+        if (metricsCopy == null) {
+            return super.submit(task);
+        }
+        return super.submit(new MeasuredCallable<T>(metricsCopy, task));
+    }
+
+    private Runnable maybeMeasure(final Runnable task) {
+        final ExecutorMetrics metricsCopy = metrics;
+        if (metricsCopy == null || task instanceof ForkJoinTask) {
+            return task;
+        }
+        return new MeasuredRunnable(metricsCopy, task);
     }
 
     @Override
@@ -59,4 +168,57 @@ public class ConfiguredForkJoinPool extends ForkJoinPool {
         return awaitQuiescence(Long.MAX_VALUE, TimeUnit.DAYS);
     }
 
+    private static final class MeasuredRunnable implements Runnable {
+
+        private final ExecutorMetrics metrics;
+        private final Runnable delegate;
+        private final long submittedNanos;
+
+        private MeasuredRunnable(final ExecutorMetrics metrics, final Runnable delegate) {
+            this.metrics = metrics;
+            this.delegate = delegate;
+            this.submittedNanos = metrics.onSubmitted();
+        }
+
+        @Override
+        public void run() {
+            final long startedNanos = metrics.onStarted(submittedNanos);
+            boolean failed = true;
+            try {
+                delegate.run();
+                failed = false;
+            } finally {
+                metrics.onCompleted(startedNanos, failed);
+            }
+        }
+
+    }
+
+    private static final class MeasuredCallable<V> implements Callable<V> {
+
+        private final ExecutorMetrics metrics;
+        private final Callable<V> delegate;
+        private final long submittedNanos;
+
+        private MeasuredCallable(final ExecutorMetrics metrics, final Callable<V> delegate) {
+            this.metrics = metrics;
+            this.delegate = delegate;
+            this.submittedNanos = metrics.onSubmitted();
+        }
+
+        @Override
+        public V call() throws Exception {
+            final long startedNanos = metrics.onStarted(submittedNanos);
+            boolean failed = true;
+            try {
+                final V result = delegate.call();
+                failed = false;
+                return result;
+            } finally {
+                metrics.onCompleted(startedNanos, failed);
+            }
+        }
+
+    }
+
 }
@@ -10,6 +10,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.affinity.CpuSet;
+import de.invesdwin.util.concurrent.affinity.ThreadAffinity;
 
 @ThreadSafe
 public class ConfiguredForkJoinWorkerThreadFactory implements ForkJoinWorkerThreadFactory {
@@ -18,10 +20,23 @@ public class ConfiguredForkJoinWorkerThreadFactory implements ForkJoinWorkerThre
     private final AtomicInteger threadIds = new AtomicInteger();
 
     private final String name;
+    private final CpuSet cpuSet;
 
     public ConfiguredForkJoinWorkerThreadFactory(@Nonnull final String name) {
+        this(name, null);
+    }
+
+    /**
+     * Workers pin themselves to the given cpus when they start, see ThreadAffinity. Null disables pinning.
+     */
+    public ConfiguredForkJoinWorkerThreadFactory(@Nonnull final String name, final CpuSet cpuSet) {
         Assertions.assertThat(name).isNotNull();
         this.name = name;
+        this.cpuSet = cpuSet;
+    }
+
+    public CpuSet getCpuSet() {
+        return cpuSet;
     }
 
     @Override
@@ -34,6 +49,9 @@ public class ConfiguredForkJoinWorkerThreadFactory implements ForkJoinWorkerThre
             protected void onStart() {
                 super.onStart();
                 setName(threadpoolId + "-" + threadIds.incrementAndGet() + ":" + name);
+                if (cpuSet != null) {
+                    ThreadAffinity.pinCurrentThread(cpuSet);
+                }
             }
         };
         /*
@@ -1,11 +1,18 @@
 package de.invesdwin.util.concurrent;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.Immutable;
 
+import de.invesdwin.util.concurrent.affinity.CpuSet;
+import de.invesdwin.util.concurrent.affinity.NumaNode;
+import de.invesdwin.util.concurrent.affinity.NumaTopology;
+import de.invesdwin.util.time.Duration;
+
 /**
  * As an alternative to the java executors class. Here more conventions are kept for all executors.
  * 
@@ -49,6 +56,41 @@ public final class Executors {
         return new WrappedScheduledExecutorService(ex, name);
     }
 
+    /**
+     * The threads get pinned to the given cpus, see ThreadAffinity. Pinning needs JNA on the classpath, otherwise it is
+     * a no-op.
+     */
+    public static WrappedExecutorService newFixedThreadPool(final String name, final int nThreads,
+            final CpuSet cpuSet) {
+        final WrappedExecutorService executor = newFixedThreadPool(name, nThreads);
+        ((WrappedThreadFactory) executor.getWrappedInstance().getThreadFactory()).withCpuSet(cpuSet);
+        return executor;
+    }
+
+    /**
+     * Uses a hashed timer wheel with O(1) schedule and cancel instead of a delay queue heap. Expired tasks are executed
+     * by nWorkerThreads.
+     */
+    public static HashedWheelScheduledExecutorService newHashedWheelScheduledThreadPool(final String name,
+            final int nWorkerThreads) {
+        return newHashedWheelScheduledThreadPool(name, nWorkerThreads,
+                HashedWheelScheduledExecutorService.DEFAULT_TICK_DURATION,
+                HashedWheelScheduledExecutorService.DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * @param tickDuration
+     *            the resolution of the timeouts, tasks are executed at most one tick late
+     * @param ticksPerWheel
+     *            gets rounded up to a power of two, should be large enough so that most timeouts fit into one round
+     */
+    public static HashedWheelScheduledExecutorService newHashedWheelScheduledThreadPool(final String name,
+            final int nWorkerThreads, final Duration tickDuration, final int ticksPerWheel) {
+        final java.util.concurrent.ScheduledThreadPoolExecutor ex = new java.util.concurrent.ScheduledThreadPoolExecutor(
+                nWorkerThreads);
+        return new HashedWheelScheduledExecutorService(ex, name, tickDuration, ticksPerWheel);
+    }
+
     public static WrappedExecutorService newFixedCallerRunsThreadPool(final String name, final int nThreads) {
         final java.util.concurrent.ThreadPoolExecutor ex = new java.util.concurrent.ThreadPoolExecutor(nThreads,
                 nThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(nThreads),
@@ -56,6 +98,27 @@ public final class Executors {
         return new WrappedExecutorService(ex, name);
     }
 
+    /**
+     * Tasks are queued per PriorityLane, lower lanes gain one priority level per aging interval they are waiting.
+     */
+    public static PriorityLaneExecutorService newFixedPriorityLaneThreadPool(final String name, final int nThreads,
+            final Duration agingInterval) {
+        final java.util.concurrent.ThreadPoolExecutor ex = PriorityLaneExecutorService.newThreadPoolExecutor(nThreads,
+                new PriorityLaneQueue(agingInterval));
+        return new PriorityLaneExecutorService(ex, name);
+    }
+
+    /**
+     * Like newFixedPriorityLaneThreadPool, but the caller runs the task when nThreads tasks are already queued.
+     */
+    public static PriorityLaneExecutorService newFixedCallerRunsPriorityLaneThreadPool(final String name,
+            final int nThreads, final Duration agingInterval) {
+        final java.util.concurrent.ThreadPoolExecutor ex = PriorityLaneExecutorService.newThreadPoolExecutor(nThreads,
+                new PriorityLaneQueue(agingInterval, nThreads));
+        ex.setRejectedExecutionHandler(new CallerRunsPolicy());
+        return new PriorityLaneExecutorService(ex, name);
+    }
+
     /**
      * Returns the number of cpu cores +1 for ThreadPools that are cpu intensive.
      */
@@ -67,6 +130,30 @@ public final class Executors {
         return new ConfiguredForkJoinPool(name, parallelism, false);
     }
 
+    /**
+     * The workers get pinned to the given cpus, see ThreadAffinity. Pinning needs JNA on the classpath, otherwise it is
+     * a no-op.
+     */
+    public static ConfiguredForkJoinPool newForkJoinPool(final String name, final int parallelism,
+            final CpuSet cpuSet) {
+        return new ConfiguredForkJoinPool(name, parallelism, false, cpuSet);
+    }
+
+    /**
+     * Creates one pool per NUMA node with one worker per cpu of that node. The workers are pinned to their node, so
+     * compute heavy partitions stay close to their memory when each partition is submitted to the same pool. The index
+     * in the returned list is the index of the node in NumaTopology.getNodes(). Without JNA on the classpath the pools
+     * are still created per node, but the workers are not pinned.
+     */
+    public static List<ConfiguredForkJoinPool> newNumaForkJoinPools(final String name) {
+        final List<NumaNode> nodes = NumaTopology.getNodes();
+        final List<ConfiguredForkJoinPool> pools = new ArrayList<ConfiguredForkJoinPool>(nodes.size());
+        for (final NumaNode node : nodes) {
+            pools.add(newForkJoinPool(name + "_node" + node.getId(), node.getCpus().size(), node.getCpus()));
+        }
+        return pools;
+    }
+
     public static ConfiguredForkJoinPool newAsyncForkJoinPool(final String name, final int parallelism) {
         return new ConfiguredForkJoinPool(name, parallelism, true);
     }
@@ -0,0 +1,192 @@
+package de.invesdwin.util.concurrent;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Groups tasks so that they can be joined together. The first failing task immediately cancels all its siblings and
+ * gets rethrown to the joining thread. Tasks report their completion themselves, so no polling is involved and results
+ * are returned in completion order.
+ *
+ * Tasks should only be forked and joined by the owning thread. Closing the scope cancels all tasks that are not yet
+ * completed.
+ */
+@ThreadSafe
+public class FailFastTaskScope<V> implements Closeable {
+
+    private final Executor executor;
+    private final Set<ScopedFutureTask> running = Collections
+            .newSetFromMap(new ConcurrentHashMap<ScopedFutureTask, Boolean>());
+    private final BlockingQueue<ScopedFutureTask> completed = new LinkedBlockingQueue<ScopedFutureTask>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    @GuardedBy("owner thread")
+    private int forkedCount;
+    @GuardedBy("owner thread")
+    private int joinedCount;
+    private volatile boolean closed;
+
+    public FailFastTaskScope(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Throws the failure of a sibling if one has already failed.
+     */
+    public Future<V> fork(final Callable<V> task) throws InterruptedException {
+        return fork(new ScopedFutureTask(task));
+    }
+
+    public Future<V> fork(final Runnable task, final V result) throws InterruptedException {
+        return fork(new ScopedFutureTask(task, result));
+    }
+
+    private Future<V> fork(final ScopedFutureTask task) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Already closed");
+        }
+        throwIfFailed();
+        running.add(task);
+        try {
+            if (executor instanceof WrappedExecutorService) {
+                //execute() would silently drop the task when interrupted while waiting for a free slot
+                ((WrappedExecutorService) executor).executeInterruptibly(task);
+            } else {
+                executor.execute(task);
+            }
+        } catch (final RejectedExecutionException e) {
+            discard(task);
+            throw e;
+        } catch (final InterruptedException e) {
+            discard(task);
+            throw e;
+        }
+        forkedCount++;
+        return task;
+    }
+
+    /**
+     * The executor did not accept the task, so it should not be joined.
+     */
+    private void discard(final ScopedFutureTask task) {
+        task.cancel(false);
+        completed.remove(task);
+    }
+
+    /**
+     * Returns the number of tasks that have not been joined yet.
+     */
+    public int getPendingCount() {
+        return forkedCount - joinedCount;
+    }
+
+    public boolean isFailed() {
+        return failure.get() != null;
+    }
+
+    /**
+     * Waits for the next task to complete and returns its result. Throws the first failure of any task in this scope.
+     * Returns null if no task is pending.
+     */
+    public V takeNext() throws InterruptedException {
+        if (getPendingCount() == 0) {
+            throwIfFailed();
+            return null;
+        }
+        final ScopedFutureTask next = completed.take();
+        joinedCount++;
+        throwIfFailed();
+        try {
+            return next.get();
+        } catch (final CancellationException e) {
+            throwIfFailed();
+            throw e;
+        } catch (final ExecutionException e) {
+            //should not happen since the failure is recorded before the task is completed
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Waits for all tasks to complete and returns their results in completion order. Throws the first failure of any
+     * task in this scope.
+     */
+    public List<V> join() throws InterruptedException {
+        final List<V> results = new ArrayList<V>(getPendingCount());
+        while (getPendingCount() > 0) {
+            results.add(takeNext());
+        }
+        return results;
+    }
+
+    private void throwIfFailed() throws InterruptedException {
+        final Throwable cause = failure.get();
+        if (cause != null) {
+            cancelAll();
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw Throwables.propagate(cause);
+        }
+    }
+
+    private void cancelAll() {
+        for (final ScopedFutureTask task : running) {
+            task.cancel(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        cancelAll();
+    }
+
+    private final class ScopedFutureTask extends FutureTask<V> {
+
+        private ScopedFutureTask(final Callable<V> callable) {
+            super(callable);
+        }
+
+        private ScopedFutureTask(final Runnable runnable, final V result) {
+            super(runnable, result);
+        }
+
+        @Override
+        protected void setException(final Throwable t) {
+            //record before completion so that joining threads see it together with the completion
+            if (failure.compareAndSet(null, t)) {
+                super.setException(t);
+                cancelAll();
+            } else {
+                super.setException(t);
+            }
+        }
+
+        @Override
+        protected void done() {
+            running.remove(this);
+            completed.add(this);
+        }
+
+    }
+
+}
@@ -4,18 +4,21 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.error.Throwables;
 import de.invesdwin.util.time.Duration;
-import de.invesdwin.util.time.fdate.FDate;
 
 @Immutable
 public final class Futures {
@@ -69,30 +72,31 @@ public final class Futures {
      */
     public static void submitAndWaitFailFast(final ExecutorService executor, final List<? extends Runnable> tasks)
             throws InterruptedException {
-        final List<Future<?>> futures = new CopyOnWriteArrayList<Future<?>>();
+        final FailFastTaskScope<Object> scope = new FailFastTaskScope<Object>(executor);
+        try {
+            for (final Runnable task : tasks) {
+                scope.fork(task, null);
+            }
+            scope.join();
+        } finally {
+            scope.close();
+        }
+    }
 
-        FDate lastFailFastCheck = FDate.MIN_DATE;
-        for (final Runnable task : tasks) {
-            futures.add(executor.submit(task));
-            if (new Duration(lastFailFastCheck, new FDate()).isGreaterThan(5, TimeUnit.SECONDS)) {
-                //failfast on exceptions
-                for (final Future<?> future : futures) {
-                    if (future.isDone()) {
-                        futures.remove(future);
-                        try {
-                            Assertions.assertThat(get(future)).isNull();
-                        } catch (final Throwable t) {
-                            for (final Future<?> f : futures) {
-                                f.cancel(true);
-                            }
-                            throw Throwables.propagate(t);
-                        }
-                    }
-                }
-                lastFailFastCheck = new FDate();
+    /**
+     * Returns with the first exception and aborts remaining tasks. The results are returned in completion order.
+     */
+    public static <T> List<T> submitAndGetFailFast(final ExecutorService executor,
+            final List<? extends Callable<T>> tasks) throws InterruptedException {
+        final FailFastTaskScope<T> scope = new FailFastTaskScope<T>(executor);
+        try {
+            for (final Callable<T> task : tasks) {
+                scope.fork(task);
             }
+            return scope.join();
+        } finally {
+            scope.close();
         }
-        wait(futures);
     }
 
     public static <T> T submitAndGet(final ExecutorService executor, final Callable<T> task)
@@ -120,4 +124,149 @@ public final class Futures {
     public static void wait(final Future<?> future) throws InterruptedException {
         Assertions.assertThat(get(future)).isNull();
     }
+
+    /**
+     * Completes with the results in the order of the given futures. Completes exceptionally as soon as any future
+     * fails, without waiting for the others.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(final List<? extends CompletableFuture<? extends T>> futures) {
+        final CompletableFuture<List<T>> result = new CompletableFuture<List<T>>();
+        final CompletableFuture<?>[] array = futures.toArray(new CompletableFuture<?>[futures.size()]);
+        CompletableFuture.allOf(array).whenComplete(new BiConsumer<Void, Throwable>() {
+            @Override
+            public void accept(final Void value, final Throwable error) {
+                if (error != null) {
+                    result.completeExceptionally(unwrapCompletionException(error));
+                    return;
+                }
+                final List<T> results = new ArrayList<T>(futures.size());
+                for (final CompletableFuture<? extends T> future : futures) {
+                    results.add(future.join());
+                }
+                result.complete(results);
+            }
+        });
+        for (final CompletableFuture<? extends T> future : futures) {
+            future.whenComplete(new BiConsumer<T, Throwable>() {
+                @Override
+                public void accept(final T value, final Throwable error) {
+                    if (error != null) {
+                        result.completeExceptionally(unwrapCompletionException(error));
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Completes with the result or exception of the first future that completes.
+     */
+    public static <T> CompletableFuture<T> anyOf(final List<? extends CompletableFuture<? extends T>> futures) {
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        for (final CompletableFuture<? extends T> future : futures) {
+            future.whenComplete(new BiConsumer<T, Throwable>() {
+                @Override
+                public void accept(final T value, final Throwable error) {
+                    if (error != null) {
+                        result.completeExceptionally(unwrapCompletionException(error));
+                    } else {
+                        result.complete(value);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Completes exceptionally with a TimeoutException if the future does not complete in time. The future gets
+     * cancelled in that case, which also cancels the underlying task of WrappedExecutorService.submitAsync.
+     */
+    public static <T> CompletableFuture<T> timeout(final CompletableFuture<T> future, final Duration timeout) {
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        final Future<?> timer = SchedulerHolder.SCHEDULER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (result.completeExceptionally(new TimeoutException("Timeout of " + timeout + " exceeded"))) {
+                    future.cancel(true);
+                }
+            }
+        }, timeout.longValue(), timeout.getTimeUnit());
+        future.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(final T value, final Throwable error) {
+                timer.cancel(false);
+                if (error != null) {
+                    result.completeExceptionally(unwrapCompletionException(error));
+                } else {
+                    result.complete(value);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Calls the supplier again when the future it returned fails, until maxAttempts is reached. The backoff starts
+     * with the given duration and doubles with each attempt. The retries are triggered by a shared timer thread, so the
+     * supplier should only submit the work and not do it itself.
+     */
+    public static <T> CompletableFuture<T> retry(final Supplier<? extends CompletableFuture<? extends T>> supplier,
+            final int maxAttempts, final Duration initialBackoff) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts should be positive: " + maxAttempts);
+        }
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        retry(supplier, result, 1, maxAttempts, initialBackoff.longValue(TimeUnit.NANOSECONDS));
+        return result;
+    }
+
+    private static <T> void retry(final Supplier<? extends CompletableFuture<? extends T>> supplier,
+            final CompletableFuture<T> result, final int attempt, final int maxAttempts, final long backoffNanos) {
+        if (result.isDone()) {
+            //cancelled
+            return;
+        }
+        final CompletableFuture<? extends T> future;
+        try {
+            future = supplier.get();
+        } catch (final Throwable t) {
+            result.completeExceptionally(t);
+            return;
+        }
+        future.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(final T value, final Throwable error) {
+                if (error == null) {
+                    result.complete(value);
+                } else if (attempt >= maxAttempts) {
+                    result.completeExceptionally(unwrapCompletionException(error));
+                } else {
+                    SchedulerHolder.SCHEDULER.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            retry(supplier, result, attempt + 1, maxAttempts, backoffNanos * 2);
+                        }
+                    }, backoffNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    private static Throwable unwrapCompletionException(final Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        } else {
+            return error;
+        }
+    }
+
+    private static final class SchedulerHolder {
+        private static final WrappedScheduledExecutorService SCHEDULER = Executors
+                .newScheduledThreadPool(Futures.class.getSimpleName() + "_SCHEDULER", 1);
+
+        private SchedulerHolder() {}
+    }
+
 }
@@ -0,0 +1,456 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.Duration;
+
+/**
+ * Schedules tasks on a hashed timer wheel instead of the delay queue heap of the ScheduledThreadPoolExecutor. Scheduling
+ * and cancelling are O(1), which makes a difference with hundreds of thousands of short timeouts.
+ *
+ * A single ticker thread advances the wheel once per tick and hands expired tasks over to the worker pool, so tasks
+ * run at most one tick late. New and cancelled timeouts are passed to the ticker via lock-free queues, the buckets are
+ * only touched by the ticker.
+ *
+ * Periodic tasks are not counted as pending since they never complete. One shot tasks release their pending count when
+ * they are cancelled before running. On shutdown the timeouts that did not expire yet are cancelled, tasks that were
+ * already handed over to the worker pool are still executed.
+ */
+@ThreadSafe
+public class HashedWheelScheduledExecutorService extends WrappedScheduledExecutorService {
+
+    public static final Duration DEFAULT_TICK_DURATION = new Duration(10, TimeUnit.MILLISECONDS);
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTimeout<?>> newTimeouts = new ConcurrentLinkedQueue<WheelTimeout<?>>();
+    private final Queue<WheelTimeout<?>> cancelledTimeouts = new ConcurrentLinkedQueue<WheelTimeout<?>>();
+    private final long startNanos;
+    private final Thread ticker;
+    private volatile boolean stopped;
+    @GuardedBy("ticker")
+    private long tick;
+
+    HashedWheelScheduledExecutorService(final java.util.concurrent.ScheduledThreadPoolExecutor delegate,
+            final String name, final Duration tickDuration, final int ticksPerWheel) {
+        super(delegate, name);
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("ticksPerWheel should be positive: " + ticksPerWheel);
+        }
+        this.tickNanos = Math.max(1, tickDuration.longValue(TimeUnit.NANOSECONDS));
+        final int normalizedTicksPerWheel = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(1, normalizedTicksPerWheel)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.startNanos = System.nanoTime();
+        this.ticker = new WrappedThreadFactory(name + "_ticker", java.util.concurrent.Executors.defaultThreadFactory())
+                .newThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        runTicker();
+                    }
+                });
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    public Duration getTickDuration() {
+        return new Duration(tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getTicksPerWheel() {
+        return wheel.length;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        try {
+            return schedule(new WheelTimeout<Object>(new PendingCallable<Object>(
+                    java.util.concurrent.Executors.callable(WrappedRunnable.newInstance(this, command))),
+                    triggerNanos(delay, unit)));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new InterruptingFuture<Object>();
+        }
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+        try {
+            return schedule(new WheelTimeout<V>(new PendingCallable<V>(WrappedCallable.newInstance(this, callable)),
+                    triggerNanos(delay, unit)));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new InterruptingFuture<V>();
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period,
+            final TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period should be positive: " + period);
+        }
+        return schedule(new WheelTimeout<Object>(command, null, triggerNanos(initialDelay, unit),
+                unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay,
+            final TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("delay should be positive: " + delay);
+        }
+        return schedule(new WheelTimeout<Object>(command, null, triggerNanos(initialDelay, unit),
+                -unit.toNanos(delay)));
+    }
+
+    private <V> ScheduledFuture<V> schedule(final WheelTimeout<V> timeout) {
+        if (stopped) {
+            timeout.cancel(false);
+            throw new RejectedExecutionException("Already shutdown");
+        }
+        newTimeouts.add(timeout);
+        if (stopped && newTimeouts.remove(timeout)) {
+            //the ticker might have drained the queue already, otherwise it cancels the timeout itself
+            timeout.cancel(false);
+            throw new RejectedExecutionException("Already shutdown");
+        }
+        return timeout;
+    }
+
+    private static long triggerNanos(final long delay, final TimeUnit unit) {
+        return System.nanoTime() + unit.toNanos(Math.max(0, delay));
+    }
+
+    @Override
+    public void shutdown() {
+        stopTicker();
+        super.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        stopTicker();
+        return super.shutdownNow();
+    }
+
+    @Override
+    protected void onApplicationShutdown() {
+        stopTicker();
+        super.onApplicationShutdown();
+    }
+
+    private void stopTicker() {
+        stopped = true;
+        ticker.interrupt();
+        if (Thread.currentThread() != ticker) {
+            try {
+                ticker.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of timeouts in the wheel, only an estimate since it is not synchronized with the ticker.
+     */
+    public int getScheduledCount() {
+        int count = newTimeouts.size();
+        for (final Bucket bucket : wheel) {
+            count += bucket.size;
+        }
+        return count;
+    }
+
+    private void runTicker() {
+        try {
+            while (!stopped) {
+                final long deadlineNanos = startNanos + (tick + 1) * tickNanos;
+                long sleepNanos = deadlineNanos - System.nanoTime();
+                while (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                    sleepNanos = deadlineNanos - System.nanoTime();
+                }
+                processCancelledTimeouts();
+                transferNewTimeouts();
+                wheel[(int) (tick & mask)].expireTimeouts();
+                tick++;
+            }
+        } catch (final InterruptedException e) {
+            //stopped
+            Thread.currentThread().interrupt();
+        } finally {
+            cancelRemainingTimeouts();
+        }
+    }
+
+    private void processCancelledTimeouts() {
+        while (true) {
+            final WheelTimeout<?> timeout = cancelledTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferNewTimeouts() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final WheelTimeout<?> timeout = newTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (!timeout.isCancelled()) {
+                addToWheel(timeout);
+            }
+        }
+    }
+
+    private void addToWheel(final WheelTimeout<?> timeout) {
+        //round up so that timeouts never expire early
+        final long calculatedTick = (timeout.triggerNanos - startNanos + tickNanos - 1) / tickNanos - 1;
+        timeout.remainingRounds = (calculatedTick - tick) / wheel.length;
+        //timeouts from the past expire in the current tick
+        final long ticks = Math.max(calculatedTick, tick);
+        wheel[(int) (ticks & mask)].add(timeout);
+    }
+
+    private void cancelRemainingTimeouts() {
+        for (final Bucket bucket : wheel) {
+            bucket.cancelAll();
+        }
+        while (true) {
+            final WheelTimeout<?> timeout = newTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            timeout.cancel(false);
+        }
+        cancelledTimeouts.clear();
+    }
+
+    private void dispatch(final WheelTimeout<?> timeout) {
+        try {
+            getWrappedInstance().execute(timeout);
+        } catch (final RejectedExecutionException e) {
+            timeout.cancel(false);
+        }
+    }
+
+    /**
+     * Only accessed by the ticker thread.
+     */
+    private final class Bucket {
+
+        private WheelTimeout<?> head;
+        private WheelTimeout<?> tail;
+        private volatile int size;
+
+        private void add(final WheelTimeout<?> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+            size++;
+        }
+
+        private void remove(final WheelTimeout<?> timeout) {
+            final WheelTimeout<?> next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                if (timeout == tail) {
+                    head = null;
+                    tail = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            size--;
+        }
+
+        private void expireTimeouts() {
+            WheelTimeout<?> timeout = head;
+            while (timeout != null) {
+                final WheelTimeout<?> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (!timeout.isCancelled()) {
+                        dispatch(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void cancelAll() {
+            final List<WheelTimeout<?>> timeouts = new ArrayList<WheelTimeout<?>>(size);
+            WheelTimeout<?> timeout = head;
+            while (timeout != null) {
+                timeouts.add(timeout);
+                timeout = timeout.next;
+            }
+            for (final WheelTimeout<?> t : timeouts) {
+                remove(t);
+                t.cancel(false);
+            }
+        }
+
+    }
+
+    private final class WheelTimeout<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /**
+         * Positive for fixed rate, negative for fixed delay and zero for one shot tasks.
+         */
+        private final long periodNanos;
+        /**
+         * Only set for one shot tasks, since periodic tasks are not counted as pending.
+         */
+        private final PendingCallable<V> pending;
+        private volatile long triggerNanos;
+        //accessed only by the ticker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout<?> prev;
+        private WheelTimeout<?> next;
+
+        private WheelTimeout(final PendingCallable<V> pending, final long triggerNanos) {
+            super(pending);
+            this.pending = pending;
+            this.triggerNanos = triggerNanos;
+            this.periodNanos = 0;
+        }
+
+        private WheelTimeout(final Runnable runnable, final V result, final long triggerNanos,
+                final long periodNanos) {
+            super(runnable, result);
+            this.pending = null;
+            this.triggerNanos = triggerNanos;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return periodNanos != 0;
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset()) {
+                if (periodNanos > 0) {
+                    triggerNanos += periodNanos;
+                } else {
+                    triggerNanos = System.nanoTime() - periodNanos;
+                }
+                if (stopped) {
+                    cancel(false);
+                } else {
+                    newTimeouts.add(this);
+                    if (stopped && newTimeouts.remove(this)) {
+                        cancel(false);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && !stopped) {
+                cancelledTimeouts.add(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void done() {
+            if (pending != null && isCancelled() && pending.release()) {
+                //the wrapped task did not run, so it could not decrement the pending count itself
+                decrementPendingCount();
+            }
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(triggerNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed o) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+    }
+
+    /**
+     * Makes sure that either the wrapped task runs and decrements the pending count itself, or the cancellation of the
+     * timeout decrements it, but never both.
+     */
+    private static final class PendingCallable<V> implements Callable<V> {
+
+        private final Callable<V> delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PendingCallable(final Callable<V> delegate) {
+            this.delegate = delegate;
+        }
+
+        private boolean release() {
+            return released.compareAndSet(false, true);
+        }
+
+        @Override
+        public V call() throws Exception {
+            if (release()) {
+                return delegate.call();
+            } else {
+                return null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package de.invesdwin.util.concurrent;
+
+/**
+ * Tasks that tell the PriorityLaneQueue in which lane they should be queued.
+ */
+public interface IPriorityLaneTask {
+
+    PriorityLane getLane();
+
+}
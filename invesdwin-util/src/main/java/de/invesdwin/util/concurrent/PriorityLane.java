@@ -0,0 +1,41 @@
+package de.invesdwin.util.concurrent;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Tasks of a PriorityLaneExecutorService are queued per lane. Lanes with a higher priority are served first, but tasks
+ * in lower lanes age upward while they wait so that they do not starve. Lanes are compared by identity, so tenants or
+ * tags can get their own lane instance with the same priority.
+ */
+@Immutable
+public final class PriorityLane {
+
+    public static final PriorityLane INTERACTIVE = new PriorityLane("INTERACTIVE", 10);
+    public static final PriorityLane DEFAULT = new PriorityLane("DEFAULT", 0);
+    public static final PriorityLane BATCH = new PriorityLane("BATCH", -10);
+
+    private final String name;
+    private final int priority;
+
+    public PriorityLane(final String name, final int priority) {
+        this.name = name;
+        this.priority = priority;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Higher values are served first.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + priority + ")";
+    }
+
+}
@@ -0,0 +1,111 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Queues tasks per PriorityLane so that interactive tasks do not wait behind thousands of queued batch tasks. Tasks
+ * that are submitted without a lane go into PriorityLane.DEFAULT.
+ *
+ * Lane instances should be reused, since the queue keeps one FIFO per lane instance.
+ */
+@ThreadSafe
+public class PriorityLaneExecutorService extends WrappedExecutorService {
+
+    PriorityLaneExecutorService(final java.util.concurrent.ThreadPoolExecutor delegate, final String name) {
+        super(delegate, name);
+        if (!(delegate.getQueue() instanceof PriorityLaneQueue)) {
+            throw new IllegalArgumentException("Queue should be an instance of "
+                    + PriorityLaneQueue.class.getSimpleName() + ": " + delegate.getQueue().getClass().getName());
+        }
+    }
+
+    public PriorityLaneQueue getQueue() {
+        return (PriorityLaneQueue) getWrappedInstance().getQueue();
+    }
+
+    public void execute(final PriorityLane lane, final Runnable command) {
+        try {
+            getWrappedInstance().execute(new PriorityLaneRunnable(lane, WrappedRunnable.newInstance(this, command)));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public <T> Future<T> submit(final PriorityLane lane, final Callable<T> task) {
+        try {
+            final PriorityLaneFutureTask<T> future = new PriorityLaneFutureTask<T>(lane,
+                    WrappedCallable.newInstance(this, task));
+            getWrappedInstance().execute(future);
+            return future;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new InterruptingFuture<T>();
+        }
+    }
+
+    public Future<?> submit(final PriorityLane lane, final Runnable task) {
+        try {
+            final PriorityLaneFutureTask<Object> future = new PriorityLaneFutureTask<Object>(lane,
+                    WrappedRunnable.newInstance(this, task), null);
+            getWrappedInstance().execute(future);
+            return future;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new InterruptingFuture<Object>();
+        }
+    }
+
+    static java.util.concurrent.ThreadPoolExecutor newThreadPoolExecutor(final int nThreads,
+            final PriorityLaneQueue queue) {
+        return new java.util.concurrent.ThreadPoolExecutor(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS, queue);
+    }
+
+    private static final class PriorityLaneRunnable implements Runnable, IPriorityLaneTask {
+
+        private final PriorityLane lane;
+        private final Runnable delegate;
+
+        private PriorityLaneRunnable(final PriorityLane lane, final Runnable delegate) {
+            this.lane = lane;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PriorityLane getLane() {
+            return lane;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+
+    }
+
+    private static final class PriorityLaneFutureTask<V> extends FutureTask<V> implements IPriorityLaneTask {
+
+        private final PriorityLane lane;
+
+        private PriorityLaneFutureTask(final PriorityLane lane, final Callable<V> callable) {
+            super(callable);
+            this.lane = lane;
+        }
+
+        private PriorityLaneFutureTask(final PriorityLane lane, final Runnable runnable, final V result) {
+            super(runnable, result);
+            this.lane = lane;
+        }
+
+        @Override
+        public PriorityLane getLane() {
+            return lane;
+        }
+
+    }
+
+}
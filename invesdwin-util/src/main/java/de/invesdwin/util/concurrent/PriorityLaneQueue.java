@@ -0,0 +1,424 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.Duration;
+
+/**
+ * A blocking queue with one FIFO per lane. The next task is taken from the lane with the highest score:
+ *
+ * <pre>
+ * score = priority * agingInterval + waitingTime
+ * </pre>
+ *
+ * So a lane gains one priority level per aging interval its head has been waiting. The waiting time of a lane starts
+ * when its head was enqueued or when the lane was last served, whichever is later. Thus busy lanes with the same
+ * priority are served round robin instead of one flooding lane blocking the others.
+ *
+ * Lanes are evicted as soon as they become empty, so each take only scans the lanes that currently have waiting tasks.
+ * Since a new head is always enqueued after the lane was last served, an evicted lane does not lose any aging state.
+ */
+@ThreadSafe
+public class PriorityLaneQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private final long agingIntervalNanos;
+    private final int capacity;
+    private final Lock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Condition notEmptyCondition = lock.newCondition();
+    @GuardedBy("lock")
+    private final Condition notFullCondition = lock.newCondition();
+    @GuardedBy("lock")
+    private final Map<PriorityLane, LaneQueue> lanes = new LinkedHashMap<PriorityLane, LaneQueue>();
+    @GuardedBy("lock")
+    private int size;
+
+    public PriorityLaneQueue(final Duration agingInterval) {
+        this(agingInterval, Integer.MAX_VALUE);
+    }
+
+    public PriorityLaneQueue(final Duration agingInterval, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive: " + capacity);
+        }
+        this.agingIntervalNanos = Math.max(1, agingInterval.longValue(TimeUnit.NANOSECONDS));
+        this.capacity = capacity;
+    }
+
+    protected PriorityLane getLane(final Runnable task) {
+        if (task instanceof IPriorityLaneTask) {
+            return ((IPriorityLaneTask) task).getLane();
+        } else {
+            return PriorityLane.DEFAULT;
+        }
+    }
+
+    @Override
+    public boolean offer(final Runnable e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if (size >= capacity) {
+                return false;
+            }
+            enqueue(e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(final Runnable e, final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size >= capacity) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFullCondition.awaitNanos(remainingNanos);
+            }
+            enqueue(e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(final Runnable e) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        lock.lockInterruptibly();
+        try {
+            while (size >= capacity) {
+                notFullCondition.await();
+            }
+            enqueue(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void enqueue(final Runnable e) {
+        final PriorityLane lane = getLane(e);
+        LaneQueue laneQueue = lanes.get(lane);
+        if (laneQueue == null) {
+            laneQueue = new LaneQueue(lane);
+            lanes.put(lane, laneQueue);
+        }
+        laneQueue.add(e, System.nanoTime());
+        size++;
+        notEmptyCondition.signal();
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmptyCondition.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = notEmptyCondition.awaitNanos(remainingNanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            return selectLane(System.nanoTime()).peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private Runnable dequeue() {
+        final long nowNanos = System.nanoTime();
+        final LaneQueue laneQueue = selectLane(nowNanos);
+        size--;
+        notFullCondition.signal();
+        final Runnable task = laneQueue.poll(nowNanos);
+        evictIfEmpty(laneQueue);
+        return task;
+    }
+
+    @GuardedBy("lock")
+    private void evictIfEmpty(final LaneQueue laneQueue) {
+        if (laneQueue.isEmpty()) {
+            lanes.remove(laneQueue.lane);
+        }
+    }
+
+    @GuardedBy("lock")
+    private LaneQueue selectLane(final long nowNanos) {
+        LaneQueue selected = null;
+        long selectedScore = Long.MIN_VALUE;
+        for (final LaneQueue laneQueue : lanes.values()) {
+            final long score = laneQueue.getScore(nowNanos);
+            if (selected == null || score > selectedScore) {
+                selected = laneQueue;
+                selectedScore = score;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (!(o instanceof Runnable)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            final LaneQueue laneQueue = lanes.get(getLane((Runnable) o));
+            if (laneQueue != null && laneQueue.remove(o)) {
+                size--;
+                notFullCondition.signal();
+                evictIfEmpty(laneQueue);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(final PriorityLane lane) {
+        lock.lock();
+        try {
+            final LaneQueue laneQueue = lanes.get(lane);
+            if (laneQueue == null) {
+                return 0;
+            }
+            return laneQueue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lanes that currently have waiting tasks.
+     */
+    public int getLaneCount() {
+        lock.lock();
+        try {
+            return lanes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(final Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super Runnable> c, final int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int count = 0;
+            while (size > 0 && count < maxElements) {
+                c.add(dequeue());
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterates over a snapshot in lane order, removing via the iterator removes the task from this queue.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        final List<Runnable> snapshot = new ArrayList<Runnable>();
+        lock.lock();
+        try {
+            for (final LaneQueue laneQueue : lanes.values()) {
+                laneQueue.addTo(snapshot);
+            }
+        } finally {
+            lock.unlock();
+        }
+        final Iterator<Runnable> delegate = snapshot.iterator();
+        return new Iterator<Runnable>() {
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = delegate.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                PriorityLaneQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    private static final class Entry {
+        private final Runnable task;
+        private final long enqueueNanos;
+
+        private Entry(final Runnable task, final long enqueueNanos) {
+            this.task = task;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    private final class LaneQueue {
+
+        private final PriorityLane lane;
+        private final ArrayDeque<Entry> entries = new ArrayDeque<Entry>();
+        private boolean served;
+        private long lastServedNanos;
+
+        private LaneQueue(final PriorityLane lane) {
+            this.lane = lane;
+        }
+
+        private void add(final Runnable task, final long nowNanos) {
+            entries.add(new Entry(task, nowNanos));
+        }
+
+        private Runnable peek() {
+            return entries.peek().task;
+        }
+
+        private Runnable poll(final long nowNanos) {
+            served = true;
+            lastServedNanos = nowNanos;
+            return entries.poll().task;
+        }
+
+        private boolean remove(final Object task) {
+            final Iterator<Entry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().task == task) {
+                    iterator.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        private int size() {
+            return entries.size();
+        }
+
+        private void addTo(final List<Runnable> list) {
+            for (final Entry entry : entries) {
+                list.add(entry.task);
+            }
+        }
+
+        private long getScore(final long nowNanos) {
+            long waitingSinceNanos = entries.peek().enqueueNanos;
+            if (served && lastServedNanos - waitingSinceNanos > 0) {
+                waitingSinceNanos = lastServedNanos;
+            }
+            return lane.getPriority() * agingIntervalNanos + (nowNanos - waitingSinceNanos);
+        }
+
+    }
+
+}
@@ -15,6 +15,10 @@ public final class Threads {
         }
     }
 
+    /**
+     * For hot loops rather resolve CancellationToken.getCurrent() once outside of the loop and check isCancelled() on
+     * it, which is only a single volatile read.
+     */
     public static boolean isInterrupted() {
         return Thread.currentThread().isInterrupted() || ShutdownHookManager.isShuttingDown();
     }
@@ -0,0 +1,111 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Completes a CompletableFuture when the task is done, so that dependent stages do not need a thread waiting for it.
+ * Cancelling the CompletableFuture cancels the task aswell. The pending count is released exactly once, also when the
+ * task is cancelled before it was started.
+ */
+@ThreadSafe
+final class WrappedAsyncTask<V> extends FutureTask<V> {
+
+    private final WrappedExecutorService parent;
+    private final AsyncCompletableFuture completableFuture = new AsyncCompletableFuture();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final WrappedTaskContext context;
+    private volatile boolean started;
+
+    private WrappedAsyncTask(final WrappedExecutorService parent, final Callable<V> delegate) {
+        super(delegate);
+        this.parent = parent;
+        this.context = WrappedTaskContext.newInstance(parent);
+    }
+
+    public CompletableFuture<V> getCompletableFuture() {
+        return completableFuture;
+    }
+
+    @Override
+    public void run() {
+        started = true;
+        if (context == null) {
+            try {
+                super.run();
+            } finally {
+                release();
+            }
+            return;
+        }
+        try {
+            try {
+                context.start();
+            } catch (final CancellationException e) {
+                setException(e);
+                return;
+            }
+            super.run();
+        } finally {
+            context.stop(isFailed(), parent.getPendingCount());
+            release();
+        }
+    }
+
+    private boolean isFailed() {
+        return completableFuture.isCompletedExceptionally();
+    }
+
+    @Override
+    protected void done() {
+        if (!started) {
+            //will never run
+            release();
+        }
+        parent.removeAsyncTask(this);
+        if (isCancelled()) {
+            completableFuture.completeExceptionally(new CancellationException());
+            return;
+        }
+        try {
+            completableFuture.complete(get());
+        } catch (final ExecutionException e) {
+            completableFuture.completeExceptionally(e.getCause());
+        } catch (final InterruptedException e) {
+            //cannot happen since the task is already done
+            Thread.currentThread().interrupt();
+            completableFuture.completeExceptionally(e);
+        } catch (final CancellationException e) {
+            completableFuture.completeExceptionally(e);
+        }
+    }
+
+    void release() {
+        if (released.compareAndSet(false, true)) {
+            parent.decrementPendingCount();
+        }
+    }
+
+    static <T> WrappedAsyncTask<T> newInstance(final WrappedExecutorService parent, final Callable<T> delegate)
+            throws InterruptedException {
+        parent.incrementPendingCount(false);
+        return new WrappedAsyncTask<T>(parent, delegate);
+    }
+
+    private final class AsyncCompletableFuture extends CompletableFuture<V> {
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            WrappedAsyncTask.this.cancel(mayInterruptIfRunning);
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+    }
+
+}
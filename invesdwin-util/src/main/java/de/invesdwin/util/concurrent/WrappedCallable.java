@@ -12,19 +12,33 @@ final class WrappedCallable<V> implements Callable<V> {
 
     private final Callable<V> delegate;
     private final WrappedExecutorService parent;
+    private final WrappedTaskContext context;
 
     private WrappedCallable(final WrappedExecutorService parent, final Callable<V> delegate,
             final boolean skipWaitOnFullPendingCount) throws InterruptedException {
         this.delegate = delegate;
         this.parent = parent;
         parent.incrementPendingCount(skipWaitOnFullPendingCount);
+        this.context = WrappedTaskContext.newInstance(parent);
     }
 
     @Override
     public V call() throws Exception {
+        if (context == null) {
+            try {
+                return delegate.call();
+            } finally {
+                parent.decrementPendingCount();
+            }
+        }
+        boolean failed = true;
         try {
-            return delegate.call();
+            context.start();
+            final V result = delegate.call();
+            failed = false;
+            return result;
         } finally {
+            context.stop(failed, parent.getPendingCount());
             parent.decrementPendingCount();
         }
     }
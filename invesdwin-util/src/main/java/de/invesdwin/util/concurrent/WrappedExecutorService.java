@@ -1,13 +1,20 @@
 package de.invesdwin.util.concurrent;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -16,6 +23,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+import de.invesdwin.util.concurrent.metrics.ExecutorMetrics;
+import de.invesdwin.util.concurrent.metrics.IExecutorMetricsSource;
 import de.invesdwin.util.shutdown.IShutdownHook;
 import de.invesdwin.util.shutdown.ShutdownHookManager;
 import de.invesdwin.util.time.Duration;
@@ -35,18 +44,25 @@ public class WrappedExecutorService implements ExecutorService {
     private final AtomicLong pendingCount = new AtomicLong();
     private final Object pendingCountWaitLock = new Object();
     private final java.util.concurrent.ThreadPoolExecutor delegate;
+    private final Set<WrappedAsyncTask<?>> asyncTasks = Collections
+            .newSetFromMap(new ConcurrentHashMap<WrappedAsyncTask<?>, Boolean>());
     private volatile boolean logExceptions = false;
     private volatile boolean waitOnFullPendingCount = false;
+    private final String name;
+    private volatile ExecutorMetrics metrics;
+    private volatile AdaptiveConcurrencyLimit adaptiveConcurrencyLimit;
 
+    private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
     private final IShutdownHook shutdownHook = new IShutdownHook() {
         @Override
         public void shutdown() throws Exception {
-            delegate.shutdownNow();
+            onApplicationShutdown();
         }
     };
 
     protected WrappedExecutorService(final java.util.concurrent.ThreadPoolExecutor delegate, final String name) {
         this.delegate = delegate;
+        this.name = name;
         configure(name);
     }
 
@@ -55,7 +71,7 @@ public class WrappedExecutorService implements ExecutorService {
             synchronized (pendingCountWaitLock) {
                 //Only one waiting thread may be woken up when this limit is reached!
                 while (pendingCount.get() >= getFullPendingCount()) {
-                    awaitPendingCount(getWrappedInstance().getMaximumPoolSize() - 1);
+                    awaitPendingCount(getFullPendingCount() - 1);
                 }
                 notifyPendingCountListeners(pendingCount.incrementAndGet());
             }
@@ -89,6 +105,7 @@ public class WrappedExecutorService implements ExecutorService {
          * All executors should be shutdown on application shutdown.
          */
         ShutdownHookManager.register(shutdownHook);
+        shutdownHookRegistered.set(true);
         /*
          * All threads should stop after 60 seconds of idle time
          */
@@ -105,10 +122,82 @@ public class WrappedExecutorService implements ExecutorService {
         delegate.setThreadFactory(new WrappedThreadFactory(name, delegate.getThreadFactory()));
     }
 
+    /**
+     * Called by the shutdown hook, subclasses that run their own threads should stop them here too.
+     */
+    protected void onApplicationShutdown() {
+        delegate.shutdownNow();
+        cancelAsyncTasks();
+    }
+
     private void unconfigure() {
-        if (!isShutdown()) {
+        //the executor is already shut down here, so the registration itself needs to be tracked
+        if (shutdownHookRegistered.compareAndSet(true, false)) {
             ShutdownHookManager.unregister(shutdownHook);
         }
+        final ExecutorMetrics metricsCopy = metrics;
+        if (metricsCopy != null) {
+            metricsCopy.unregisterMBean();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Metrics are disabled by default, then tasks do not take any timestamps. When enabled, queue wait and run times
+     * are recorded for each task and the metrics get registered via JMX. Tasks that were submitted before the metrics
+     * were enabled are not recorded.
+     */
+    public synchronized WrappedExecutorService withMetrics(final boolean enabled) {
+        if (enabled && metrics == null) {
+            final ExecutorMetrics newMetrics = new ExecutorMetrics(name, new IExecutorMetricsSource() {
+                @Override
+                public int getActiveCount() {
+                    return delegate.getActiveCount();
+                }
+
+                @Override
+                public long getPendingCount() {
+                    return WrappedExecutorService.this.getPendingCount();
+                }
+
+                @Override
+                public int getQueueSize() {
+                    return delegate.getQueue().size();
+                }
+
+                @Override
+                public int getPoolSize() {
+                    return delegate.getPoolSize();
+                }
+
+                @Override
+                public int getMaximumPoolSize() {
+                    return delegate.getMaximumPoolSize();
+                }
+            });
+            delegate.setRejectedExecutionHandler(new MetricsRejectedExecutionHandler(newMetrics,
+                    delegate.getRejectedExecutionHandler()));
+            newMetrics.registerMBean();
+            metrics = newMetrics;
+        } else if (!enabled && metrics != null) {
+            final RejectedExecutionHandler handler = delegate.getRejectedExecutionHandler();
+            if (handler instanceof MetricsRejectedExecutionHandler) {
+                delegate.setRejectedExecutionHandler(((MetricsRejectedExecutionHandler) handler).delegate);
+            }
+            metrics.unregisterMBean();
+            metrics = null;
+        }
+        return this;
+    }
+
+    /**
+     * Returns null if metrics are disabled.
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
     }
 
     public boolean isWaitOnFullPendingCount() {
@@ -133,6 +222,7 @@ public class WrappedExecutorService implements ExecutorService {
     @Override
     public List<Runnable> shutdownNow() {
         final List<Runnable> l = getWrappedInstance().shutdownNow();
+        cancelAsyncTasks();
         unconfigure();
         return l;
     }
@@ -183,19 +273,50 @@ public class WrappedExecutorService implements ExecutorService {
         awaitPendingCount(getFullPendingCount());
     }
 
+    /**
+     * The maximum pool size, or the current limit when an adaptive concurrency limit is set.
+     */
     public int getFullPendingCount() {
+        final AdaptiveConcurrencyLimit adaptiveConcurrencyLimitCopy = adaptiveConcurrencyLimit;
+        if (adaptiveConcurrencyLimitCopy != null) {
+            return adaptiveConcurrencyLimitCopy.getLimit();
+        }
         return getWrappedInstance().getMaximumPoolSize();
     }
 
+    /**
+     * Lets getFullPendingCount() follow the latency of the tasks instead of the maximum pool size. This is only used
+     * to block submitters when withWaitOnFullPendingCount(true) is set, or by callers of waitOnFullPendingCount().
+     * For this to be useful the pool should allow more threads than the limit will settle at, e.g. a cached thread
+     * pool for I/O bound tasks. Null disables the adaptive limit.
+     */
+    public WrappedExecutorService withAdaptiveConcurrencyLimit(
+            final AdaptiveConcurrencyLimit adaptiveConcurrencyLimit) {
+        this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+        return this;
+    }
+
+    public AdaptiveConcurrencyLimit getAdaptiveConcurrencyLimit() {
+        return adaptiveConcurrencyLimit;
+    }
+
     @Override
     public void execute(final Runnable command) {
         try {
-            getWrappedInstance().execute(WrappedRunnable.newInstance(this, command));
+            executeInterruptibly(command);
         } catch (final InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Like execute(), but throws the InterruptedException instead of dropping the task silently when interrupted while
+     * waiting for a free slot.
+     */
+    void executeInterruptibly(final Runnable command) throws InterruptedException {
+        getWrappedInstance().execute(WrappedRunnable.newInstance(this, command));
+    }
+
     @Override
     public <T> Future<T> submit(final Callable<T> task) {
         try {
@@ -226,6 +347,45 @@ public class WrappedExecutorService implements ExecutorService {
         }
     }
 
+    /**
+     * Returns a CompletableFuture that gets completed by the worker thread, so no thread needs to block to chain
+     * further stages. Cancelling the returned future also cancels the task. shutdownNow() cancels all async tasks that
+     * are not completed yet, so that their dependent stages are not left hanging.
+     */
+    public <T> CompletableFuture<T> submitAsync(final Callable<T> task) {
+        final WrappedAsyncTask<T> asyncTask;
+        try {
+            asyncTask = WrappedAsyncTask.newInstance(this, task);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final CompletableFuture<T> interrupted = new CompletableFuture<T>();
+            interrupted.completeExceptionally(e);
+            return interrupted;
+        }
+        asyncTasks.add(asyncTask);
+        try {
+            getWrappedInstance().execute(asyncTask);
+        } catch (final RejectedExecutionException e) {
+            asyncTask.cancel(false);
+            throw e;
+        }
+        return asyncTask.getCompletableFuture();
+    }
+
+    public CompletableFuture<Void> submitAsync(final Runnable task) {
+        return submitAsync(java.util.concurrent.Executors.callable(task, (Void) null));
+    }
+
+    void removeAsyncTask(final WrappedAsyncTask<?> asyncTask) {
+        asyncTasks.remove(asyncTask);
+    }
+
+    private void cancelAsyncTasks() {
+        for (final WrappedAsyncTask<?> asyncTask : asyncTasks) {
+            asyncTask.cancel(false);
+        }
+    }
+
     @Override
     public <T> List<Future<T>> invokeAll(final Collection<? extends Callable<T>> tasks) throws InterruptedException {
         return getWrappedInstance().invokeAll(WrappedCallable.newInstance(this, tasks));
@@ -249,4 +409,23 @@ public class WrappedExecutorService implements ExecutorService {
         return getWrappedInstance().invokeAny(WrappedCallable.newInstance(this, tasks), timeout, unit);
     }
 
+    private static final class MetricsRejectedExecutionHandler implements RejectedExecutionHandler {
+
+        private final ExecutorMetrics metrics;
+        private final RejectedExecutionHandler delegate;
+
+        private MetricsRejectedExecutionHandler(final ExecutorMetrics metrics,
+                final RejectedExecutionHandler delegate) {
+            this.metrics = metrics;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(final Runnable r, final java.util.concurrent.ThreadPoolExecutor executor) {
+            metrics.onRejected();
+            delegate.rejectedExecution(r, executor);
+        }
+
+    }
+
 }
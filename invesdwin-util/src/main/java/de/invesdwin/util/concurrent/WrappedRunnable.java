@@ -11,19 +11,33 @@ final class WrappedRunnable implements Runnable {
 
     private final Runnable delegate;
     private final WrappedExecutorService parent;
+    private final WrappedTaskContext context;
 
     private WrappedRunnable(final WrappedExecutorService parent, final Runnable delegate,
             final boolean skipWaitOnFullPendingCount) throws InterruptedException {
         this.delegate = delegate;
         this.parent = parent;
         parent.incrementPendingCount(skipWaitOnFullPendingCount);
+        this.context = WrappedTaskContext.newInstance(parent);
     }
 
     @Override
     public void run() {
+        if (context == null) {
+            try {
+                delegate.run();
+            } finally {
+                parent.decrementPendingCount();
+            }
+            return;
+        }
+        boolean failed = true;
         try {
+            context.start();
             delegate.run();
+            failed = false;
         } finally {
+            context.stop(failed, parent.getPendingCount());
             parent.decrementPendingCount();
         }
     }
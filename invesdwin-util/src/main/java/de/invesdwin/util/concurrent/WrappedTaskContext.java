@@ -0,0 +1,73 @@
+package de.invesdwin.util.concurrent;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.concurrent.metrics.ExecutorMetrics;
+
+/**
+ * Carries what a task needs besides the pending count: timestamps for metrics or an adaptive concurrency limit and the
+ * CancellationToken of the submitting thread. Only gets created when one of those is present, otherwise tasks take no
+ * timestamps. The thread local of the token is only read after any token was attached once.
+ */
+@NotThreadSafe
+final class WrappedTaskContext {
+
+    private final ExecutorMetrics metrics;
+    private final AdaptiveConcurrencyLimit limit;
+    private final CancellationToken cancellationToken;
+    private final long submittedNanos;
+    private long startedNanos;
+    private CancellationToken previousCancellationToken;
+
+    private WrappedTaskContext(final ExecutorMetrics metrics, final AdaptiveConcurrencyLimit limit,
+            final CancellationToken cancellationToken) {
+        this.metrics = metrics;
+        this.limit = limit;
+        this.cancellationToken = cancellationToken;
+        if (metrics != null) {
+            this.submittedNanos = metrics.onSubmitted();
+        } else if (limit != null) {
+            this.submittedNanos = System.nanoTime();
+        } else {
+            this.submittedNanos = 0;
+        }
+    }
+
+    /**
+     * Throws a CancellationException when the token of the submitting thread was cancelled in the meantime, stop()
+     * still needs to be called in that case.
+     */
+    public void start() {
+        if (metrics != null) {
+            startedNanos = metrics.onStarted(submittedNanos);
+        }
+        if (cancellationToken != null) {
+            previousCancellationToken = CancellationToken.attach(cancellationToken);
+            cancellationToken.throwIfCancelled();
+        }
+    }
+
+    public void stop(final boolean failed, final long pendingCount) {
+        if (cancellationToken != null) {
+            CancellationToken.detach(previousCancellationToken);
+            previousCancellationToken = null;
+        }
+        if (metrics != null) {
+            metrics.onCompleted(startedNanos, failed);
+        }
+        if (limit != null) {
+            limit.onSample(System.nanoTime() - submittedNanos, pendingCount);
+        }
+    }
+
+    static WrappedTaskContext newInstance(final WrappedExecutorService parent) {
+        final ExecutorMetrics metrics = parent.getMetrics();
+        final AdaptiveConcurrencyLimit limit = parent.getAdaptiveConcurrencyLimit();
+        final CancellationToken cancellationToken = CancellationToken.getCurrentOrNull();
+        if (metrics == null && limit == null && cancellationToken == null) {
+            return null;
+        }
+        return new WrappedTaskContext(metrics, limit, cancellationToken);
+    }
+
+}
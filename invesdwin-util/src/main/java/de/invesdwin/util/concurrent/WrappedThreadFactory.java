@@ -7,6 +7,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.affinity.CpuSet;
+import de.invesdwin.util.concurrent.affinity.ThreadAffinity;
 
 @ThreadSafe
 public class WrappedThreadFactory implements ThreadFactory {
@@ -17,6 +19,7 @@ public class WrappedThreadFactory implements ThreadFactory {
 
     private final String name;
     private final ThreadFactory delegate;
+    private volatile CpuSet cpuSet;
 
     public WrappedThreadFactory(@Nonnull final String name, @Nonnull final ThreadFactory delegate) {
         Assertions.assertThat(name).isNotNull();
@@ -25,9 +28,34 @@ public class WrappedThreadFactory implements ThreadFactory {
         this.delegate = delegate;
     }
 
+    /**
+     * New threads pin themselves to the given cpus when they start, see ThreadAffinity. Null disables pinning.
+     */
+    public WrappedThreadFactory withCpuSet(final CpuSet cpuSet) {
+        this.cpuSet = cpuSet;
+        return this;
+    }
+
+    public CpuSet getCpuSet() {
+        return cpuSet;
+    }
+
     @Override
     public Thread newThread(final Runnable r) {
-        final Thread t = delegate.newThread(r);
+        final CpuSet cpuSetCopy = cpuSet;
+        final Runnable runnable;
+        if (cpuSetCopy != null) {
+            runnable = new Runnable() {
+                @Override
+                public void run() {
+                    ThreadAffinity.pinCurrentThread(cpuSetCopy);
+                    r.run();
+                }
+            };
+        } else {
+            runnable = r;
+        }
+        final Thread t = delegate.newThread(runnable);
         t.setName(threadpoolId + "-" + threadIds.incrementAndGet() + ":" + name);
         /*
          * So that exceptions are still logged if runnables are sent into executors without futures being checked. This
@@ -0,0 +1,138 @@
+package de.invesdwin.util.concurrent.affinity;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A set of logical cpu ids, parseable from and printable to the linux cpulist format (e.g. "0-3,8,10-11").
+ */
+@Immutable
+public final class CpuSet {
+
+    private final BitSet cpus;
+    private final String cpuList;
+
+    private CpuSet(final BitSet cpus) {
+        this.cpus = cpus;
+        this.cpuList = newCpuList(cpus);
+    }
+
+    public static CpuSet of(final int... cpus) {
+        final BitSet bitSet = new BitSet();
+        for (final int cpu : cpus) {
+            if (cpu < 0) {
+                throw new IllegalArgumentException("cpu should not be negative: " + cpu);
+            }
+            bitSet.set(cpu);
+        }
+        return new CpuSet(bitSet);
+    }
+
+    /**
+     * Contains the cpus 0 until the number of available processors.
+     */
+    public static CpuSet ofAvailableProcessors() {
+        final BitSet bitSet = new BitSet();
+        bitSet.set(0, Runtime.getRuntime().availableProcessors());
+        return new CpuSet(bitSet);
+    }
+
+    public static CpuSet parse(final String cpuList) {
+        final BitSet bitSet = new BitSet();
+        final String trimmed = cpuList.trim();
+        if (!trimmed.isEmpty()) {
+            for (final String range : trimmed.split(",")) {
+                final int dash = range.indexOf('-');
+                try {
+                    if (dash < 0) {
+                        bitSet.set(Integer.parseInt(range.trim()));
+                    } else {
+                        final int from = Integer.parseInt(range.substring(0, dash).trim());
+                        final int to = Integer.parseInt(range.substring(dash + 1).trim());
+                        bitSet.set(from, to + 1);
+                    }
+                } catch (final NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cpu list: " + cpuList, e);
+                }
+            }
+        }
+        return new CpuSet(bitSet);
+    }
+
+    public int size() {
+        return cpus.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return cpus.isEmpty();
+    }
+
+    public boolean contains(final int cpu) {
+        return cpus.get(cpu);
+    }
+
+    public int[] toArray() {
+        final int[] array = new int[cpus.cardinality()];
+        int i = 0;
+        for (int cpu = cpus.nextSetBit(0); cpu >= 0; cpu = cpus.nextSetBit(cpu + 1)) {
+            array[i++] = cpu;
+        }
+        return array;
+    }
+
+    public CpuSet intersect(final CpuSet other) {
+        final BitSet bitSet = (BitSet) cpus.clone();
+        bitSet.and(other.cpus);
+        return new CpuSet(bitSet);
+    }
+
+    /**
+     * Returns the bit mask as used by sched_setaffinity, cpu i is bit i % 64 of word i / 64.
+     */
+    public long[] toMask() {
+        return cpus.toLongArray();
+    }
+
+    /**
+     * Returns the linux cpulist format, e.g. "0-3,8".
+     */
+    public String toCpuList() {
+        return cpuList;
+    }
+
+    private static String newCpuList(final BitSet cpus) {
+        final StringBuilder sb = new StringBuilder();
+        int from = cpus.nextSetBit(0);
+        while (from >= 0) {
+            final int to = cpus.nextClearBit(from) - 1;
+            if (sb.length() > 0) {
+                sb.append(",");
+            }
+            sb.append(from);
+            if (to > from) {
+                sb.append("-");
+                sb.append(to);
+            }
+            from = cpus.nextSetBit(to + 1);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return cpus.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof CpuSet && ((CpuSet) obj).cpus.equals(cpus);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+}
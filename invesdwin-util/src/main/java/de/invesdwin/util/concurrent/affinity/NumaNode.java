@@ -0,0 +1,29 @@
+package de.invesdwin.util.concurrent.affinity;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public final class NumaNode {
+
+    private final int id;
+    private final CpuSet cpus;
+
+    public NumaNode(final int id, final CpuSet cpus) {
+        this.id = id;
+        this.cpus = cpus;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public CpuSet getCpus() {
+        return cpus;
+    }
+
+    @Override
+    public String toString() {
+        return "node" + id + "[" + cpus.toCpuList() + "]";
+    }
+
+}
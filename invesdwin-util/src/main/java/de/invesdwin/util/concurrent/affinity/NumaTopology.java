@@ -0,0 +1,90 @@
+package de.invesdwin.util.concurrent.affinity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Reads the NUMA nodes from /sys/devices/system/node on linux. On other systems or when the information is not
+ * available, a single node with all available processors is returned.
+ */
+@Immutable
+public final class NumaTopology {
+
+    private static final File NODES_DIRECTORY = new File("/sys/devices/system/node");
+    private static final Pattern NODE_DIRECTORY_PATTERN = Pattern.compile("node[0-9]+");
+
+    private NumaTopology() {}
+
+    public static List<NumaNode> getNodes() {
+        return NodesHolder.NODES;
+    }
+
+    public static int getNodeCount() {
+        return getNodes().size();
+    }
+
+    /**
+     * Returns the node that contains the given cpu or null if it is unknown.
+     */
+    public static NumaNode getNodeOfCpu(final int cpu) {
+        for (final NumaNode node : getNodes()) {
+            if (node.getCpus().contains(cpu)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    static List<NumaNode> readNodes(final File nodesDirectory) {
+        final List<NumaNode> nodes = new ArrayList<NumaNode>();
+        final File[] nodeDirectories = nodesDirectory.listFiles();
+        if (nodeDirectories != null) {
+            for (final File nodeDirectory : nodeDirectories) {
+                if (!NODE_DIRECTORY_PATTERN.matcher(nodeDirectory.getName()).matches()) {
+                    continue;
+                }
+                final File cpuListFile = new File(nodeDirectory, "cpulist");
+                try {
+                    final String cpuList = new String(Files.readAllBytes(cpuListFile.toPath()),
+                            StandardCharsets.US_ASCII);
+                    final CpuSet cpus = CpuSet.parse(cpuList);
+                    if (!cpus.isEmpty()) {
+                        //memory only nodes do not have cpus
+                        final int id = Integer.parseInt(nodeDirectory.getName().substring("node".length()));
+                        nodes.add(new NumaNode(id, cpus));
+                    }
+                } catch (final IOException e) {
+                    continue;
+                } catch (final IllegalArgumentException e) {
+                    continue;
+                }
+            }
+        }
+        if (nodes.isEmpty()) {
+            nodes.add(new NumaNode(0, CpuSet.ofAvailableProcessors()));
+        }
+        Collections.sort(nodes, new Comparator<NumaNode>() {
+            @Override
+            public int compare(final NumaNode o1, final NumaNode o2) {
+                return Integer.compare(o1.getId(), o2.getId());
+            }
+        });
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private static final class NodesHolder {
+        private static final List<NumaNode> NODES = readNodes(NODES_DIRECTORY);
+
+        private NodesHolder() {}
+    }
+
+}
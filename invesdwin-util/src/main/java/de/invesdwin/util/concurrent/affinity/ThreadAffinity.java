@@ -0,0 +1,108 @@
+package de.invesdwin.util.concurrent.affinity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.sun.jna.Function;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.NativeLong;
+
+/**
+ * Pins threads to cpus on linux by calling sched_setaffinity for the current thread. The native function is resolved
+ * once via JNA, so no process is spawned per thread. JNA is an optional dependency of this module, thus it has to be
+ * added to the classpath explicitly for pinning to work. On other systems or without JNA, pinning is a no-op and
+ * isSupported() returns false.
+ *
+ * The cpus a thread may run on are read once from /proc/self/status, requested cpus outside of that set are ignored.
+ */
+@Immutable
+public final class ThreadAffinity {
+
+    private static final File PROC_STATUS = new File("/proc/self/status");
+    private static final String CPUS_ALLOWED_LIST = "Cpus_allowed_list:";
+    private static final CpuSet ALLOWED_CPUS = readAllowedCpus();
+    private static final NativeAffinity NATIVE = newNativeAffinity();
+
+    private ThreadAffinity() {}
+
+    /**
+     * Returns false when not running on linux or when JNA is not on the classpath.
+     */
+    public static boolean isSupported() {
+        return NATIVE != null;
+    }
+
+    /**
+     * The cpus this process is allowed to run on, resolved once on startup.
+     */
+    public static CpuSet getAllowedCpus() {
+        return ALLOWED_CPUS;
+    }
+
+    /**
+     * Returns false if the thread could not be pinned, e.g. because pinning is not supported or none of the cpus are
+     * allowed.
+     */
+    public static boolean pinCurrentThread(final CpuSet cpus) {
+        if (!isSupported() || cpus == null || cpus.isEmpty()) {
+            return false;
+        }
+        final CpuSet allowedCpus = cpus.intersect(ALLOWED_CPUS);
+        if (allowedCpus.isEmpty()) {
+            return false;
+        }
+        try {
+            return NATIVE.setAffinity(allowedCpus.toMask()) == 0;
+        } catch (final Throwable t) {
+            return false;
+        }
+    }
+
+    private static CpuSet readAllowedCpus() {
+        if (PROC_STATUS.exists()) {
+            try {
+                for (final String line : Files.readAllLines(PROC_STATUS.toPath(), StandardCharsets.US_ASCII)) {
+                    if (line.startsWith(CPUS_ALLOWED_LIST)) {
+                        return CpuSet.parse(line.substring(CPUS_ALLOWED_LIST.length()));
+                    }
+                }
+            } catch (final IOException e) {
+                //fallback below
+            } catch (final IllegalArgumentException e) {
+                //fallback below
+            }
+        }
+        return CpuSet.ofAvailableProcessors();
+    }
+
+    private static NativeAffinity newNativeAffinity() {
+        if (!PROC_STATUS.exists()) {
+            return null;
+        }
+        try {
+            return new NativeAffinity();
+        } catch (final Throwable t) {
+            //JNA is not available or libc does not provide the function
+            return null;
+        }
+    }
+
+    /**
+     * Only loaded when JNA is available, so that it stays an optional dependency.
+     */
+    private static final class NativeAffinity {
+
+        private final Function function = NativeLibrary.getInstance("c").getFunction("sched_setaffinity");
+
+        private int setAffinity(final long[] mask) {
+            //pid 0 is the calling thread, size_t has the size of a native long on linux
+            return function.invokeInt(new Object[] { 0, new NativeLong(mask.length * 8L), mask });
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package de.invesdwin.util.concurrent.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Collects queue wait and run time histograms, counters and gauges of a named pool. Executors only create an instance
+ * when metrics are enabled, otherwise they skip the timestamps completely.
+ *
+ * The metrics are registered as an MXBean under the domain of this package and unregistered when the pool gets shut
+ * down.
+ */
+@ThreadSafe
+public class ExecutorMetrics implements ExecutorMetricsMXBean {
+
+    public static final String JMX_DOMAIN = ExecutorMetrics.class.getPackage().getName();
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private final String name;
+    private final IExecutorMetricsSource source;
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile long resetNanos = System.nanoTime();
+    @GuardedBy("this")
+    private ObjectName objectName;
+
+    public ExecutorMetrics(final String name, final IExecutorMetricsSource source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    /**
+     * Should be called when the task is submitted, the returned timestamp should be given to onStarted().
+     */
+    public long onSubmitted() {
+        submittedCount.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Returns the timestamp that should be given to onCompleted().
+     */
+    public long onStarted(final long submittedNanos) {
+        final long startedNanos = System.nanoTime();
+        queueWaitHistogram.record(startedNanos - submittedNanos);
+        return startedNanos;
+    }
+
+    public void onCompleted(final long startedNanos, final boolean failed) {
+        runTimeHistogram.record(System.nanoTime() - startedNanos);
+        completedCount.incrementAndGet();
+        if (failed) {
+            failedCount.incrementAndGet();
+        }
+    }
+
+    public void onRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWaitHistogram;
+    }
+
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return source.getActiveCount();
+    }
+
+    @Override
+    public long getPendingCount() {
+        return source.getPendingCount();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return source.getQueueSize();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return source.getPoolSize();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return source.getMaximumPoolSize();
+    }
+
+    @Override
+    public double getSaturation() {
+        final int maximumPoolSize = getMaximumPoolSize();
+        if (maximumPoolSize <= 0) {
+            return 0D;
+        }
+        return (double) getActiveCount() / maximumPoolSize;
+    }
+
+    @Override
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * The average rate since creation or the last reset.
+     */
+    @Override
+    public double getCompletedCountPerSecond() {
+        final long elapsedNanos = System.nanoTime() - resetNanos;
+        if (elapsedNanos <= 0) {
+            return 0D;
+        }
+        return completedCount.get() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public long getQueueWaitMeanNanos() {
+        return queueWaitHistogram.getMeanNanos();
+    }
+
+    @Override
+    public long getQueueWaitP50Nanos() {
+        return queueWaitHistogram.getValueAtPercentileNanos(50);
+    }
+
+    @Override
+    public long getQueueWaitP99Nanos() {
+        return queueWaitHistogram.getValueAtPercentileNanos(99);
+    }
+
+    @Override
+    public long getQueueWaitMaxNanos() {
+        return queueWaitHistogram.getMaxNanos();
+    }
+
+    @Override
+    public long getRunTimeMeanNanos() {
+        return runTimeHistogram.getMeanNanos();
+    }
+
+    @Override
+    public long getRunTimeP50Nanos() {
+        return runTimeHistogram.getValueAtPercentileNanos(50);
+    }
+
+    @Override
+    public long getRunTimeP99Nanos() {
+        return runTimeHistogram.getValueAtPercentileNanos(99);
+    }
+
+    @Override
+    public long getRunTimeMaxNanos() {
+        return runTimeHistogram.getMaxNanos();
+    }
+
+    @Override
+    public void reset() {
+        queueWaitHistogram.reset();
+        runTimeHistogram.reset();
+        submittedCount.set(0);
+        completedCount.set(0);
+        failedCount.set(0);
+        rejectedCount.set(0);
+        resetNanos = System.nanoTime();
+    }
+
+    public synchronized void registerMBean() {
+        if (objectName != null) {
+            return;
+        }
+        try {
+            final ObjectName newObjectName = new ObjectName(JMX_DOMAIN + ":type=" + ExecutorMetrics.class.getSimpleName()
+                    + ",name=" + ObjectName.quote(name) + ",id=" + IDS.incrementAndGet());
+            getMBeanServer().registerMBean(this, newObjectName);
+            objectName = newObjectName;
+        } catch (final JMException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            getMBeanServer().unregisterMBean(objectName);
+        } catch (final JMException e) {
+            throw Throwables.propagate(e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    public synchronized ObjectName getObjectName() {
+        return objectName;
+    }
+
+    private MBeanServer getMBeanServer() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": submitted=" + getSubmittedCount() + " completed=" + getCompletedCount() + " failed="
+                + getFailedCount() + " rejected=" + getRejectedCount() + " queueWait=[" + queueWaitHistogram
+                + "] runTime=[" + runTimeHistogram + "]";
+    }
+
+}
@@ -0,0 +1,53 @@
+package de.invesdwin.util.concurrent.metrics;
+
+/**
+ * Durations are given in nanoseconds.
+ */
+public interface ExecutorMetricsMXBean {
+
+    String getName();
+
+    int getActiveCount();
+
+    long getPendingCount();
+
+    int getQueueSize();
+
+    int getPoolSize();
+
+    int getMaximumPoolSize();
+
+    /**
+     * Active threads divided by the maximum pool size.
+     */
+    double getSaturation();
+
+    long getSubmittedCount();
+
+    long getCompletedCount();
+
+    long getFailedCount();
+
+    long getRejectedCount();
+
+    double getCompletedCountPerSecond();
+
+    long getQueueWaitMeanNanos();
+
+    long getQueueWaitP50Nanos();
+
+    long getQueueWaitP99Nanos();
+
+    long getQueueWaitMaxNanos();
+
+    long getRunTimeMeanNanos();
+
+    long getRunTimeP50Nanos();
+
+    long getRunTimeP99Nanos();
+
+    long getRunTimeMaxNanos();
+
+    void reset();
+
+}
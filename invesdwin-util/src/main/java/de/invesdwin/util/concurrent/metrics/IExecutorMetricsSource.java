@@ -0,0 +1,18 @@
+package de.invesdwin.util.concurrent.metrics;
+
+/**
+ * Provides the gauges of an executor that are read on demand instead of being recorded per task.
+ */
+public interface IExecutorMetricsSource {
+
+    int getActiveCount();
+
+    long getPendingCount();
+
+    int getQueueSize();
+
+    int getPoolSize();
+
+    int getMaximumPoolSize();
+
+}
@@ -0,0 +1,140 @@
+package de.invesdwin.util.concurrent.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.Duration;
+
+/**
+ * A lock-free histogram of nanosecond values with logarithmic buckets in the spirit of HdrHistogram. Each power of two
+ * is divided into 16 linear sub buckets, so values are recorded with a relative precision of about 6% while the whole
+ * range of long values fits into less than 1000 counters.
+ *
+ * Recording only does a few atomic increments. Reading is not atomic across buckets, so concurrent recordings might be
+ * partially visible in the statistics.
+ */
+@ThreadSafe
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+    private static final int BUCKET_COUNT = (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + LINEAR_LIMIT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max) {
+            if (maxNanos.compareAndSet(max, value)) {
+                break;
+            }
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getMeanNanos() {
+        final long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return totalNanos.get() / count;
+    }
+
+    /**
+     * Returns the highest value that is equivalent to the value at the given percentile (0-100).
+     */
+    public long getValueAtPercentileNanos(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile should be between 0 and 100: " + percentile);
+        }
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long targetCount = Math.max(1, (long) Math.ceil(percentile / 100D * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += counts.get(i);
+            if (cumulativeCount >= targetCount) {
+                return Math.min(bucketUpperBound(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public Duration getMean() {
+        return new Duration(getMeanNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public Duration getMax() {
+        return new Duration(getMaxNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public Duration getValueAtPercentile(final double percentile) {
+        return new Duration(getValueAtPercentileNanos(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift);
+        return shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        final long upperBound = ((subBucket + 1) << shift) - 1;
+        if (upperBound < 0) {
+            return Long.MAX_VALUE;
+        }
+        return upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + " mean=" + getMean() + " p50=" + getValueAtPercentile(50) + " p99="
+                + getValueAtPercentile(99) + " max=" + getMax();
+    }
+
+}
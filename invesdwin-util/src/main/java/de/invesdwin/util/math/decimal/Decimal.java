@@ -6,9 +6,10 @@ import java.util.List;
 
 import javax.annotation.concurrent.Immutable;
 
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
 import de.invesdwin.util.math.decimal.internal.impl.ADecimalImpl;
-import de.invesdwin.util.math.decimal.internal.impl.DoubleDecimalImplFactory;
 import de.invesdwin.util.math.decimal.internal.impl.IDecimalImplFactory;
+import de.invesdwin.util.math.decimal.internal.impl.PrimitiveDoubleDecimalImplFactory;
 
 @Immutable
 public class Decimal extends ADecimal<Decimal> {
@@ -31,10 +32,10 @@ public class Decimal extends ADecimal<Decimal> {
 
     static {
         /*
-         * double is the fastest implementation, thus defaulting to that. The other ones are still there for comparison
-         * purposes.
+         * primitive double is the fastest implementation, thus defaulting to that. The other ones are still there for
+         * comparison purposes.
          */
-        DECIMAL_IMPL_FACTORY = new DoubleDecimalImplFactory();
+        DECIMAL_IMPL_FACTORY = new PrimitiveDoubleDecimalImplFactory();
         MINUS_THREE = new Decimal("-3");
         MINUS_TWO = new Decimal("-2");
         MINUS_ONE = new Decimal("-1");
@@ -131,6 +132,13 @@ public class Decimal extends ADecimal<Decimal> {
         }
     }
 
+    /**
+     * Calculates the statistics in a single pass over the iterable without materializing it into a list.
+     */
+    public static <E extends ADecimal<E>> IDecimalAggregate<E> valueOf(final ICloseableIterable<? extends E> values) {
+        return new StreamingDecimalAggregate<E>(values);
+    }
+
     /**
      * Use default values of the scaled decimal instead!
      */
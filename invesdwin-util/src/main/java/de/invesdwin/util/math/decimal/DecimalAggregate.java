@@ -83,24 +83,23 @@ class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
     @Override
     public E avgWeightedDesc() {
         int sumOfWeights = 0;
-        Decimal sumOfWeightedValues = Decimal.ZERO;
+        final MutableDecimal sumOfWeightedValues = new MutableDecimal();
         for (int i = 0, weight = values.size(); i < values.size(); i++, weight--) {
-            final Decimal weightedValue = values.get(i).getDefaultValue().multiply(weight);
             sumOfWeights += weight;
-            sumOfWeightedValues = sumOfWeightedValues.add(weightedValue);
+            sumOfWeightedValues.fma(values.get(i), weight);
         }
-        return getConverter().fromDefaultValue(sumOfWeightedValues.divide(sumOfWeights));
+        return sumOfWeightedValues.divide(sumOfWeights).toDecimal(getConverter());
     }
 
     @Override
     public E sum() {
-        Decimal sum = Decimal.ZERO;
+        final MutableDecimal sum = new MutableDecimal();
         for (final E value : values) {
             if (value != null) {
-                sum = sum.add(value.getDefaultValue());
+                sum.add(value);
             }
         }
-        return getConverter().fromDefaultValue(sum);
+        return sum.toDecimal(getConverter());
     }
 
     /**
@@ -120,11 +119,11 @@ class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
      */
     @Override
     public E product() {
-        Decimal product = Decimal.ONE;
+        final MutableDecimal product = new MutableDecimal(1D);
         for (final E value : values) {
-            product = product.multiply(value.getDefaultValue());
+            product.multiply(value);
         }
-        return getConverter().fromDefaultValue(product);
+        return product.toDecimal(getConverter());
     }
 
     /**
@@ -178,12 +177,8 @@ class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
      */
     @Override
     public E standardDeviation() {
-        final E avg = avg();
-        Decimal sum = Decimal.ZERO;
-        for (final E value : values) {
-            sum = sum.add(value.subtract(avg).getDefaultValue().pow(2));
-        }
-        return getConverter().fromDefaultValue(sum.sqrt().divide(values.size() - 1));
+        final MutableDecimal sum = sumOfSquaredDeviations();
+        return sum.divide(values.size() - 1).sqrt().toDecimal(getConverter());
     }
 
     /**
@@ -191,12 +186,8 @@ class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
      */
     @Override
     public E variance() {
-        final E avg = avg();
-        Decimal sum = Decimal.ZERO;
-        for (final E value : values) {
-            sum = sum.add(value.subtract(avg).getDefaultValue().pow(2));
-        }
-        return getConverter().fromDefaultValue(sum.divide(values.size() - 1));
+        final MutableDecimal sum = sumOfSquaredDeviations();
+        return sum.divide(values.size() - 1).toDecimal(getConverter());
     }
 
     /**
@@ -206,12 +197,21 @@ class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
      */
     @Override
     public E sampleVariance() {
-        final E avg = avg();
-        Decimal sum = Decimal.ZERO;
+        final MutableDecimal sum = sumOfSquaredDeviations();
+        return sum.divide(values.size()).toDecimal(getConverter());
+    }
+
+    /**
+     * sum((x_i - x_quer)^2)
+     */
+    private MutableDecimal sumOfSquaredDeviations() {
+        final double avg = avg().getDefaultValue().doubleValue();
+        final MutableDecimal sum = new MutableDecimal();
         for (final E value : values) {
-            sum = sum.add(value.subtract(avg).getDefaultValue().pow(2));
+            final double deviation = value.getDefaultValue().doubleValue() - avg;
+            sum.fma(deviation, deviation);
         }
-        return getConverter().fromDefaultValue(sum.divide(values.size()));
+        return sum;
     }
 
     @Override
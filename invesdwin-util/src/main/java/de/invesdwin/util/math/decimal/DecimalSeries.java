@@ -0,0 +1,467 @@
+package de.invesdwin.util.math.decimal;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.decimal.kernel.DecimalKernels;
+
+/**
+ * A columnar series of decimals that is backed by a primitive double array instead of a list of decimal objects. This
+ * needs about a fifth of the memory and the loops over the array can be vectorized by the JIT.
+ *
+ * The values are stored as default values, like the arithmetic of AScaledDecimal works on them. The converter
+ * describes the type and scale of the decimals that are returned (e.g. a Percent in PercentScale.PERCENT).
+ *
+ * Null values are stored as NaN, which propagates into the aggregates except for min and max where they are skipped.
+ *
+ * The reductions run through the kernels of DecimalKernels.
+ */
+@Immutable
+public class DecimalSeries<E extends ADecimal<E>> implements IDecimalAggregate<E> {
+
+    private final E converter;
+    private final double[] values;
+
+    /**
+     * The array contains default values and is not copied, so it should not be modified afterwards.
+     * 
+     * @param converter
+     *            may only be null if the array is empty
+     */
+    public DecimalSeries(final E converter, final double[] values) {
+        if (converter == null && values.length > 0) {
+            throw new NullPointerException("converter should not be null for a non empty series");
+        }
+        this.converter = converter;
+        this.values = values;
+    }
+
+    /**
+     * The first non null value is used as the converter.
+     */
+    public static <E extends ADecimal<E>> DecimalSeries<E> valueOf(final List<? extends E> values) {
+        E converter = null;
+        for (final E value : values) {
+            if (value != null) {
+                converter = value;
+                break;
+            }
+        }
+        return valueOf(converter, values);
+    }
+
+    /**
+     * The converter may have a different scale than the values.
+     */
+    public static <E extends ADecimal<E>> DecimalSeries<E> valueOf(final E converter, final List<? extends E> values) {
+        final double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            final E value = values.get(i);
+            if (value == null) {
+                array[i] = Double.NaN;
+            } else {
+                array[i] = value.getDefaultValue().doubleValue();
+            }
+        }
+        return new DecimalSeries<E>(converter, array);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public E getConverter() {
+        return converter;
+    }
+
+    /**
+     * Returns the default value.
+     */
+    public double getDouble(final int index) {
+        return values[index];
+    }
+
+    public E get(final int index) {
+        final double value = values[index];
+        if (Double.isNaN(value)) {
+            return (E) null;
+        }
+        return fromDefaultValue(value);
+    }
+
+    public double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    public List<E> toList() {
+        final List<E> list = new ArrayList<E>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    private E fromDefaultValue(final double value) {
+        return converter.fromDefaultValue(new Decimal(value));
+    }
+
+    private DecimalSeries<E> newSeries(final double[] newValues) {
+        return new DecimalSeries<E>(converter, newValues);
+    }
+
+    private void assertSameSize(final DecimalSeries<E> other) {
+        if (other.values.length != values.length) {
+            throw new IllegalArgumentException("Size [" + other.values.length + "] does not match [" + values.length
+                    + "]");
+        }
+    }
+
+    private double toDefaultValue(final E value) {
+        return value.getDefaultValue().doubleValue();
+    }
+
+    public DecimalSeries<E> add(final DecimalSeries<E> augend) {
+        assertSameSize(augend);
+        final double[] a = values;
+        final double[] b = augend.values;
+        final double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] + b[i];
+        }
+        return newSeries(result);
+    }
+
+    public DecimalSeries<E> add(final E augend) {
+        final double b = toDefaultValue(augend);
+        final double[] a = values;
+        final double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] + b;
+        }
+        return newSeries(result);
+    }
+
+    public DecimalSeries<E> subtract(final DecimalSeries<E> subtrahend) {
+        assertSameSize(subtrahend);
+        final double[] a = values;
+        final double[] b = subtrahend.values;
+        final double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] - b[i];
+        }
+        return newSeries(result);
+    }
+
+    public DecimalSeries<E> subtract(final E subtrahend) {
+        return add(subtrahend.negate());
+    }
+
+    public DecimalSeries<E> multiply(final DecimalSeries<E> multiplicant) {
+        assertSameSize(multiplicant);
+        final double[] a = values;
+        final double[] b = multiplicant.values;
+        final double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] * b[i];
+        }
+        return newSeries(result);
+    }
+
+    public DecimalSeries<E> multiply(final Number multiplicant) {
+        final double b = multiplicant.doubleValue();
+        final double[] a = values;
+        final double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] * b;
+        }
+        return newSeries(result);
+    }
+
+    /**
+     * Elements with a divisor of 0 result in 0, same as in ADecimal.divide().
+     */
+    public DecimalSeries<E> divide(final DecimalSeries<E> divisor) {
+        assertSameSize(divisor);
+        final double[] a = values;
+        final double[] b = divisor.values;
+        final double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++) {
+            if (b[i] != 0D) {
+                result[i] = a[i] / b[i];
+            }
+        }
+        return newSeries(result);
+    }
+
+    /**
+     * If the divisor is 0, 0 is returned, same as in ADecimal.divide().
+     */
+    public DecimalSeries<E> divide(final Number divisor) {
+        final double[] a = values;
+        final double[] result = new double[a.length];
+        if (divisor == null) {
+            return newSeries(result);
+        }
+        final double b = divisor.doubleValue();
+        if (b != 0D) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = a[i] / b;
+            }
+        }
+        return newSeries(result);
+    }
+
+    /**
+     * All growth rates separately
+     */
+    @Override
+    public DecimalSeries<E> growthRates() {
+        final double[] result = new double[Math.max(0, values.length - 1)];
+        DecimalKernels.getInstance().growthRates(values, result);
+        return newSeries(result);
+    }
+
+    /**
+     * The average of all growthRates.
+     */
+    @Override
+    public E growthRate() {
+        return growthRates().avg();
+    }
+
+    /**
+     * The growthRate of the growthRates.
+     */
+    @Override
+    public E growthRatesTrend() {
+        return growthRates().growthRate();
+    }
+
+    @Override
+    public DecimalSeries<E> reverse() {
+        final double[] result = new double[values.length];
+        for (int i = 0, j = values.length - 1; i < result.length; i++, j--) {
+            result[i] = values[j];
+        }
+        return newSeries(result);
+    }
+
+    /**
+     * Returns a weighted average where the first value has the least weight and the last value has the highest weight.
+     */
+    @Override
+    public E avgWeightedAsc() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        double sumOfWeightedValues = 0D;
+        for (int i = 0; i < values.length; i++) {
+            sumOfWeightedValues += values[i] * (i + 1);
+        }
+        final double sumOfWeights = values.length * (values.length + 1L) / 2D;
+        return fromDefaultValue(sumOfWeightedValues / sumOfWeights);
+    }
+
+    /**
+     * Returns a weighted average where the first value has the highest weight and the last value has the least weight.
+     */
+    @Override
+    public E avgWeightedDesc() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        double sumOfWeightedValues = 0D;
+        for (int i = 0; i < values.length; i++) {
+            sumOfWeightedValues += values[i] * (values.length - i);
+        }
+        final double sumOfWeights = values.length * (values.length + 1L) / 2D;
+        return fromDefaultValue(sumOfWeightedValues / sumOfWeights);
+    }
+
+    private double sumDouble() {
+        return DecimalKernels.getInstance().sum(values);
+    }
+
+    @Override
+    public E sum() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        return fromDefaultValue(sumDouble());
+    }
+
+    /**
+     * x_quer = (x_1 + x_2 + ... + x_n) / n
+     */
+    @Override
+    public E avg() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        return fromDefaultValue(sumDouble() / values.length);
+    }
+
+    /**
+     * Product = x_1 * x_2 * ... * x_n
+     */
+    @Override
+    public E product() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        return fromDefaultValue(DecimalKernels.getInstance().product(values));
+    }
+
+    /**
+     * x_quer = (x_1 * x_2 * ... * x_n)^1/n
+     */
+    @Override
+    public E geomAvg() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        double logSum = 0D;
+        for (int i = 0; i < values.length; i++) {
+            logSum += Math.log(values[i]);
+        }
+        return fromDefaultValue(Math.exp(logSum / values.length));
+    }
+
+    @Override
+    public E max() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        final int index = DecimalKernels.getInstance().indexOfMax(values);
+        if (index < 0) {
+            return (E) null;
+        }
+        return get(index);
+    }
+
+    @Override
+    public E min() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        final int index = DecimalKernels.getInstance().indexOfMin(values);
+        if (index < 0) {
+            return (E) null;
+        }
+        return get(index);
+    }
+
+    /**
+     * sum((x_i - x_quer)^2)
+     */
+    private double sumOfSquaredDeviations() {
+        final double avg = sumDouble() / values.length;
+        return DecimalKernels.getInstance().sumOfSquaredDeviations(values, avg);
+    }
+
+    /**
+     * A single value has n - 1 = 0, which results in 0 like ADecimal.divide() does.
+     */
+    private double unbiasedVariance() {
+        if (values.length == 1) {
+            return 0D;
+        }
+        return sumOfSquaredDeviations() / (values.length - 1);
+    }
+
+    /**
+     * s = (1/(n-1) * sum((x_i - x_quer)^2))^1/2
+     */
+    @Override
+    public E standardDeviation() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        return fromDefaultValue(Math.sqrt(unbiasedVariance()));
+    }
+
+    /**
+     * s^2 = 1/(n-1) * sum((x_i - x_quer)^2)
+     */
+    @Override
+    public E variance() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        return fromDefaultValue(unbiasedVariance());
+    }
+
+    /**
+     * s^2 = 1/(n) * sum((x_i - x_quer)^2)
+     */
+    @Override
+    public E sampleVariance() {
+        if (values.length == 0) {
+            return (E) null;
+        }
+        return fromDefaultValue(sumOfSquaredDeviations() / values.length);
+    }
+
+    @Override
+    public List<? extends E> values() {
+        return Collections.unmodifiableList(toList());
+    }
+
+    @Override
+    public DecimalSeries<E> round() {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE);
+    }
+
+    @Override
+    public DecimalSeries<E> round(final RoundingMode roundingMode) {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE, roundingMode);
+    }
+
+    @Override
+    public DecimalSeries<E> round(final int scale) {
+        return round(scale, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public DecimalSeries<E> round(final int scale, final RoundingMode roundingMode) {
+        final double[] result = new double[values.length];
+        for (int i = 0; i < result.length; i++) {
+            final E value = get(i);
+            if (value == null) {
+                result[i] = Double.NaN;
+            } else {
+                result[i] = toDefaultValue(value.round(scale, roundingMode));
+            }
+        }
+        return newSeries(result);
+    }
+
+    @Override
+    public DecimalSeries<E> roundToStep(final E step) {
+        return roundToStep(step, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public DecimalSeries<E> roundToStep(final E step, final RoundingMode roundingMode) {
+        final double[] result = new double[values.length];
+        for (int i = 0; i < result.length; i++) {
+            final E value = get(i);
+            if (value == null) {
+                result[i] = Double.NaN;
+            } else {
+                result[i] = toDefaultValue(value.roundToStep(step, roundingMode));
+            }
+        }
+        return newSeries(result);
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+
+}
@@ -0,0 +1,131 @@
+package de.invesdwin.util.math.decimal;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A mutable accumulator for sums and products that would otherwise allocate new Decimal instances for each step. The
+ * value is kept as a double in the default scale, like the default decimal implementation does, and is only converted
+ * back to a Decimal or AScaledDecimal at the end.
+ */
+@NotThreadSafe
+public class MutableDecimal {
+
+    private double value;
+
+    public MutableDecimal() {
+        this(0D);
+    }
+
+    public MutableDecimal(final double value) {
+        this.value = value;
+    }
+
+    public MutableDecimal(final ADecimal<?> value) {
+        this(toDouble(value));
+    }
+
+    public MutableDecimal set(final double value) {
+        this.value = value;
+        return this;
+    }
+
+    public MutableDecimal set(final ADecimal<?> value) {
+        return set(toDouble(value));
+    }
+
+    public MutableDecimal add(final double augend) {
+        value += augend;
+        return this;
+    }
+
+    public MutableDecimal add(final ADecimal<?> augend) {
+        return add(toDouble(augend));
+    }
+
+    public MutableDecimal subtract(final double subtrahend) {
+        value -= subtrahend;
+        return this;
+    }
+
+    public MutableDecimal subtract(final ADecimal<?> subtrahend) {
+        return subtract(toDouble(subtrahend));
+    }
+
+    public MutableDecimal multiply(final double multiplicant) {
+        value *= multiplicant;
+        return this;
+    }
+
+    public MutableDecimal multiply(final ADecimal<?> multiplicant) {
+        return multiply(toDouble(multiplicant));
+    }
+
+    /**
+     * If the divisor is 0, 0 is returned, like ADecimal.divide() does.
+     */
+    public MutableDecimal divide(final double divisor) {
+        if (divisor == 0D) {
+            value = 0D;
+        } else {
+            value /= divisor;
+        }
+        return this;
+    }
+
+    public MutableDecimal divide(final ADecimal<?> divisor) {
+        if (divisor == null) {
+            return divide(0D);
+        }
+        return divide(toDouble(divisor));
+    }
+
+    /**
+     * Adds the product of both factors: value = value + a * b
+     */
+    public MutableDecimal fma(final double a, final double b) {
+        value += a * b;
+        return this;
+    }
+
+    public MutableDecimal fma(final ADecimal<?> a, final ADecimal<?> b) {
+        return fma(toDouble(a), toDouble(b));
+    }
+
+    public MutableDecimal fma(final ADecimal<?> a, final double b) {
+        return fma(toDouble(a), b);
+    }
+
+    public MutableDecimal sqrt() {
+        value = Math.sqrt(value);
+        return this;
+    }
+
+    public MutableDecimal reset() {
+        return set(0D);
+    }
+
+    public double doubleValue() {
+        return value;
+    }
+
+    public Decimal toDecimal() {
+        return new Decimal(value);
+    }
+
+    /**
+     * Converts the value from the default scale into the type and scale of the converter.
+     */
+    public <E extends ADecimal<E>> E toDecimal(final E converter) {
+        return converter.fromDefaultValue(toDecimal());
+    }
+
+    private static double toDouble(final ADecimal<?> value) {
+        return value.getDefaultValue().doubleValue();
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toString();
+    }
+
+}
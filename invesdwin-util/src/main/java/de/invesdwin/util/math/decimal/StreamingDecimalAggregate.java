@@ -0,0 +1,355 @@
+package de.invesdwin.util.math.decimal;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.error.Throwables;
+
+/**
+ * Computes all statistics in a single pass over the iterable without materializing it into a list. The variance is
+ * calculated with Welford's algorithm. The statistics are calculated on the first access and then cached.
+ *
+ * Only values(), growthRates(), reverse() and the rounding methods need the values as a list, they are materialized
+ * into a DecimalAggregate on first use. Calculating the statistics and materializing the values are separate passes, so
+ * the iterable gets iterated twice when both are needed and the statistics are requested first. Thus the iterable has to
+ * return the same values on each iteration. When the values are already materialized, the statistics are calculated
+ * from the list instead.
+ *
+ * Null values are skipped, though like in DecimalAggregate they are still counted for avg and geomAvg.
+ */
+@ThreadSafe
+class StreamingDecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
+
+    private final ICloseableIterable<? extends E> values;
+    private volatile Statistics<E> statistics;
+    private volatile IDecimalAggregate<E> materialized;
+
+    StreamingDecimalAggregate(final ICloseableIterable<? extends E> values) {
+        this.values = values;
+    }
+
+    private Statistics<E> getStatistics() {
+        if (statistics == null) {
+            final Statistics<E> newStatistics = new Statistics<E>();
+            final IDecimalAggregate<E> materializedCopy = materialized;
+            if (materializedCopy != null) {
+                for (final E value : materializedCopy.values()) {
+                    newStatistics.add(value);
+                }
+            } else {
+                final ICloseableIterator<? extends E> iterator = values.iterator();
+                try {
+                    while (iterator.hasNext()) {
+                        newStatistics.add(iterator.next());
+                    }
+                } finally {
+                    close(iterator);
+                }
+            }
+            statistics = newStatistics;
+        }
+        return statistics;
+    }
+
+    private IDecimalAggregate<E> getMaterialized() {
+        if (materialized == null) {
+            final List<E> list = new ArrayList<E>();
+            final ICloseableIterator<? extends E> iterator = values.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    list.add(iterator.next());
+                }
+            } finally {
+                close(iterator);
+            }
+            if (list.isEmpty()) {
+                materialized = DummyDecimalAggregate.getInstance();
+            } else {
+                materialized = new DecimalAggregate<E>(list);
+            }
+        }
+        return materialized;
+    }
+
+    private static void close(final ICloseableIterator<?> iterator) {
+        try {
+            iterator.close();
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @Override
+    public IDecimalAggregate<E> growthRates() {
+        return getMaterialized().growthRates();
+    }
+
+    @Override
+    public E growthRate() {
+        final Statistics<E> s = getStatistics();
+        if (s.growthRateCount == 0) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.growthRateSum / s.growthRateCount);
+    }
+
+    @Override
+    public E growthRatesTrend() {
+        final Statistics<E> s = getStatistics();
+        if (s.growthRateTrendCount == 0) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.growthRateTrendSum / s.growthRateTrendCount);
+    }
+
+    @Override
+    public IDecimalAggregate<E> reverse() {
+        return getMaterialized().reverse();
+    }
+
+    /**
+     * The weights are 1 to n, so sum(i * x_i) / sum(i).
+     */
+    @Override
+    public E avgWeightedAsc() {
+        final Statistics<E> s = getStatistics();
+        if (s.count == 0) {
+            return (E) null;
+        }
+        final double sumOfWeights = s.count * (s.count + 1) / 2D;
+        return s.fromDefaultValue(s.indexWeightedSum / sumOfWeights);
+    }
+
+    /**
+     * The weights are n to 1, so sum((n + 1 - i) * x_i) / sum(i), which can be calculated from the ascending weights.
+     */
+    @Override
+    public E avgWeightedDesc() {
+        final Statistics<E> s = getStatistics();
+        if (s.count == 0) {
+            return (E) null;
+        }
+        final double sumOfWeights = s.count * (s.count + 1) / 2D;
+        return s.fromDefaultValue(((s.count + 1) * s.sum - s.indexWeightedSum) / sumOfWeights);
+    }
+
+    @Override
+    public E sum() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.sum);
+    }
+
+    @Override
+    public E avg() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.sum / s.count);
+    }
+
+    @Override
+    public E product() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.product);
+    }
+
+    @Override
+    public E geomAvg() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(Math.exp(s.logSum / s.count));
+    }
+
+    @Override
+    public E max() {
+        return getStatistics().max;
+    }
+
+    @Override
+    public E min() {
+        return getStatistics().min;
+    }
+
+    /**
+     * s = (1/(n-1) * sum((x_i - x_quer)^2))^1/2
+     */
+    @Override
+    public E standardDeviation() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(Math.sqrt(s.getVariance()));
+    }
+
+    /**
+     * s^2 = 1/(n-1) * sum((x_i - x_quer)^2)
+     */
+    @Override
+    public E variance() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.getVariance());
+    }
+
+    /**
+     * s^2 = 1/(n) * sum((x_i - x_quer)^2)
+     */
+    @Override
+    public E sampleVariance() {
+        final Statistics<E> s = getStatistics();
+        if (s.converter == null) {
+            return (E) null;
+        }
+        return s.fromDefaultValue(s.m2 / s.nonNullCount);
+    }
+
+    @Override
+    public List<? extends E> values() {
+        return getMaterialized().values();
+    }
+
+    @Override
+    public IDecimalAggregate<E> round() {
+        return getMaterialized().round();
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final RoundingMode roundingMode) {
+        return getMaterialized().round(roundingMode);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale) {
+        return getMaterialized().round(scale);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale, final RoundingMode roundingMode) {
+        return getMaterialized().round(scale, roundingMode);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step) {
+        return getMaterialized().roundToStep(step);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step, final RoundingMode roundingMode) {
+        return getMaterialized().roundToStep(step, roundingMode);
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+
+    @NotThreadSafe
+    private static final class Statistics<E extends ADecimal<E>> {
+
+        private E converter;
+        private long count;
+        private long nonNullCount;
+        private double sum;
+        private double indexWeightedSum;
+        private double product = 1D;
+        private double mean;
+        private double m2;
+        private double logSum;
+        private E min;
+        private double minDouble;
+        private E max;
+        private double maxDouble;
+        private double previousValue = Double.NaN;
+        private double previousGrowthRate = Double.NaN;
+        private double growthRateSum;
+        private long growthRateCount;
+        private double growthRateTrendSum;
+        private long growthRateTrendCount;
+
+        private void add(final E value) {
+            count++;
+            if (value == null) {
+                return;
+            }
+            if (converter == null) {
+                converter = value;
+            }
+            nonNullCount++;
+            final double x = value.getDefaultValue().doubleValue();
+            sum += x;
+            indexWeightedSum += count * x;
+            product *= x;
+            //Welford
+            final double delta = x - mean;
+            mean += delta / nonNullCount;
+            m2 += delta * (x - mean);
+            if (min == null || x < minDouble) {
+                min = value;
+                minDouble = x;
+            }
+            if (max == null || x > maxDouble) {
+                max = value;
+                maxDouble = x;
+            }
+            logSum += Math.log(x);
+            if (!Double.isNaN(previousValue)) {
+                final double growthRate = growthRate(previousValue, x);
+                growthRateSum += growthRate;
+                growthRateCount++;
+                if (!Double.isNaN(previousGrowthRate)) {
+                    growthRateTrendSum += growthRate(previousGrowthRate, growthRate);
+                    growthRateTrendCount++;
+                }
+                previousGrowthRate = growthRate;
+            }
+            previousValue = x;
+        }
+
+        /**
+         * A single value has n - 1 = 0, which results in 0 like ADecimal.divide() does.
+         */
+        private double getVariance() {
+            final long divisor = nonNullCount - 1;
+            if (divisor == 0) {
+                return 0D;
+            }
+            return m2 / divisor;
+        }
+
+        /**
+         * Same as ADecimal.growthRate(), thus a previous value of 0 results in 0.
+         */
+        private static double growthRate(final double previous, final double next) {
+            final double divisor = Math.abs(previous);
+            if (divisor == 0D) {
+                return 0D;
+            }
+            return (next - previous) / divisor;
+        }
+
+        private E fromDefaultValue(final double value) {
+            return converter.fromDefaultValue(new Decimal(value));
+        }
+
+    }
+
+}
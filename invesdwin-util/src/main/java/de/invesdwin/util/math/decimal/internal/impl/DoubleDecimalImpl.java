@@ -165,12 +165,19 @@ public class DoubleDecimalImpl extends ADecimalImpl<DoubleDecimalImpl, Double> {
 
     @Override
     protected Double internalRound(final Double value, final int scale, final RoundingMode roundingMode) {
+        return round(value, scale, roundingMode);
+    }
+
+    /**
+     * Shared with PrimitiveDoubleDecimalImpl so that both round the same way.
+     */
+    static double round(final double value, final int scale, final RoundingMode roundingMode) {
         final long factor = (long) Math.pow(10, scale);
         final double toBeRoundedValue;
         if (scale < Decimal.DEFAULT_ROUNDING_SCALE && roundingMode != Decimal.DEFAULT_ROUNDING_MODE) {
             //fix 1 represented as 0.9999999 becoming 0 here instead of correctly being 1; for instance in FLOOR rounding mode
-            toBeRoundedValue = internalRound(value, scale + Decimal.DEFAULT_ROUNDING_SCALE,
-                    Decimal.DEFAULT_ROUNDING_MODE) * factor;
+            toBeRoundedValue = round(value, scale + Decimal.DEFAULT_ROUNDING_SCALE, Decimal.DEFAULT_ROUNDING_MODE)
+                    * factor;
         } else {
             toBeRoundedValue = value * factor;
         }
@@ -0,0 +1,245 @@
+package de.invesdwin.util.math.decimal.internal.impl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.math3.dfp.Dfp;
+
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.Decimal;
+
+/**
+ * Same semantics as DoubleDecimalImpl, but the value and the default rounded value are stored as primitive doubles.
+ * Thus arithmetic does not box, and the default rounding is only done when the value is compared, hashed or printed.
+ *
+ * The value of the super class is not used, it is always set to a shared constant.
+ */
+@ThreadSafe
+public class PrimitiveDoubleDecimalImpl extends ADecimalImpl<PrimitiveDoubleDecimalImpl, Double> {
+
+    private static final Double ZERO = 0d;
+    private static final long ZERO_BITS = Double.doubleToLongBits(0d);
+
+    private final double value;
+    /**
+     * NaN means not rounded yet, rounding a NaN value just gets repeated.
+     */
+    @GuardedBy("none for performance")
+    private double defaultRoundedValue;
+
+    public PrimitiveDoubleDecimalImpl(final double value) {
+        this(value, Double.NaN);
+    }
+
+    public PrimitiveDoubleDecimalImpl(final double value, final double defaultRoundedValue) {
+        super(ZERO, ZERO);
+        this.value = value;
+        this.defaultRoundedValue = defaultRoundedValue;
+    }
+
+    private double getDefaultRoundedDouble() {
+        double rounded = defaultRoundedValue;
+        if (Double.isNaN(rounded)) {
+            rounded = DoubleDecimalImpl.round(value, Decimal.DEFAULT_ROUNDING_SCALE, Decimal.DEFAULT_ROUNDING_MODE);
+            defaultRoundedValue = rounded;
+        }
+        return rounded;
+    }
+
+    @Override
+    public boolean isZero() {
+        //same as Double.equals, so -0 is not zero
+        return Double.doubleToLongBits(getDefaultRoundedDouble()) == ZERO_BITS;
+    }
+
+    @Override
+    public boolean isPositive() {
+        return getDefaultRoundedDouble() >= 0d;
+    }
+
+    @Override
+    public int hashCode() {
+        //same as Double.hashCode
+        final long bits = Double.doubleToLongBits(getDefaultRoundedDouble());
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    protected int internalCompareTo(final ADecimal<?> defaultRoundedOther) {
+        return Double.compare(getDefaultRoundedDouble(), defaultRoundedOther.doubleValue());
+    }
+
+    @Override
+    public String internalToString() {
+        final NumberFormat format = NumberFormat.getNumberInstance(Locale.ENGLISH);
+        format.setMaximumFractionDigits(MathContext.DECIMAL128.getPrecision());
+        format.setRoundingMode(Decimal.DEFAULT_ROUNDING_MODE);
+        format.setGroupingUsed(false);
+        return format.format(getDefaultRoundedDouble());
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl round(final int scale, final RoundingMode roundingMode) {
+        if (roundingMode == RoundingMode.UNNECESSARY) {
+            return this;
+        }
+        final double rounded;
+        if (scale == Decimal.DEFAULT_ROUNDING_SCALE && roundingMode == Decimal.DEFAULT_ROUNDING_MODE) {
+            rounded = getDefaultRoundedDouble();
+        } else {
+            rounded = DoubleDecimalImpl.round(value, scale, roundingMode);
+        }
+        return new PrimitiveDoubleDecimalImpl(rounded, rounded);
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl scaleByPowerOfTen(final int n) {
+        return multiply(Math.pow(10, n));
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) value;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public byte byteValue() {
+        return (byte) value;
+    }
+
+    @Override
+    public short shortValue() {
+        return (short) value;
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl abs() {
+        return new PrimitiveDoubleDecimalImpl(Math.abs(value));
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl root(final int n) {
+        final double log = Math.log(value);
+        final double result = Math.exp(log / n);
+        return new PrimitiveDoubleDecimalImpl(result);
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl sqrt() {
+        return new PrimitiveDoubleDecimalImpl(Math.sqrt(value));
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl pow(final int exponent) {
+        return new PrimitiveDoubleDecimalImpl(Math.pow(value, exponent));
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl subtract(final ADecimal<?> subtrahend) {
+        final double result = value - subtrahend.doubleValue();
+        return new PrimitiveDoubleDecimalImpl(result, result);
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl add(final ADecimal<?> augend) {
+        final double result = value + augend.doubleValue();
+        return new PrimitiveDoubleDecimalImpl(result, result);
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl multiply(final ADecimal<?> multiplicant) {
+        return new PrimitiveDoubleDecimalImpl(value * multiplicant.doubleValue());
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl multiply(final Number multiplicant) {
+        return new PrimitiveDoubleDecimalImpl(value * multiplicant.doubleValue());
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl divide(final ADecimal<?> divisor) {
+        return new PrimitiveDoubleDecimalImpl(value / divisor.doubleValue());
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl divide(final Number divisor) {
+        return new PrimitiveDoubleDecimalImpl(value / divisor.doubleValue());
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl remainder(final ADecimal<?> divisor) {
+        return new PrimitiveDoubleDecimalImpl(value % divisor.doubleValue());
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl remainder(final Number divisor) {
+        return new PrimitiveDoubleDecimalImpl(value % divisor.doubleValue());
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+        return BigDecimalDecimalImplFactory.toBigDecimal(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return bigDecimalValue().toBigInteger();
+    }
+
+    @Override
+    public Dfp dfpValue() {
+        return DfpDecimalImplFactory.toDfp(value);
+    }
+
+    @Override
+    protected Double internalRound(final Double value, final int scale, final RoundingMode roundingMode) {
+        return DoubleDecimalImpl.round(value, scale, roundingMode);
+    }
+
+    @Override
+    protected Double getZero() {
+        return ZERO;
+    }
+
+    @Override
+    protected PrimitiveDoubleDecimalImpl newValueCopy(final Double value, final Double defaultRoundedValue) {
+        if (defaultRoundedValue == null) {
+            return new PrimitiveDoubleDecimalImpl(value);
+        } else {
+            return new PrimitiveDoubleDecimalImpl(value, defaultRoundedValue);
+        }
+    }
+
+    @Override
+    protected PrimitiveDoubleDecimalImpl getGenericThis() {
+        return this;
+    }
+
+    @Override
+    public Number numberValue() {
+        return value;
+    }
+
+}
@@ -0,0 +1,31 @@
+package de.invesdwin.util.math.decimal.internal.impl;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Same as DoubleDecimalImplFactory, but without boxing inside the implementation.
+ */
+@Immutable
+public class PrimitiveDoubleDecimalImplFactory implements IDecimalImplFactory<PrimitiveDoubleDecimalImpl> {
+
+    @Override
+    public PrimitiveDoubleDecimalImpl valueOf(final Number value) {
+        final double doubleValue = value.doubleValue();
+        return new PrimitiveDoubleDecimalImpl(doubleValue, doubleValue);
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl valueOf(final Double value) {
+        if (value == null) {
+            return new PrimitiveDoubleDecimalImpl(0d, 0d);
+        }
+        return new PrimitiveDoubleDecimalImpl(value, value);
+    }
+
+    @Override
+    public PrimitiveDoubleDecimalImpl valueOf(final String value) {
+        final double valueOf = Double.parseDouble(value);
+        return new PrimitiveDoubleDecimalImpl(valueOf, valueOf);
+    }
+
+}
@@ -0,0 +1,33 @@
+package de.invesdwin.util.math.decimal.kernel;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+
+/**
+ * Holds the kernels that are used by DecimalSeries. The scalar kernels are the default, since their results are bit for
+ * bit the same as with a loop over the decimals. The unrolled kernels can be switched on at runtime when throughput
+ * matters more than equality with DecimalAggregate. A module that provides vectorized kernels (e.g. via the Vector API
+ * on newer JDKs) can install them here on startup.
+ */
+@ThreadSafe
+public final class DecimalKernels {
+
+    private static volatile IDecimalKernels instance = ScalarDecimalKernels.INSTANCE;
+
+    private DecimalKernels() {}
+
+    public static IDecimalKernels getInstance() {
+        return instance;
+    }
+
+    public static void setInstance(final IDecimalKernels instance) {
+        Assertions.assertThat(instance).isNotNull();
+        DecimalKernels.instance = instance;
+    }
+
+    public static void resetInstance() {
+        setInstance(ScalarDecimalKernels.INSTANCE);
+    }
+
+}
@@ -0,0 +1,33 @@
+package de.invesdwin.util.math.decimal.kernel;
+
+/**
+ * The loops that DecimalSeries runs over its primitive values. Implementations may reorder the floating point
+ * operations, but the results have to match within Decimal.DEFAULT_ROUNDING_SCALE.
+ */
+public interface IDecimalKernels {
+
+    double sum(double[] values);
+
+    double product(double[] values);
+
+    /**
+     * NaN values are skipped, returns -1 if there are only NaN values.
+     */
+    int indexOfMin(double[] values);
+
+    /**
+     * NaN values are skipped, returns -1 if there are only NaN values.
+     */
+    int indexOfMax(double[] values);
+
+    /**
+     * sum((x_i - mean)^2)
+     */
+    double sumOfSquaredDeviations(double[] values, double mean);
+
+    /**
+     * result[i] = (values[i + 1] - values[i]) / |values[i]|, or 0 if values[i] is 0 (same as ADecimal.divide)
+     */
+    void growthRates(double[] values, double[] result);
+
+}
@@ -0,0 +1,80 @@
+package de.invesdwin.util.math.decimal.kernel;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Straight loops that add up the values in order, so the results are the same as with a loop over the decimals.
+ */
+@Immutable
+public class ScalarDecimalKernels implements IDecimalKernels {
+
+    public static final ScalarDecimalKernels INSTANCE = new ScalarDecimalKernels();
+
+    protected ScalarDecimalKernels() {}
+
+    @Override
+    public double sum(final double[] values) {
+        double sum = 0D;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double product(final double[] values) {
+        double product = 1D;
+        for (int i = 0; i < values.length; i++) {
+            product *= values[i];
+        }
+        return product;
+    }
+
+    @Override
+    public int indexOfMin(final double[] values) {
+        int index = -1;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (!Double.isNaN(value) && (index < 0 || value < values[index])) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public int indexOfMax(final double[] values) {
+        int index = -1;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (!Double.isNaN(value) && (index < 0 || value > values[index])) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public double sumOfSquaredDeviations(final double[] values, final double mean) {
+        double sum = 0D;
+        for (int i = 0; i < values.length; i++) {
+            final double deviation = values[i] - mean;
+            sum += deviation * deviation;
+        }
+        return sum;
+    }
+
+    @Override
+    public void growthRates(final double[] values, final double[] result) {
+        for (int i = 0; i < result.length; i++) {
+            final double divisor = Math.abs(values[i]);
+            //same as ADecimal.divide: a zero divisor results in 0
+            if (divisor == 0D) {
+                result[i] = 0D;
+            } else {
+                result[i] = (values[i + 1] - values[i]) / divisor;
+            }
+        }
+    }
+
+}
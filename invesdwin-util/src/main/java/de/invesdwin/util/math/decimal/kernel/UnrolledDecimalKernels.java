@@ -0,0 +1,120 @@
+package de.invesdwin.util.math.decimal.kernel;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Splits the sums into four independent accumulators. This breaks the dependency chain between the iterations, so the
+ * cpu can pipeline the additions. Each accumulator is compensated (Kahan summation), so the results are more accurate
+ * than the in-order sum of the scalar kernels, but they are not bit for bit the same. For large sums the difference
+ * can be visible within Decimal.DEFAULT_ROUNDING_SCALE, thus these kernels have to be installed explicitly.
+ *
+ * Products are not reordered, since there is no cheap compensation for them.
+ */
+@Immutable
+public class UnrolledDecimalKernels extends ScalarDecimalKernels {
+
+    public static final UnrolledDecimalKernels INSTANCE = new UnrolledDecimalKernels();
+
+    private static final int LANES = 4;
+
+    protected UnrolledDecimalKernels() {}
+
+    @Override
+    public double sum(final double[] values) {
+        double sum0 = 0D;
+        double sum1 = 0D;
+        double sum2 = 0D;
+        double sum3 = 0D;
+        double compensation0 = 0D;
+        double compensation1 = 0D;
+        double compensation2 = 0D;
+        double compensation3 = 0D;
+        final int unrolledLength = values.length - values.length % LANES;
+        for (int i = 0; i < unrolledLength; i += LANES) {
+            final double y0 = values[i] - compensation0;
+            final double y1 = values[i + 1] - compensation1;
+            final double y2 = values[i + 2] - compensation2;
+            final double y3 = values[i + 3] - compensation3;
+            final double t0 = sum0 + y0;
+            final double t1 = sum1 + y1;
+            final double t2 = sum2 + y2;
+            final double t3 = sum3 + y3;
+            compensation0 = (t0 - sum0) - y0;
+            compensation1 = (t1 - sum1) - y1;
+            compensation2 = (t2 - sum2) - y2;
+            compensation3 = (t3 - sum3) - y3;
+            sum0 = t0;
+            sum1 = t1;
+            sum2 = t2;
+            sum3 = t3;
+        }
+        for (int i = unrolledLength; i < values.length; i++) {
+            final double y0 = values[i] - compensation0;
+            final double t0 = sum0 + y0;
+            compensation0 = (t0 - sum0) - y0;
+            sum0 = t0;
+        }
+        return combine(sum0, sum1, sum2, sum3, compensation0 + compensation1 + compensation2 + compensation3);
+    }
+
+    @Override
+    public double sumOfSquaredDeviations(final double[] values, final double mean) {
+        double sum0 = 0D;
+        double sum1 = 0D;
+        double sum2 = 0D;
+        double sum3 = 0D;
+        double compensation0 = 0D;
+        double compensation1 = 0D;
+        double compensation2 = 0D;
+        double compensation3 = 0D;
+        final int unrolledLength = values.length - values.length % LANES;
+        for (int i = 0; i < unrolledLength; i += LANES) {
+            final double deviation0 = values[i] - mean;
+            final double deviation1 = values[i + 1] - mean;
+            final double deviation2 = values[i + 2] - mean;
+            final double deviation3 = values[i + 3] - mean;
+            final double y0 = deviation0 * deviation0 - compensation0;
+            final double y1 = deviation1 * deviation1 - compensation1;
+            final double y2 = deviation2 * deviation2 - compensation2;
+            final double y3 = deviation3 * deviation3 - compensation3;
+            final double t0 = sum0 + y0;
+            final double t1 = sum1 + y1;
+            final double t2 = sum2 + y2;
+            final double t3 = sum3 + y3;
+            compensation0 = (t0 - sum0) - y0;
+            compensation1 = (t1 - sum1) - y1;
+            compensation2 = (t2 - sum2) - y2;
+            compensation3 = (t3 - sum3) - y3;
+            sum0 = t0;
+            sum1 = t1;
+            sum2 = t2;
+            sum3 = t3;
+        }
+        for (int i = unrolledLength; i < values.length; i++) {
+            final double deviation = values[i] - mean;
+            final double y0 = deviation * deviation - compensation0;
+            final double t0 = sum0 + y0;
+            compensation0 = (t0 - sum0) - y0;
+            sum0 = t0;
+        }
+        return combine(sum0, sum1, sum2, sum3, compensation0 + compensation1 + compensation2 + compensation3);
+    }
+
+    /**
+     * Adds up the lanes with compensation as well.
+     */
+    private static double combine(final double sum0, final double sum1, final double sum2, final double sum3,
+            final double compensation) {
+        final double y1 = sum1 - compensation;
+        final double t1 = sum0 + y1;
+        final double c1 = (t1 - sum0) - y1;
+        final double y2 = sum2 - c1;
+        final double t2 = t1 + y2;
+        final double c2 = (t2 - t1) - y2;
+        final double y3 = sum3 - c2;
+        final double t3 = t2 + y3;
+        final double c3 = (t3 - t2) - y3;
+        return t3 - c3;
+    }
+
+}
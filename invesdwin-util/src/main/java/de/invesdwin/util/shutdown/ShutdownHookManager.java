@@ -1,42 +1,73 @@
 package de.invesdwin.util.shutdown;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.Duration;
 
 /**
- * Registers an internal Thread as a ShutdownHook in the JVM that runs the given callback on shutdown.
- * 
+ * Registers a single internal Thread as a ShutdownHook in the JVM that runs the registered callbacks on shutdown. The
+ * registry is a concurrent map, so registering and unregistering hooks of short lived executors does not contend on a
+ * global lock or create a thread per hook.
+ *
+ * On shutdown the hooks are run in parallel. Hooks with a higher priority finish before hooks with a lower priority
+ * are started, and a hook is only started after the hooks it depends on have finished. A dependency is treated as if it
+ * had at least the priority of its dependents. The whole shutdown is limited
+ * by a global timeout, after which the remaining hooks are abandoned.
+ *
  * @author subes
  */
 @ThreadSafe
 public final class ShutdownHookManager {
 
     public static final ShutdownHookManager INSTANCE = new ShutdownHookManager();
-    @GuardedBy("INSTANCE")
-    private static final Map<IShutdownHook, ShutdownHookThread> REGISTERED_HOOKS = new HashMap<IShutdownHook, ShutdownHookThread>();
+    public static final int DEFAULT_PRIORITY = 0;
+    public static final Duration DEFAULT_SHUTDOWN_TIMEOUT = new Duration(30, TimeUnit.SECONDS);
+
+    private static final ConcurrentMap<IShutdownHook, Registration> REGISTERED_HOOKS = new ConcurrentHashMap<IShutdownHook, Registration>();
+    private static final AtomicLong REGISTRATION_SEQUENCE = new AtomicLong();
     private static volatile boolean shuttingDown;
+    private static volatile Duration shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    private static volatile int shutdownThreads = Runtime.getRuntime().availableProcessors() * 2;
 
     static {
-        /**
-         * At least one ShutdownHook is needed for the flag to be working.
-         */
-        register(new IShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(ShutdownHookManager.class.getSimpleName()) {
             @Override
-            public void shutdown() throws Exception {}
+            public void run() {
+                shuttingDown = true;
+                runHooks(new ArrayList<Registration>(REGISTERED_HOOKS.values()), shutdownTimeout);
+            }
         });
     }
 
     private ShutdownHookManager() {}
 
     /**
-     * Instead of using the linked hack, we use the ShutdownHookManager. The first started ShutdownHook sets this flag.
-     * There is always at least one ShutdownHook registered in the JVM.
-     * 
+     * Instead of using the linked hack, we use the ShutdownHookManager. The internal ShutdownHook sets this flag when
+     * it starts.
+     *
      * @see <a href="http://www.seropian.eu/2009/10/how-to-know-when-java-virtual-machine.html#answer">Hacky
      *      alternative</a>
      */
@@ -44,48 +75,239 @@ public final class ShutdownHookManager {
         return shuttingDown;
     }
 
+    public static Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public static void setShutdownTimeout(final Duration shutdownTimeout) {
+        Assertions.assertThat(shutdownTimeout).isNotNull();
+        ShutdownHookManager.shutdownTimeout = shutdownTimeout;
+    }
+
+    public static int getShutdownThreads() {
+        return shutdownThreads;
+    }
+
+    /**
+     * The maximum number of hooks that are run in parallel.
+     */
+    public static void setShutdownThreads(final int shutdownThreads) {
+        Assertions.assertThat(shutdownThreads).isGreaterThan(0);
+        ShutdownHookManager.shutdownThreads = shutdownThreads;
+    }
+
     public static void register(final IShutdownHook hook) {
-        synchronized (INSTANCE) {
-            final ShutdownHookThread thread = new ShutdownHookThread(hook);
-            Assertions.assertThat(REGISTERED_HOOKS.put(hook, thread))
-            .as("Hook [%s] has already been registered!", hook)
-            .isNull();
-            Runtime.getRuntime().addShutdownHook(thread);
+        register(hook, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Hooks with a higher priority are finished before hooks with a lower priority are started.
+     */
+    public static void register(final IShutdownHook hook, final int priority) {
+        register(hook, priority, Collections.<IShutdownHook> emptyList());
+    }
+
+    /**
+     * The hook is only started after the given hooks are finished. Dependencies that are not registered on shutdown
+     * are ignored.
+     */
+    public static void register(final IShutdownHook hook, final int priority,
+            final Collection<? extends IShutdownHook> dependencies) {
+        if (shuttingDown) {
+            throw new IllegalStateException("Shutdown in progress");
         }
+        final Registration registration = new Registration(hook, priority, dependencies,
+                REGISTRATION_SEQUENCE.incrementAndGet());
+        Assertions.assertThat(REGISTERED_HOOKS.putIfAbsent(hook, registration))
+                .as("Hook [%s] has already been registered!", hook)
+                .isNull();
     }
 
     public static void unregister(final IShutdownHook hook) {
-        synchronized (INSTANCE) {
-            final ShutdownHookThread removedThread = REGISTERED_HOOKS.remove(hook);
-            Assertions.assertThat(shuttingDown || removedThread != null)
-                    .as("Hook [%s] was never registered!", hook)
-                    .isTrue();
-            Assertions.assertThat(Runtime.getRuntime().removeShutdownHook(removedThread)).isTrue();
+        final Registration removed = REGISTERED_HOOKS.remove(hook);
+        Assertions.assertThat(shuttingDown || removed != null).as("Hook [%s] was never registered!", hook).isTrue();
+    }
+
+    public static int getRegisteredCount() {
+        return REGISTERED_HOOKS.size();
+    }
+
+    /**
+     * Returns false if the timeout was exceeded.
+     */
+    static boolean runHooks(final Collection<Registration> registrations, final Duration timeout) {
+        final long deadlineNanos = System.nanoTime() + timeout.longValue(TimeUnit.NANOSECONDS);
+        final List<Registration> ordered = order(registrations);
+        if (ordered.isEmpty()) {
+            return true;
+        }
+        final Map<IShutdownHook, CountDownLatch> finished = new IdentityHashMap<IShutdownHook, CountDownLatch>();
+        for (final Registration registration : ordered) {
+            finished.put(registration.hook, new CountDownLatch(1));
+        }
+        final Map<IShutdownHook, Integer> priorities = newEffectivePriorities(ordered);
+        final ExecutorService executor = newExecutor(Math.min(shutdownThreads, ordered.size()));
+        try {
+            for (int i = 0; i < ordered.size(); i++) {
+                final Registration registration = ordered.get(i);
+                final int priority = priorities.get(registration.hook);
+                /*
+                 * The ordered list is sorted by effective priority descending, so all hooks with a higher priority
+                 * come before this one. Dependencies that come after this one would form a cycle and are ignored.
+                 */
+                final List<CountDownLatch> prerequisites = new ArrayList<CountDownLatch>();
+                final Set<IShutdownHook> dependencies = Collections
+                        .newSetFromMap(new IdentityHashMap<IShutdownHook, Boolean>());
+                dependencies.addAll(registration.dependencies);
+                for (int j = 0; j < i; j++) {
+                    final IShutdownHook previous = ordered.get(j).hook;
+                    if (priorities.get(previous) > priority || dependencies.contains(previous)) {
+                        prerequisites.add(finished.get(previous));
+                    }
+                }
+                final CountDownLatch hookFinished = finished.get(registration.hook);
+                /*
+                 * The executor starts hooks in submission order and prerequisites are always submitted before, so
+                 * waiting for them inside the pool cannot deadlock.
+                 */
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (final CountDownLatch prerequisite : prerequisites) {
+                                final long remainingNanos = deadlineNanos - System.nanoTime();
+                                if (remainingNanos <= 0 || !prerequisite.await(remainingNanos, TimeUnit.NANOSECONDS)) {
+                                    return;
+                                }
+                            }
+                            registration.hook.shutdown();
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (final Throwable t) {
+                            final Thread currentThread = Thread.currentThread();
+                            currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, t);
+                        } finally {
+                            hookFinished.countDown();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            final long remainingNanos = deadlineNanos - System.nanoTime();
+            return remainingNanos > 0 && executor.awaitTermination(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * Is threadsafe via encapsulation.
-     * 
-     * @author subes
+     * Sorts by effective priority descending and registration order, then moves dependencies in front of their
+     * dependents. Dependencies that would form a cycle are ignored.
      */
-    @ThreadSafe
-    private static class ShutdownHookThread extends Thread {
-        private final IShutdownHook shutdownable;
+    static List<Registration> order(final Collection<Registration> registrations) {
+        final Map<IShutdownHook, Integer> priorities = newEffectivePriorities(registrations);
+        final List<Registration> sorted = new ArrayList<Registration>(registrations);
+        Collections.sort(sorted, new Comparator<Registration>() {
+            @Override
+            public int compare(final Registration o1, final Registration o2) {
+                final int priorityCompare = Integer.compare(priorities.get(o2.hook), priorities.get(o1.hook));
+                if (priorityCompare != 0) {
+                    return priorityCompare;
+                }
+                return Long.compare(o1.sequence, o2.sequence);
+            }
+        });
+        final Map<IShutdownHook, Registration> byHook = new HashMap<IShutdownHook, Registration>();
+        for (final Registration registration : sorted) {
+            byHook.put(registration.hook, registration);
+        }
+        final Set<Registration> ordered = new LinkedHashSet<Registration>();
+        final Set<Registration> visiting = new LinkedHashSet<Registration>();
+        for (final Registration registration : sorted) {
+            visit(registration, byHook, ordered, visiting);
+        }
+        return new ArrayList<Registration>(ordered);
+    }
 
-        public ShutdownHookThread(final IShutdownHook shutdownable) {
-            this.shutdownable = shutdownable;
+    /**
+     * A dependency gets at least the priority of its dependents. Otherwise a dependent would indirectly wait for all
+     * hooks with a priority between its own and the one of its dependency, even though they are unrelated.
+     */
+    private static Map<IShutdownHook, Integer> newEffectivePriorities(final Collection<Registration> registrations) {
+        final Map<IShutdownHook, Integer> priorities = new HashMap<IShutdownHook, Integer>();
+        for (final Registration registration : registrations) {
+            priorities.put(registration.hook, registration.priority);
         }
+        //priorities only increase up to the highest one, so this also terminates for cycles
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (final Registration registration : registrations) {
+                final int priority = priorities.get(registration.hook);
+                for (final IShutdownHook dependency : registration.dependencies) {
+                    final Integer dependencyPriority = priorities.get(dependency);
+                    if (dependencyPriority != null && dependencyPriority < priority) {
+                        priorities.put(dependency, priority);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return priorities;
+    }
 
-        @Override
-        public void run() {
-            shuttingDown = true;
-            try {
-                shutdownable.shutdown();
-            } catch (final Exception e) {
-                getUncaughtExceptionHandler().uncaughtException(this, e);
+    private static void visit(final Registration registration, final Map<IShutdownHook, Registration> byHook,
+            final Set<Registration> ordered, final Set<Registration> visiting) {
+        if (ordered.contains(registration) || !visiting.add(registration)) {
+            return;
+        }
+        for (final IShutdownHook dependency : registration.dependencies) {
+            final Registration dependencyRegistration = byHook.get(dependency);
+            if (dependencyRegistration != null) {
+                visit(dependencyRegistration, byHook, ordered, visiting);
             }
         }
+        visiting.remove(registration);
+        ordered.add(registration);
+    }
+
+    private static ExecutorService newExecutor(final int threads) {
+        final AtomicInteger threadIds = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        final Thread t = new Thread(r, ShutdownHookManager.class.getSimpleName() + "-"
+                                + threadIds.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        return executor;
+    }
+
+    @Immutable
+    static final class Registration {
+        private final IShutdownHook hook;
+        private final int priority;
+        private final List<IShutdownHook> dependencies;
+        private final long sequence;
+
+        Registration(final IShutdownHook hook, final int priority,
+                final Collection<? extends IShutdownHook> dependencies, final long sequence) {
+            Assertions.assertThat(hook).isNotNull();
+            this.hook = hook;
+            this.priority = priority;
+            this.dependencies = new ArrayList<IShutdownHook>(dependencies);
+            this.sequence = sequence;
+        }
+
+        IShutdownHook getHook() {
+            return hook;
+        }
     }
 
 }
@@ -0,0 +1,153 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@ThreadSafe
+public class AMergingIterableTest {
+
+    @Test
+    public void testMergeStable() {
+        final Random random = new Random(1);
+        final List<long[]> all = new ArrayList<long[]>();
+        final List<ICloseableIterable<long[]>> sources = new ArrayList<ICloseableIterable<long[]>>();
+        for (int source = 0; source < 20; source++) {
+            final List<long[]> elements = new ArrayList<long[]>();
+            long key = 0;
+            for (int i = 0; i < source * 10; i++) {
+                key += random.nextInt(3);
+                final long[] element = new long[] { key, source, i };
+                elements.add(element);
+                all.add(element);
+            }
+            sources.add(new WrapperCloseableIterable<long[]>(elements));
+        }
+        //stable sort by key, then source, then index inside the source
+        Collections.sort(all, new Comparator<long[]>() {
+            @Override
+            public int compare(final long[] o1, final long[] o2) {
+                for (int i = 0; i < o1.length; i++) {
+                    final int compare = Long.compare(o1[i], o2[i]);
+                    if (compare != 0) {
+                        return compare;
+                    }
+                }
+                return 0;
+            }
+        });
+        assertMerged(newMerging(sources), all);
+        assertMerged(newMerging(sources).withProducerQueues("testMergeStable", 10), all);
+    }
+
+    @Test
+    public void testCloseSourcesOnce() throws IOException {
+        final List<CountingIterable> counting = new ArrayList<CountingIterable>();
+        final List<ICloseableIterable<long[]>> sources = new ArrayList<ICloseableIterable<long[]>>();
+        for (int source = 0; source < 3; source++) {
+            final CountingIterable iterable = new CountingIterable(source, false);
+            counting.add(iterable);
+            sources.add(iterable);
+        }
+        final ICloseableIterator<long[]> iterator = newMerging(sources).iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        iterator.close();
+        for (final CountingIterable iterable : counting) {
+            Assertions.assertThat(iterable.closeCount).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testCloseOpenedSourcesOnFailure() {
+        final CountingIterable first = new CountingIterable(2, false);
+        final CountingIterable failing = new CountingIterable(2, true);
+        final List<ICloseableIterable<long[]>> sources = new ArrayList<ICloseableIterable<long[]>>();
+        sources.add(first);
+        sources.add(failing);
+        try {
+            newMerging(sources).iterator();
+            Assertions.fail("exception expected");
+        } catch (final IllegalStateException e) {
+            //expected
+        }
+        Assertions.assertThat(first.closeCount).isEqualTo(1);
+    }
+
+    private AMergingIterable<long[]> newMerging(final List<ICloseableIterable<long[]>> sources) {
+        return new AMergingIterable<long[]>(sources) {
+            @Override
+            protected long extractKey(final long[] element) {
+                return element[0];
+            }
+        };
+    }
+
+    private void assertMerged(final ICloseableIterable<long[]> merging, final List<long[]> expected) {
+        final ICloseableIterator<long[]> iterator = merging.iterator();
+        for (final long[] element : expected) {
+            Assertions.assertThat(iterator.hasNext()).isTrue();
+            Assertions.assertThat(Arrays.equals(iterator.next(), element)).isTrue();
+        }
+        Assertions.assertThat(iterator.hasNext()).isFalse();
+    }
+
+    private static final class CountingIterable implements ICloseableIterable<long[]> {
+
+        private final int size;
+        private final boolean failing;
+        private int closeCount;
+
+        private CountingIterable(final int size, final boolean failing) {
+            this.size = size;
+            this.failing = failing;
+        }
+
+        @Override
+        public ICloseableIterator<long[]> iterator() {
+            if (failing) {
+                throw new IllegalStateException("failing source");
+            }
+            return new ICloseableIterator<long[]>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public long[] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return new long[] { index++ };
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {
+                    closeCount++;
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
+
+@ThreadSafe
+public class CloseableIterablesTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        //the workers of ConfiguredForkJoinPool get the default handler, so one has to be installed
+        if (Thread.getDefaultUncaughtExceptionHandler() == null) {
+            Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(final Thread t, final Throwable e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testSizedParallelStream() throws InterruptedException, ExecutionException {
+        final List<Long> values = new ArrayList<Long>();
+        for (long i = 0; i < 10000; i++) {
+            values.add(i);
+        }
+        final WrapperCloseableIterable<Long> iterable = new WrapperCloseableIterable<Long>(values);
+        Assertions.assertThat(iterable.collectionSpliterator().hasCharacteristics(Spliterator.SIZED)).isTrue();
+        Assertions.assertThat(iterable.collectionSpliterator().getExactSizeIfKnown()).isEqualTo(values.size());
+
+        final ConfiguredForkJoinPool pool = Executors.newForkJoinPool("testSizedParallelStream", 2);
+        try {
+            final long sum = pool.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    final Stream<Long> stream = CloseableIterables.parallelStream(iterable);
+                    try {
+                        return stream.mapToLong(new ToLongFunction<Long>() {
+                            @Override
+                            public long applyAsLong(final Long value) {
+                                return value;
+                            }
+                        }).sum();
+                    } finally {
+                        stream.close();
+                    }
+                }
+            }).get();
+            Assertions.assertThat(sum).isEqualTo(9999L * 10000L / 2L);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStreamClosesIterator() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final ICloseableIterable<Integer> iterable = new ICloseableIterable<Integer>() {
+            @Override
+            public ICloseableIterator<Integer> iterator() {
+                final List<Integer> list = new ArrayList<Integer>();
+                list.add(1);
+                list.add(2);
+                return new WrapperCloseableIterator<Integer>(list.iterator()) {
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        closed.set(true);
+                    }
+                };
+            }
+        };
+        final Stream<Integer> stream = CloseableIterables.stream(iterable);
+        try {
+            Assertions.assertThat(stream.mapToInt(new ToIntFunction<Integer>() {
+                @Override
+                public int applyAsInt(final Integer value) {
+                    return value;
+                }
+            }).sum()).isEqualTo(3);
+        } finally {
+            stream.close();
+        }
+        Assertions.assertThat(closed.get()).isTrue();
+    }
+
+}
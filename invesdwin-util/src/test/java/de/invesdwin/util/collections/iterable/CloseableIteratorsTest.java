@@ -0,0 +1,139 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@ThreadSafe
+public class CloseableIteratorsTest {
+
+    @Test
+    public void testBatchPipeline() {
+        final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        final List<Integer> expected = new ArrayList<Integer>();
+        int value = 0;
+        for (int i = 0; i < 50; i++) {
+            final List<Integer> chunk = new ArrayList<Integer>();
+            for (int j = 0; j < i % 7; j++) {
+                chunk.add(value);
+                if (value % 3 != 0 && expected.size() < 100) {
+                    expected.add(value * 2);
+                }
+                value++;
+            }
+            chunks.add(chunk);
+        }
+
+        final List<Integer> batched = new ArrayList<Integer>();
+        final ICloseableIterator<Integer> pipeline = newPipeline(chunks);
+        final Integer[] buffer = new Integer[13];
+        //mixing element by element and batch iteration
+        batched.add(pipeline.next());
+        while (true) {
+            final int count = CloseableIterators.nextBatch(pipeline, buffer);
+            if (count == 0) {
+                break;
+            }
+            batched.addAll(Arrays.asList(buffer).subList(0, count));
+        }
+        Assertions.assertThat(batched).isEqualTo(expected);
+        Assertions.assertThat(pipeline.hasNext()).isFalse();
+
+        final List<Integer> elementwise = new ArrayList<Integer>();
+        final ICloseableIterator<Integer> elementwisePipeline = newPipeline(chunks);
+        while (elementwisePipeline.hasNext()) {
+            elementwise.add(elementwisePipeline.next());
+        }
+        Assertions.assertThat(elementwise).isEqualTo(expected);
+    }
+
+    @Test
+    public void testTryNext() {
+        final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        chunks.add(Arrays.asList(1, 2, 3));
+        chunks.add(new ArrayList<Integer>());
+        chunks.add(Arrays.asList(4, 5, 6));
+        final List<Integer> expected = Arrays.asList(2, 4, 6);
+
+        final List<Integer> tried = new ArrayList<Integer>();
+        final ICloseableIterator<Integer> pipeline = newSkippingPipeline(chunks);
+        while (true) {
+            final Object next = CloseableIterators.tryNext(pipeline);
+            if (next == CloseableIterators.END_OF_DATA) {
+                break;
+            }
+            tried.add((Integer) next);
+        }
+        Assertions.assertThat(tried).isEqualTo(expected);
+        Assertions.assertThat(pipeline.hasNext()).isFalse();
+        Assertions.assertThat(CloseableIterators.tryNext(pipeline)).isSameAs(CloseableIterators.END_OF_DATA);
+
+        final List<Integer> iterated = new ArrayList<Integer>();
+        final ICloseableIterator<Integer> iteratedPipeline = newSkippingPipeline(chunks);
+        while (iteratedPipeline.hasNext()) {
+            iterated.add(iteratedPipeline.next());
+        }
+        Assertions.assertThat(iterated).isEqualTo(expected);
+    }
+
+    @Test
+    public void testTryNextLegacyFallback() {
+        //signals the end only via NoSuchElementException
+        final Iterator<Integer> delegate = Arrays.asList(1).iterator();
+        final ICloseableIterator<Integer> legacy = new ICloseableIterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return delegate.next();
+            }
+
+            @Override
+            public void close() throws IOException {}
+        };
+        Assertions.assertThat(CloseableIterators.tryNext(legacy)).isEqualTo(1);
+        Assertions.assertThat(CloseableIterators.tryNext(legacy)).isSameAs(CloseableIterators.END_OF_DATA);
+    }
+
+    private ICloseableIterator<Integer> newSkippingPipeline(final List<List<Integer>> chunks) {
+        return new ASkippingIterator<Integer>(new FlatteningIterable<Integer>(
+                new WrapperCloseableIterable<List<Integer>>(chunks)).iterator()) {
+            @Override
+            protected boolean skip(final Integer element) {
+                return element % 2 != 0;
+            }
+        };
+    }
+
+    private ICloseableIterator<Integer> newPipeline(final List<List<Integer>> chunks) {
+        //the chunks are read via the element by element fallback
+        final ICloseableIterator<Integer> flattening = new FlatteningIterable<Integer>(
+                new WrapperCloseableIterable<List<Integer>>(chunks)).iterator();
+        final ASkippingIterator<Integer> skipping = new ASkippingIterator<Integer>(flattening) {
+            @Override
+            protected boolean skip(final Integer element) {
+                return element % 3 == 0;
+            }
+        };
+        final ATransformingCloseableIterator<Integer, Integer> transforming = new ATransformingCloseableIterator<Integer, Integer>(
+                skipping) {
+            @Override
+            protected Integer transform(final Integer value) {
+                return value * 2;
+            }
+        };
+        return new LimitingIterator<Integer>(transforming, 100);
+    }
+
+}
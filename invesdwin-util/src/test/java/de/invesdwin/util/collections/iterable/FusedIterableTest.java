@@ -0,0 +1,74 @@
+package de.invesdwin.util.collections.iterable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@ThreadSafe
+public class FusedIterableTest {
+
+    @Test
+    public void testSameAsNestedWrappers() {
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            values.add(i);
+        }
+        final ICloseableIterable<Integer> source = new WrapperCloseableIterable<Integer>(values);
+
+        final FusedIterable<String> fused = FusedIterable.of(source).skip(new Predicate<Integer>() {
+            @Override
+            public boolean test(final Integer t) {
+                return t % 2 == 0;
+            }
+        }).limit(20).transform(new Function<Integer, String>() {
+            @Override
+            public String apply(final Integer t) {
+                return String.valueOf(t * 10);
+            }
+        }).skip(new Predicate<String>() {
+            @Override
+            public boolean test(final String t) {
+                return t.startsWith("3");
+            }
+        });
+
+        final ICloseableIterable<String> nested = new ASkippingIterable<String>(
+                new ATransformingCloseableIterable<Integer, String>(
+                        new LimitingIterable<Integer>(new ASkippingIterable<Integer>(source) {
+                            @Override
+                            protected boolean skip(final Integer element) {
+                                return element % 2 == 0;
+                            }
+                        }, 20)) {
+                    @Override
+                    protected String transform(final Integer value) {
+                        return String.valueOf(value * 10);
+                    }
+                }) {
+            @Override
+            protected boolean skip(final String element) {
+                return element.startsWith("3");
+            }
+        };
+
+        Assertions.assertThat(toList(fused)).isEqualTo(toList(nested)).hasSize(14);
+        Assertions.assertThat(toList(fused.limit(0))).isEmpty();
+    }
+
+    private <E> List<E> toList(final ICloseableIterable<E> iterable) {
+        final List<E> list = new ArrayList<E>();
+        final ICloseableIterator<E> iterator = iterable.iterator();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,81 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@ThreadSafe
+public class AOrderedParallelIteratorTest {
+
+    @Test
+    public void testOrderWithSlowHead() throws IOException {
+        final List<Integer> requests = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(i);
+        }
+        final AOrderedParallelIterable<Integer, Integer> iterable = new AOrderedParallelIterable<Integer, Integer>(
+                "testOrderWithSlowHead", new WrapperCloseableIterable<Integer>(requests), 4, 16) {
+            @Override
+            protected Integer doWork(final Integer request) {
+                try {
+                    if (request % 10 == 0) {
+                        TimeUnit.MILLISECONDS.sleep(50);
+                    }
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return request * 2;
+            }
+        };
+        final AOrderedParallelIterator<Integer, Integer> iterator = iterable.iterator();
+        try {
+            int expected = 0;
+            while (iterator.hasNext()) {
+                Assertions.assertThat(iterator.next()).isEqualTo(expected * 2);
+                expected++;
+            }
+            Assertions.assertThat(expected).isEqualTo(100);
+            Assertions.assertThat(iterator.getMaxReorderBufferSize()).isLessThanOrEqualTo(16);
+            Assertions.assertThat(iterator.getMaxReorderBufferSize()).isGreaterThan(1);
+            Assertions.assertThat(iterator.getHeadOfLineBlockedCount()).isGreaterThan(0);
+            //each transition into the full state needs a submit after the window was full the first time
+            Assertions.assertThat(iterator.getWindowFullCount()).isBetween(1L, 100L - 16L + 1L);
+        } finally {
+            iterator.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailure() throws IOException {
+        final List<Integer> requests = new ArrayList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(i);
+        }
+        final AOrderedParallelIterator<Integer, Integer> iterator = new AOrderedParallelIterable<Integer, Integer>(
+                "testFailure", new WrapperCloseableIterable<Integer>(requests), 2, 4) {
+            @Override
+            protected Integer doWork(final Integer request) {
+                if (request == 5) {
+                    throw new IllegalStateException("expected");
+                }
+                return request;
+            }
+        }.iterator();
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+}
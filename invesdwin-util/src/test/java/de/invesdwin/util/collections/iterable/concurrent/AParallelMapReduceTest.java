@@ -0,0 +1,214 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.io.IOException;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterator;
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
+
+@ThreadSafe
+public class AParallelMapReduceTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        //ConfiguredForkJoinPool expects the application to have installed a default handler
+        if (Thread.getDefaultUncaughtExceptionHandler() == null) {
+            Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(final Thread t, final Throwable e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    private volatile boolean closed;
+
+    @Test
+    public void testSum() throws InterruptedException {
+        final ConfiguredForkJoinPool pool = Executors.newForkJoinPool("testSum", 4);
+        try {
+            final Long sum = new AParallelMapReduce<Integer, Long, Long>(pool, newSource(100000), 1000) {
+                @Override
+                protected boolean skip(final Integer element) {
+                    return element % 2 != 0;
+                }
+
+                @Override
+                protected Long map(final Integer element) {
+                    return element.longValue();
+                }
+
+                @Override
+                protected Long getIdentity() {
+                    return 0L;
+                }
+
+                @Override
+                protected Long reduce(final Long accumulated, final Long element) {
+                    return accumulated + element;
+                }
+
+                @Override
+                protected Long merge(final Long left, final Long right) {
+                    return left + right;
+                }
+            }.withOrdered(false).withSplitThreshold(100).reduce();
+            long expected = 0;
+            for (int i = 0; i < 100000; i += 2) {
+                expected += i;
+            }
+            Assertions.assertThat(sum).isEqualTo(expected);
+            Assertions.assertThat(closed).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOrdered() throws InterruptedException {
+        final ConfiguredForkJoinPool pool = Executors.newForkJoinPool("testOrdered", 4);
+        try {
+            final List<Integer> result = new AParallelMapReduce<Integer, Integer, List<Integer>>(pool, newSource(10000),
+                    100) {
+                @Override
+                protected Integer map(final Integer element) {
+                    return element;
+                }
+
+                @Override
+                protected List<Integer> getIdentity() {
+                    return new ArrayList<Integer>();
+                }
+
+                @Override
+                protected List<Integer> reduce(final List<Integer> accumulated, final Integer element) {
+                    accumulated.add(element);
+                    return accumulated;
+                }
+
+                @Override
+                protected List<Integer> merge(final List<Integer> left, final List<Integer> right) {
+                    left.addAll(right);
+                    return left;
+                }
+            }.withSplitThreshold(10).reduce();
+            Assertions.assertThat(result).hasSize(10000);
+            for (int i = 0; i < result.size(); i++) {
+                Assertions.assertThat(result.get(i)).isEqualTo(i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureClosesSource() throws InterruptedException {
+        final ConfiguredForkJoinPool pool = Executors.newForkJoinPool("testFailureClosesSource", 4);
+        try {
+            new AParallelMapReduce<Integer, Integer, Integer>(pool, newSource(10000), 100) {
+                @Override
+                protected Integer map(final Integer element) {
+                    if (element == 5000) {
+                        throw new IllegalStateException("expected");
+                    }
+                    return element;
+                }
+
+                @Override
+                protected Integer getIdentity() {
+                    return 0;
+                }
+
+                @Override
+                protected Integer reduce(final Integer accumulated, final Integer element) {
+                    return accumulated + element;
+                }
+
+                @Override
+                protected Integer merge(final Integer left, final Integer right) {
+                    return left + right;
+                }
+            }.reduce();
+            Assertions.fail("exception expected");
+        } catch (final IllegalStateException e) {
+            Assertions.assertThat(e.getMessage()).isEqualTo("expected");
+            Assertions.assertThat(closed).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCloseFailureDoesNotMaskFailure() throws InterruptedException {
+        final ConfiguredForkJoinPool pool = Executors.newForkJoinPool("testCloseFailureDoesNotMaskFailure", 4);
+        try {
+            new AParallelMapReduce<Integer, Integer, Integer>(pool, newSource(1000, true), 100) {
+                @Override
+                protected Integer map(final Integer element) {
+                    throw new IllegalStateException("expected");
+                }
+
+                @Override
+                protected Integer getIdentity() {
+                    return 0;
+                }
+
+                @Override
+                protected Integer reduce(final Integer accumulated, final Integer element) {
+                    return accumulated + element;
+                }
+
+                @Override
+                protected Integer merge(final Integer left, final Integer right) {
+                    return left + right;
+                }
+            }.reduce();
+            Assertions.fail("exception expected");
+        } catch (final IllegalStateException e) {
+            Assertions.assertThat(e.getMessage()).isEqualTo("expected");
+            Assertions.assertThat(e.getSuppressed()).hasSize(1);
+            Assertions.assertThat(e.getSuppressed()[0]).isInstanceOf(IOException.class);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ICloseableIterable<Integer> newSource(final int count) {
+        return newSource(count, false);
+    }
+
+    private ICloseableIterable<Integer> newSource(final int count, final boolean failOnClose) {
+        final List<Integer> values = new ArrayList<Integer>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        return new ICloseableIterable<Integer>() {
+            @Override
+            public ICloseableIterator<Integer> iterator() {
+                return new WrapperCloseableIterator<Integer>(values.iterator()) {
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        closed = true;
+                        if (failOnClose) {
+                            throw new IOException("close failed");
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+}
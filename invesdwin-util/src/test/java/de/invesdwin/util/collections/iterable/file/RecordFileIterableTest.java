@@ -0,0 +1,243 @@
+package de.invesdwin.util.collections.iterable.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.time.fdate.FDate;
+
+@ThreadSafe
+public class RecordFileIterableTest {
+
+    private static final IRecordSerializer<Long> LONG_SERIALIZER = new IRecordSerializer<Long>() {
+        @Override
+        public int getFixedLength() {
+            return 8;
+        }
+
+        @Override
+        public byte[] serialize(final Long value) {
+            return ByteBuffer.allocate(8).putLong(value).array();
+        }
+
+        @Override
+        public Long deserialize(final ByteBuffer buffer) {
+            return buffer.getLong(0);
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testVariableLengthWithRange() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "strings.rec");
+        final RecordFileWriter<String> writer = new RecordFileWriter<String>(file,
+                FstRecordSerializer.<String> getInstance(), 10);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                //two records per timestamp
+                writer.append(new FDate(i / 2), "value" + i);
+            }
+        } finally {
+            writer.close();
+        }
+        final RecordFileIterable<String> iterable = new RecordFileIterable<String>(file,
+                FstRecordSerializer.<String> getInstance());
+        final List<String> all = toList(iterable);
+        Assertions.assertThat(all).hasSize(1000);
+        Assertions.assertThat(all.get(999)).isEqualTo("value999");
+
+        final List<String> range = toList(iterable.withRange(new FDate(105), new FDate(110)));
+        Assertions.assertThat(range).hasSize(12);
+        Assertions.assertThat(range.get(0)).isEqualTo("value210");
+        Assertions.assertThat(range.get(11)).isEqualTo("value221");
+        Assertions.assertThat(toList(iterable.withRange(new FDate(1000), null))).isEmpty();
+    }
+
+    @Test
+    public void testRecoverAfterPartialWrite() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "longs.rec");
+        RecordFileWriter<Long> writer = new RecordFileWriter<Long>(file, LONG_SERIALIZER, 4);
+        try {
+            for (long i = 0; i < 9; i++) {
+                writer.append(i, i);
+            }
+        } finally {
+            writer.close();
+        }
+        //cut the last record in half
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() - 4);
+        } finally {
+            raf.close();
+        }
+        final RecordFileIterable<Long> iterable = new RecordFileIterable<Long>(file, LONG_SERIALIZER);
+        Assertions.assertThat(toList(iterable)).hasSize(8);
+
+        writer = new RecordFileWriter<Long>(file, LONG_SERIALIZER, 4);
+        try {
+            Assertions.assertThat(writer.getRecordCount()).isEqualTo(8);
+            for (long i = 8; i < 20; i++) {
+                writer.append(i, i * 10);
+            }
+            writer.flush();
+            final List<Long> values = toList(iterable.withRange(new FDate(7), new FDate(9)));
+            Assertions.assertThat(values).containsExactly(7L, 80L, 90L);
+        } finally {
+            writer.close();
+        }
+        try {
+            new RecordFileWriter<String>(file, FstRecordSerializer.<String> getInstance()).close();
+            Assertions.fail("exception expected");
+        } catch (final IOException e) {
+            Assertions.assertThat(e.getMessage()).contains("does not match");
+        }
+    }
+
+    @Test
+    public void testSeek() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "seek.rec");
+        final RecordFileWriter<Long> writer = new RecordFileWriter<Long>(file, LONG_SERIALIZER, 4);
+        try {
+            for (long i = 0; i < 100; i++) {
+                //only even timestamps
+                writer.append(i * 2, i * 2);
+            }
+        } finally {
+            writer.close();
+        }
+        final RecordFileIterable<Long> iterable = new RecordFileIterable<Long>(file, LONG_SERIALIZER);
+        Assertions.assertThat(first(iterable.seekCeiling(new FDate(51)))).isEqualTo(52L);
+        Assertions.assertThat(first(iterable.seekCeiling(new FDate(52)))).isEqualTo(52L);
+        Assertions.assertThat(first(iterable.seekFloor(new FDate(51)))).isEqualTo(50L);
+        Assertions.assertThat(first(iterable.seekFloor(new FDate(52)))).isEqualTo(52L);
+        Assertions.assertThat(first(iterable.seekFloor(new FDate(-1)))).isEqualTo(0L);
+        Assertions.assertThat(first(iterable.seekFloor(new FDate(1000)))).isEqualTo(198L);
+        Assertions.assertThat(first(iterable.seekCeiling(new FDate(1000)))).isNull();
+
+        final RecordFileIterable<Long> range = iterable.withRange(new FDate(100), new FDate(110));
+        Assertions.assertThat(first(range.seekCeiling(new FDate(10)))).isEqualTo(100L);
+        Assertions.assertThat(first(range.seekFloor(new FDate(99)))).isEqualTo(98L);
+    }
+
+    @Test
+    public void testIndexWrittenAfterFlush() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "flush.rec");
+        final File indexFile = RecordFile.getIndexFile(file);
+        final RecordFileWriter<Long> writer = new RecordFileWriter<Long>(file, LONG_SERIALIZER, 1);
+        try {
+            for (long i = 0; i < 10; i++) {
+                writer.append(i, i);
+            }
+            Assertions.assertThat(indexFile.length()).isEqualTo(0L);
+            writer.flush();
+            Assertions.assertThat(indexFile.length()).isEqualTo(10L * RecordFile.INDEX_ENTRY_LENGTH);
+            final RecordFileIterable<Long> iterable = new RecordFileIterable<Long>(file, LONG_SERIALIZER);
+            Assertions.assertThat(toList(iterable)).hasSize(10);
+            //the shared window gets remapped when the file grew
+            for (long i = 10; i < 20; i++) {
+                writer.append(i, i);
+            }
+            writer.flush();
+            Assertions.assertThat(toList(iterable)).hasSize(20);
+            Assertions.assertThat(first(iterable.seekCeiling(new FDate(15)))).isEqualTo(15L);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testSharedMapping() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "mapping.rec");
+        RecordFileWriter<Long> writer = new RecordFileWriter<Long>(file, LONG_SERIALIZER, 1);
+        try {
+            for (long i = 0; i < 100; i++) {
+                writer.append(i, i);
+            }
+            writer.flush();
+            final RecordFileMapping mapping = RecordFileMapping.getInstance(file);
+            final long[][] index = mapping.getIndex(file);
+            Assertions.assertThat(index[0]).hasSize(100);
+            //unchanged index is not read again
+            Assertions.assertThat(mapping.getIndex(file)).isSameAs(index);
+            for (long i = 100; i < 110; i++) {
+                writer.append(i, i);
+            }
+            writer.flush();
+            final long[][] grownIndex = mapping.getIndex(file);
+            Assertions.assertThat(grownIndex[0]).hasSize(110);
+            Assertions.assertThat(grownIndex[0][99]).isEqualTo(99L);
+            Assertions.assertThat(grownIndex[1][109]).isEqualTo(RecordFile.HEADER_LENGTH + 109L * 16L);
+
+            //only the most recently used windows are kept
+            final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                for (long windowIndex = 0; windowIndex < 100; windowIndex++) {
+                    mapping.getWindow(raf.getChannel(), windowIndex, 16, windowIndex * 16 + 16);
+                }
+            } finally {
+                raf.close();
+            }
+            Assertions.assertThat(mapping.getWindowCount()).isBetween(1, 16);
+        } finally {
+            writer.close();
+        }
+        //recovery truncates the index, so a new writer invalidates it
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() - 4);
+        } finally {
+            raf.close();
+        }
+        writer = new RecordFileWriter<Long>(file, LONG_SERIALIZER, 1);
+        try {
+            writer.append(200L, 200L);
+            writer.flush();
+            final long[][] index = RecordFileMapping.getInstance(file).getIndex(file);
+            Assertions.assertThat(index[0]).hasSize(110);
+            Assertions.assertThat(index[0][109]).isEqualTo(200L);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private <E> E first(final ICloseableIterator<E> iterator) throws IOException {
+        try {
+            if (iterator.hasNext()) {
+                return iterator.next();
+            } else {
+                return null;
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+    private <E> List<E> toList(final ICloseableIterable<E> iterable) throws IOException {
+        final List<E> list = new ArrayList<E>();
+        final ICloseableIterator<E> iterator = iterable.iterator();
+        try {
+            while (iterator.hasNext()) {
+                list.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,66 @@
+package de.invesdwin.util.collections.iterable.primitive;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@ThreadSafe
+public class PrimitiveCloseableIteratorsTest {
+
+    @Test
+    public void testLongPipeline() {
+        final ICloseableIterable<String> strings = new WrapperCloseableIterable<String>(
+                Arrays.asList("1", "2", "3", "4", "5", "6"));
+        final ALongTransformingCloseableIterable<String> parsed = new ALongTransformingCloseableIterable<String>(
+                strings) {
+            @Override
+            protected long transform(final String value) {
+                return Long.parseLong(value);
+            }
+        };
+        final ALongSkippingIterable even = new ALongSkippingIterable(parsed) {
+            @Override
+            protected boolean skip(final long element) {
+                return element % 2 != 0;
+            }
+        };
+        Assertions.assertThat(PrimitiveCloseableIterators.toArray(new LongLimitingIterable(even, 2).iterator()))
+                .containsExactly(2L, 4L);
+        Assertions.assertThat(PrimitiveCloseableIterators.toArray(even.iterator())).containsExactly(2L, 4L, 6L);
+    }
+
+    @Test
+    public void testFlattening() {
+        final List<IDoubleCloseableIterable> iterables = Arrays.<IDoubleCloseableIterable> asList(
+                new DoubleArrayCloseableIterable(new double[] { 1D, 2D }),
+                new DoubleArrayCloseableIterable(new double[0]),
+                new DoubleArrayCloseableIterable(new double[] { 3D, 4D, 5D }, 1, 3));
+        final DoubleFlatteningIterable flattening = new DoubleFlatteningIterable(
+                new WrapperCloseableIterable<IDoubleCloseableIterable>(iterables));
+        Assertions.assertThat(PrimitiveCloseableIterators.toArray(flattening.iterator())).containsExactly(1D, 2D, 4D,
+                5D);
+    }
+
+    @Test
+    public void testBoxingAdapters() {
+        final ICloseableIterator<Integer> boxed = new IntArrayCloseableIterator(new int[] { 1, 2, 3 });
+        Assertions.assertThat(boxed.next()).isEqualTo(1);
+        final IIntCloseableIterator unboxed = PrimitiveCloseableIterators.toIntIterator(boxed);
+        Assertions.assertThat(unboxed == boxed).isTrue();
+        Assertions.assertThat(unboxed.nextInt()).isEqualTo(2);
+
+        final ILongCloseableIterator longs = PrimitiveCloseableIterators.toLongIterator(
+                new WrapperCloseableIterable<Integer>(Arrays.asList(5, 6)).iterator());
+        Assertions.assertThat(PrimitiveCloseableIterators.toArray(longs)).containsExactly(5L, 6L);
+        Assertions.assertThat(EmptyLongCloseableIterator.INSTANCE.hasNext()).isFalse();
+    }
+
+}
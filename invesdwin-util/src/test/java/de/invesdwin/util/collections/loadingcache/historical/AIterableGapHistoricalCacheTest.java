@@ -0,0 +1,65 @@
+package de.invesdwin.util.collections.loadingcache.historical;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.fdate.FDate;
+
+@ThreadSafe
+public class AIterableGapHistoricalCacheTest {
+
+    @Test
+    public void testBinarySearchMatchesScan() {
+        final List<FDate> entities = new ArrayList<FDate>();
+        for (int i = 0; i < 50; i++) {
+            //duplicate keys
+            entities.add(new FDate(i / 2 * 10));
+        }
+        final TestIterableGapHistoricalCache binarySearch = new TestIterableGapHistoricalCache(entities);
+        //LinkedList is not RandomAccess, so it gets scanned
+        final TestIterableGapHistoricalCache scan = new TestIterableGapHistoricalCache(
+                new LinkedList<FDate>(entities));
+        for (long millis = -5; millis <= 260; millis++) {
+            final FDate key = new FDate(millis);
+            Assertions.assertThat(binarySearch.readLatestValueFor(key)).isEqualTo(scan.readLatestValueFor(key));
+            Assertions.assertThat(binarySearch.readAllValuesAscendingFrom(key))
+                    .isEqualTo(scan.readAllValuesAscendingFrom(key));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final TestIterableGapHistoricalCache cache = new TestIterableGapHistoricalCache(
+                Collections.<FDate> emptyList());
+        Assertions.assertThat(cache.readLatestValueFor(new FDate(0))).isNull();
+        Assertions.assertThat(cache.readAllValuesAscendingFrom(new FDate(0))).isEmpty();
+    }
+
+    private static class TestIterableGapHistoricalCache extends AIterableGapHistoricalCache<FDate> {
+
+        private final List<FDate> entities;
+
+        TestIterableGapHistoricalCache(final List<FDate> entities) {
+            this.entities = entities;
+        }
+
+        @Override
+        protected Iterable<FDate> getIterable() {
+            return entities;
+        }
+
+        @Override
+        protected FDate extractKey(final FDate value) {
+            return value;
+        }
+
+    }
+
+}
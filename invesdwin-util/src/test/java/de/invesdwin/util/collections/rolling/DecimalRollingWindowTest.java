@@ -0,0 +1,33 @@
+package de.invesdwin.util.collections.rolling;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+
+@ThreadSafe
+public class DecimalRollingWindowTest {
+
+    @Test
+    public void testRollingStatistics() {
+        final DecimalRollingWindow window = new DecimalRollingWindow(3);
+        Assertions.assertThat(window.getSum()).isNull();
+        Assertions.assertThat(window.getMin()).isNull();
+        final Decimal three = new Decimal("3");
+        Assertions.assertThat(window.push(three)).isNull();
+        window.push(new Decimal("1"));
+        window.push(new Decimal("2"));
+        Assertions.assertThat(window.getMax()).isSameAs(three);
+        Assertions.assertThat(window.push(new Decimal("0"))).isSameAs(three);
+        Assertions.assertThat(window.getMax()).isEqualTo(new Decimal("2"));
+        Assertions.assertThat(window.getMin()).isEqualTo(Decimal.ZERO);
+        Assertions.assertThat(window.getSum()).isEqualTo(new Decimal("3"));
+        Assertions.assertThat(window.getMean()).isEqualTo(Decimal.ONE);
+        Assertions.assertThat(window.getSampleVariance()).isEqualTo(Decimal.ONE);
+        Assertions.assertThat(window.getFirst()).isEqualTo(Decimal.ONE);
+        Assertions.assertThat(window.getLast()).isEqualTo(Decimal.ZERO);
+    }
+
+}
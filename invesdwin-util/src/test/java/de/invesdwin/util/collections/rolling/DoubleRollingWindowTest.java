@@ -0,0 +1,77 @@
+package de.invesdwin.util.collections.rolling;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.assertj.core.data.Offset;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@ThreadSafe
+public class DoubleRollingWindowTest {
+
+    private static final double EPSILON = 1E-6;
+
+    @Test
+    public void testAgainstRecalculation() {
+        final Random random = new Random(42);
+        final int capacity = 17;
+        final DoubleRollingWindow window = new DoubleRollingWindow(capacity);
+        final ArrayDeque<Double> expected = new ArrayDeque<Double>();
+        Assertions.assertThat(window.getMean()).isNaN();
+        Assertions.assertThat(window.getMin()).isNaN();
+        for (int i = 0; i < 10000; i++) {
+            final double value = 1000D + random.nextGaussian() * 100D;
+            final double evicted = window.push(value);
+            expected.addLast(value);
+            if (expected.size() > capacity) {
+                Assertions.assertThat(evicted).isEqualTo(expected.removeFirst());
+            } else {
+                Assertions.assertThat(evicted).isNaN();
+            }
+            Assertions.assertThat(window.size()).isEqualTo(expected.size());
+            Assertions.assertThat(window.getFirst()).isEqualTo(expected.getFirst());
+            Assertions.assertThat(window.getLast()).isEqualTo(expected.getLast());
+
+            double sum = 0D;
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (final double v : expected) {
+                sum += v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            final double mean = sum / expected.size();
+            double squares = 0D;
+            for (final double v : expected) {
+                squares += (v - mean) * (v - mean);
+            }
+            Assertions.assertThat(window.getSum()).isCloseTo(sum, Offset.offset(EPSILON));
+            Assertions.assertThat(window.getMean()).isCloseTo(mean, Offset.offset(EPSILON));
+            Assertions.assertThat(window.getVariance()).isCloseTo(squares / expected.size(), Offset.offset(EPSILON));
+            Assertions.assertThat(window.getMin()).isEqualTo(min);
+            Assertions.assertThat(window.getMax()).isEqualTo(max);
+        }
+    }
+
+    @Test
+    public void testClear() {
+        final DoubleRollingWindow window = new DoubleRollingWindow(3);
+        for (int i = 0; i < 5; i++) {
+            window.push(i);
+        }
+        Assertions.assertThat(window.get(0)).isEqualTo(2D);
+        Assertions.assertThat(window.getSampleVariance()).isEqualTo(1D);
+        window.clear();
+        Assertions.assertThat(window.isEmpty()).isTrue();
+        Assertions.assertThat(window.getMax()).isNaN();
+        window.push(5D);
+        Assertions.assertThat(window.getMin()).isEqualTo(5D);
+        Assertions.assertThat(window.getMax()).isEqualTo(5D);
+        Assertions.assertThat(window.getVariance()).isEqualTo(0D);
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.invesdwin.util.collections.rolling;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.assertj.core.data.Offset;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@ThreadSafe
+public class LongRollingWindowTest {
+
+    private static final double EPSILON = 1E-6;
+
+    @Test
+    public void testAgainstRecalculation() {
+        final Random random = new Random(42);
+        final int capacity = 17;
+        final LongRollingWindow window = new LongRollingWindow(capacity);
+        final ArrayDeque<Long> expected = new ArrayDeque<Long>();
+        Assertions.assertThat(window.getMean()).isNaN();
+        for (int i = 0; i < 10000; i++) {
+            final long value = 1000L + random.nextInt(200);
+            final boolean full = window.isFull();
+            final long evicted = window.push(value);
+            expected.addLast(value);
+            if (expected.size() > capacity) {
+                Assertions.assertThat(full).isTrue();
+                Assertions.assertThat(evicted).isEqualTo(expected.removeFirst());
+            } else {
+                Assertions.assertThat(evicted).isEqualTo(0L);
+            }
+            Assertions.assertThat(window.size()).isEqualTo(expected.size());
+            Assertions.assertThat(window.getFirst()).isEqualTo(expected.getFirst());
+            Assertions.assertThat(window.getLast()).isEqualTo(expected.getLast());
+            assertStatistics(window, expected, EPSILON);
+        }
+    }
+
+    @Test
+    public void testNoDriftOnLongSeries() {
+        final Random random = new Random(42);
+        final int capacity = 16;
+        final LongRollingWindow window = new LongRollingWindow(capacity);
+        final ArrayDeque<Long> expected = new ArrayDeque<Long>();
+        //large offset with small variance is where incremental updates lose the most precision
+        for (int i = 0; i < 1000000; i++) {
+            final long value = 1000000000L + random.nextInt(1000);
+            window.push(value);
+            expected.addLast(value);
+            if (expected.size() > capacity) {
+                expected.removeFirst();
+            }
+        }
+        assertStatistics(window, expected, 1E-9);
+    }
+
+    @Test
+    public void testClear() {
+        final LongRollingWindow window = new LongRollingWindow(3);
+        for (int i = 0; i < 5; i++) {
+            window.push(i);
+        }
+        Assertions.assertThat(window.get(0)).isEqualTo(2L);
+        Assertions.assertThat(window.getSampleVariance()).isEqualTo(1D);
+        window.clear();
+        Assertions.assertThat(window.isEmpty()).isTrue();
+        try {
+            window.getMax();
+            Assertions.fail("exception expected");
+        } catch (final NoSuchElementException e) {
+            //expected
+        }
+        window.push(5L);
+        Assertions.assertThat(window.getMin()).isEqualTo(5L);
+        Assertions.assertThat(window.getMax()).isEqualTo(5L);
+        Assertions.assertThat(window.getVariance()).isEqualTo(0D);
+    }
+
+    private void assertStatistics(final LongRollingWindow window, final ArrayDeque<Long> expected,
+            final double epsilon) {
+        long sum = 0L;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (final long v : expected) {
+            sum += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        final double mean = (double) sum / expected.size();
+        double squares = 0D;
+        for (final long v : expected) {
+            squares += (v - mean) * (v - mean);
+        }
+        Assertions.assertThat(window.getSum()).isEqualTo(sum);
+        Assertions.assertThat(window.getMean()).isCloseTo(mean, Offset.offset(epsilon));
+        Assertions.assertThat(window.getVariance()).isCloseTo(squares / expected.size(), Offset.offset(epsilon));
+        Assertions.assertThat(window.getMin()).isEqualTo(min);
+        Assertions.assertThat(window.getMax()).isEqualTo(max);
+    }
+
+}
@@ -0,0 +1,73 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@ThreadSafe
+public class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    public void testIncreaseAndDecrease() throws InterruptedException {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 50);
+        final long fastNanos = TimeUnit.MICROSECONDS.toNanos(100);
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(fastNanos, limit.getLimit());
+        }
+        //one increase per round trip of the whole limit instead of one per sample
+        Assertions.assertThat(limit.getLimit()).isEqualTo(10);
+        for (int i = 0; i < 2000; i++) {
+            limit.onSample(fastNanos, limit.getLimit());
+        }
+        Assertions.assertThat(limit.getLimit()).isEqualTo(50);
+        //low utilization does not increase the limit further than needed
+        final AdaptiveConcurrencyLimit idleLimit = new AdaptiveConcurrencyLimit(10, 2, 50);
+        for (int i = 0; i < 100; i++) {
+            idleLimit.onSample(fastNanos, 1);
+        }
+        Assertions.assertThat(idleLimit.getLimit()).isEqualTo(10);
+
+        final long slowNanos = fastNanos * 10;
+        int previousLimit = limit.getLimit();
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(slowNanos, limit.getLimit());
+            //at most one decrease per round trip
+            TimeUnit.NANOSECONDS.sleep(slowNanos);
+            Assertions.assertThat(limit.getLimit()).isLessThanOrEqualTo(previousLimit);
+            previousLimit = limit.getLimit();
+        }
+        Assertions.assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFullPendingCount() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newCachedThreadPool("testFullPendingCount");
+        try {
+            final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 100);
+            executor.withAdaptiveConcurrencyLimit(limit).withWaitOnFullPendingCount(true);
+            Assertions.assertThat(executor.getFullPendingCount()).isEqualTo(3);
+            for (int i = 0; i < 100; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(1);
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                Assertions.assertThat(executor.getPendingCount()).isLessThanOrEqualTo(limit.getMaxLimit());
+            }
+            executor.awaitPendingCount(0);
+            Assertions.assertThat(limit.getMinLatency()).isNotNull();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
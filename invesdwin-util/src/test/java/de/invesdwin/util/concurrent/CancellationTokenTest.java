@@ -0,0 +1,135 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.CancellableIterator;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+import de.invesdwin.util.time.Duration;
+
+@ThreadSafe
+public class CancellationTokenTest {
+
+    @Test
+    public void testCancelChildren() {
+        final CancellationToken parent = new CancellationToken();
+        final CancellationToken child = parent.newChild();
+        final CancellationToken grandChild = child.newChild();
+        final CancellationToken closedChild = parent.newChild();
+        closedChild.close();
+        Assertions.assertThat(grandChild.isCancelled()).isFalse();
+        grandChild.throwIfCancelled();
+
+        parent.cancel("stop");
+        Assertions.assertThat(child.isCancelled()).isTrue();
+        Assertions.assertThat(grandChild.isCancelled()).isTrue();
+        Assertions.assertThat(closedChild.isCancelled()).isFalse();
+        try {
+            grandChild.throwIfCancelled();
+            Assertions.fail("exception expected");
+        } catch (final CancellationException e) {
+            Assertions.assertThat(e.getMessage()).isEqualTo("stop");
+        }
+        //children of cancelled tokens are cancelled immediately
+        Assertions.assertThat(parent.newChild().isCancelled()).isTrue();
+        Assertions.assertThat(CancellationToken.NONE.newChild().getParent()).isNull();
+    }
+
+    @Test
+    public void testDeadline() throws InterruptedException {
+        final CancellationToken token = new CancellationToken().newChild(new Duration(50, TimeUnit.MILLISECONDS));
+        Assertions.assertThat(token.isCancelled()).isFalse();
+        final long startNanos = System.nanoTime();
+        while (!token.isCancelled()) {
+            Assertions.assertThat(System.nanoTime() - startNanos).isLessThan(TimeUnit.SECONDS.toNanos(5));
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        final CancellationToken closedToken = new CancellationToken()
+                .newChild(new Duration(10, TimeUnit.MILLISECONDS));
+        closedToken.close();
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertThat(closedToken.isCancelled()).isFalse();
+    }
+
+    @Test
+    public void testPropagationIntoExecutor() throws InterruptedException, ExecutionException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testPropagationIntoExecutor", 1);
+        try {
+            final CancellationToken token = new CancellationToken();
+            final CountDownLatch started = new CountDownLatch(1);
+            final CancellationToken previous = CancellationToken.attach(token);
+            final Future<?> running;
+            final Future<?> queued;
+            try {
+                running = executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        started.countDown();
+                        final CancellationToken current = CancellationToken.getCurrent();
+                        while (!current.isCancelled()) {
+                            Thread.yield();
+                        }
+                        current.throwIfCancelled();
+                    }
+                });
+                queued = executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        Assertions.fail("should not run");
+                    }
+                });
+            } finally {
+                CancellationToken.detach(previous);
+            }
+            Assertions.assertThat(CancellationToken.getCurrent()).isSameAs(CancellationToken.NONE);
+            started.await();
+            token.cancel();
+            assertCancelled(running);
+            assertCancelled(queued);
+            //the token is not leaked to other tasks of the worker thread
+            Assertions.assertThat(executor.submit(new java.util.concurrent.Callable<CancellationToken>() {
+                @Override
+                public CancellationToken call() throws Exception {
+                    return CancellationToken.getCurrent();
+                }
+            }).get()).isSameAs(CancellationToken.NONE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertCancelled(final Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+            Assertions.fail("exception expected");
+        } catch (final ExecutionException e) {
+            Assertions.assertThat(e.getCause()).isInstanceOf(CancellationException.class);
+        }
+    }
+
+    @Test
+    public void testCancellableIterator() {
+        final CancellationToken token = new CancellationToken();
+        final ICloseableIterator<Integer> iterator = new CancellableIterator<Integer>(
+                new WrapperCloseableIterable<Integer>(Arrays.asList(1, 2, 3)).iterator(), token);
+        Assertions.assertThat(iterator.next()).isEqualTo(1);
+        token.cancel();
+        try {
+            iterator.hasNext();
+            Assertions.fail("exception expected");
+        } catch (final CancellationException e) {
+            //expected
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.Duration;
+import de.invesdwin.util.time.Instant;
+
+@ThreadSafe
+public class FailFastTaskScopeTest {
+
+    @Test
+    public void testCompletionOrder() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testCompletionOrder", 3);
+        final FailFastTaskScope<Integer> scope = new FailFastTaskScope<Integer>(executor);
+        try {
+            scope.fork(newSleepingCallable(2, 300));
+            scope.fork(newSleepingCallable(1, 100));
+            scope.fork(newSleepingCallable(0, 0));
+            final List<Integer> results = scope.join();
+            Assertions.assertThat(results).containsExactly(0, 1, 2);
+        } finally {
+            scope.close();
+            executor.shutdown();
+            executor.awaitTermination();
+        }
+    }
+
+    @Test
+    public void testFailureCancelsSiblingsImmediately() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testFailureCancelsSiblings", 4);
+        final AtomicInteger interrupted = new AtomicInteger();
+        final CountDownLatch sleepersStarted = new CountDownLatch(3);
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    sleepersStarted.countDown();
+                    try {
+                        TimeUnit.MINUTES.sleep(1);
+                    } catch (final InterruptedException e) {
+                        interrupted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sleepersStarted.await();
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                throw new IllegalStateException("expected");
+            }
+        });
+        final Instant start = new Instant();
+        try {
+            Futures.submitAndWaitFailFast(executor, tasks);
+            Assertions.fail("exception expected");
+        } catch (final IllegalStateException e) {
+            Assertions.assertThat(e.getMessage()).isEqualTo("expected");
+        }
+        Assertions.assertThat(start.toDuration()).isLessThan(new Duration(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        executor.awaitTermination();
+        Assertions.assertThat(interrupted.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testForkWhileInterruptedKeepsAcceptedTask() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testForkWhileInterrupted", 1);
+        final FailFastTaskScope<Integer> scope = new FailFastTaskScope<Integer>(executor);
+        try {
+            Thread.currentThread().interrupt();
+            scope.fork(newSleepingCallable(1, 0));
+            //the flag belongs to the caller and must not be consumed by fork
+            Assertions.assertThat(Thread.interrupted()).isTrue();
+            Assertions.assertThat(scope.join()).containsExactly(1);
+        } finally {
+            scope.close();
+            executor.shutdown();
+            executor.awaitTermination();
+        }
+    }
+
+    @Test
+    public void testForkInterruptedWhileWaitingForSlot() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testForkInterruptedWhileWaiting", 1)
+                .withWaitOnFullPendingCount(true);
+        final FailFastTaskScope<Integer> scope = new FailFastTaskScope<Integer>(executor);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            scope.fork(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    release.await();
+                    return 0;
+                }
+            });
+            Thread.currentThread().interrupt();
+            try {
+                scope.fork(newSleepingCallable(1, 0));
+                Assertions.fail("exception expected");
+            } catch (final InterruptedException e) {
+                //expected, the dropped task is not joined
+                Thread.interrupted();
+            }
+            Assertions.assertThat(scope.getPendingCount()).isEqualTo(1);
+            release.countDown();
+            Assertions.assertThat(scope.join()).containsExactly(0);
+        } finally {
+            release.countDown();
+            scope.close();
+            executor.shutdown();
+            executor.awaitTermination();
+        }
+    }
+
+    private Callable<Integer> newSleepingCallable(final int result, final long sleepMillis) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                TimeUnit.MILLISECONDS.sleep(sleepMillis);
+                return result;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,115 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.Duration;
+
+@ThreadSafe
+public class FuturesTest {
+
+    @Test
+    public void testSubmitAsyncAllOf() throws Exception {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testSubmitAsyncAllOf", 2);
+        try {
+            final CompletableFuture<Integer> first = executor.submitAsync(newSleepingCallable(1, 100));
+            final CompletableFuture<Integer> second = executor.submitAsync(newSleepingCallable(2, 0))
+                    .thenApply(new Function<Integer, Integer>() {
+                        @Override
+                        public Integer apply(final Integer value) {
+                            return value * 10;
+                        }
+                    });
+            final List<Integer> results = Futures.allOf(Arrays.asList(first, second)).get();
+            Assertions.assertThat(results).containsExactly(1, 20);
+            executor.waitOnFullPendingCount();
+            executor.awaitPendingCount(0);
+            Assertions.assertThat(executor.getPendingCount()).isEqualTo(0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTimeoutCancelsTask() throws Exception {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testTimeoutCancelsTask", 1);
+        try {
+            final CompletableFuture<Integer> slow = executor.submitAsync(newSleepingCallable(1, 60000));
+            try {
+                Futures.timeout(slow, new Duration(100, TimeUnit.MILLISECONDS)).get();
+                Assertions.fail("exception expected");
+            } catch (final ExecutionException e) {
+                Assertions.assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+            }
+            //the task gets released after it was cancelled
+            executor.awaitPendingCount(0);
+            Assertions.assertThat(slow.isCancelled()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testRetry", 1);
+        try {
+            final AtomicInteger attempts = new AtomicInteger();
+            final Integer result = Futures.retry(new Supplier<CompletableFuture<Integer>>() {
+                @Override
+                public CompletableFuture<Integer> get() {
+                    return executor.submitAsync(new Callable<Integer>() {
+                        @Override
+                        public Integer call() throws Exception {
+                            if (attempts.incrementAndGet() < 3) {
+                                throw new IllegalStateException("expected");
+                            }
+                            return attempts.get();
+                        }
+                    });
+                }
+            }, 5, new Duration(10, TimeUnit.MILLISECONDS)).get();
+            Assertions.assertThat(result).isEqualTo(3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownNowCancelsQueuedTasks() throws Exception {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testShutdownNowCancelsQueuedTasks", 1);
+        executor.submitAsync(newSleepingCallable(1, 60000));
+        final CompletableFuture<Integer> queued = executor.submitAsync(newSleepingCallable(2, 0));
+        executor.shutdownNow();
+        try {
+            queued.get(1, TimeUnit.SECONDS);
+            Assertions.fail("exception expected");
+        } catch (final CancellationException e) {
+            Assertions.assertThat(queued.isCancelled()).isTrue();
+        }
+    }
+
+    private Callable<Integer> newSleepingCallable(final int result, final long sleepMillis) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                TimeUnit.MILLISECONDS.sleep(sleepMillis);
+                return result;
+            }
+        };
+    }
+
+}
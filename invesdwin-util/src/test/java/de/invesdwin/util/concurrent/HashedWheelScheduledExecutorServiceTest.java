@@ -0,0 +1,122 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.Duration;
+
+@ThreadSafe
+public class HashedWheelScheduledExecutorServiceTest {
+
+    @Test
+    public void testSchedule() throws Exception {
+        final HashedWheelScheduledExecutorService executor = Executors.newHashedWheelScheduledThreadPool(
+                "testSchedule", 2, Duration.ONE_MILLISECOND, 8);
+        try {
+            final long startNanos = System.nanoTime();
+            //more than one round of the wheel
+            final ScheduledFuture<Long> future = executor.schedule(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    return System.nanoTime();
+                }
+            }, 50, TimeUnit.MILLISECONDS);
+            final long elapsedNanos = future.get() - startNanos;
+            Assertions.assertThat(elapsedNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+            executor.awaitPendingCount(0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testManyTimeoutsAndCancel() throws Exception {
+        final HashedWheelScheduledExecutorService executor = Executors.newHashedWheelScheduledThreadPool(
+                "testManyTimeoutsAndCancel", 2);
+        try {
+            final int count = 100000;
+            final CountDownLatch expired = new CountDownLatch(count / 2);
+            final AtomicInteger executed = new AtomicInteger();
+            final List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        executed.incrementAndGet();
+                        expired.countDown();
+                    }
+                }, 1000 + i % 100, TimeUnit.MILLISECONDS));
+            }
+            for (int i = 0; i < count; i += 2) {
+                Assertions.assertThat(futures.get(i).cancel(false)).isTrue();
+            }
+            Assertions.assertThat(expired.await(10, TimeUnit.SECONDS)).isTrue();
+            TimeUnit.MILLISECONDS.sleep(100);
+            Assertions.assertThat(executed.get()).isEqualTo(count / 2);
+            //cancelled timeouts release their pending count too
+            Assertions.assertThat(executor.getPendingCount()).isEqualTo(0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPeriodic() throws Exception {
+        final HashedWheelScheduledExecutorService executor = Executors.newHashedWheelScheduledThreadPool(
+                "testPeriodic", 1, Duration.ONE_MILLISECOND, 64);
+        try {
+            final CountDownLatch runs = new CountDownLatch(5);
+            final ScheduledFuture<?> future = executor.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    runs.countDown();
+                }
+            }, 0, 5, TimeUnit.MILLISECONDS);
+            Assertions.assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+            Assertions.assertThat(future.isDone()).isFalse();
+            future.cancel(false);
+            Assertions.assertThat(future.isCancelled()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertThat(executor.getScheduledCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testApplicationShutdownStopsTicker() throws Exception {
+        final HashedWheelScheduledExecutorService executor = Executors.newHashedWheelScheduledThreadPool(
+                "testApplicationShutdownStopsTicker", 1);
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 1, TimeUnit.HOURS);
+        Assertions.assertThat(executor.getPendingCount()).isEqualTo(1);
+        executor.onApplicationShutdown();
+        Assertions.assertThat(executor.getScheduledCount()).isEqualTo(0);
+        Assertions.assertThat(executor.getPendingCount()).isEqualTo(0);
+        try {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, 1, TimeUnit.HOURS);
+            Assertions.fail("exception expected");
+        } catch (final RejectedExecutionException e) {
+            //expected
+        }
+        Assertions.assertThat(executor.getPendingCount()).isEqualTo(0);
+    }
+
+}
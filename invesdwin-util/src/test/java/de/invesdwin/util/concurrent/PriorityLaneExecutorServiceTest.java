@@ -0,0 +1,165 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.Duration;
+
+@ThreadSafe
+public class PriorityLaneExecutorServiceTest {
+
+    @Test
+    public void testInteractiveBeforeBatch() throws InterruptedException {
+        final PriorityLaneExecutorService executor = Executors.newFixedPriorityLaneThreadPool(
+                "testInteractiveBeforeBatch", 1, Duration.ONE_MINUTE);
+        try {
+            final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+            final CountDownLatch blocker = block(executor);
+            for (int i = 0; i < 100; i++) {
+                executor.execute(PriorityLane.BATCH, newRecordingRunnable(order, "batch"));
+            }
+            final java.util.concurrent.Future<?> interactive = executor.submit(PriorityLane.INTERACTIVE,
+                    newRecordingRunnable(order, "interactive"));
+            Assertions.assertThat(executor.getQueue().size(PriorityLane.BATCH)).isEqualTo(100);
+            blocker.countDown();
+            Futures.wait(interactive);
+            executor.awaitPendingCount(0);
+            Assertions.assertThat(order).hasSize(101);
+            Assertions.assertThat(order.get(0)).isEqualTo("interactive");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAging() throws InterruptedException {
+        final PriorityLaneExecutorService executor = Executors.newFixedPriorityLaneThreadPool("testAging", 1,
+                Duration.ONE_MILLISECOND);
+        try {
+            final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+            final CountDownLatch blocker = block(executor);
+            executor.execute(PriorityLane.BATCH, newRecordingRunnable(order, "batch"));
+            //20 priority levels difference need 20ms to catch up
+            TimeUnit.MILLISECONDS.sleep(100);
+            executor.execute(PriorityLane.INTERACTIVE, newRecordingRunnable(order, "interactive"));
+            blocker.countDown();
+            executor.awaitPendingCount(0);
+            Assertions.assertThat(order).containsExactly("batch", "interactive");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRoundRobinBetweenEqualLanes() {
+        final PriorityLaneQueue queue = new PriorityLaneQueue(Duration.ONE_MINUTE);
+        final PriorityLane tenantA = new PriorityLane("A", 0);
+        final PriorityLane tenantB = new PriorityLane("B", 0);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new LaneTask(tenantA));
+        }
+        queue.offer(new LaneTask(tenantB));
+        Assertions.assertThat(((LaneTask) queue.poll()).getLane()).isSameAs(tenantA);
+        //tenant B has been waiting longer than tenant A since it was served
+        Assertions.assertThat(((LaneTask) queue.poll()).getLane()).isSameAs(tenantB);
+        Assertions.assertThat(queue.size()).isEqualTo(9);
+    }
+
+    @Test
+    public void testEmptyLanesAreEvicted() {
+        final PriorityLaneQueue queue = new PriorityLaneQueue(Duration.ONE_MINUTE);
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(new LaneTask(new PriorityLane("tenant" + i, i % 3)));
+        }
+        Assertions.assertThat(queue.getLaneCount()).isEqualTo(1000);
+        final LaneTask removed = new LaneTask(new PriorityLane("removed", 0));
+        queue.offer(removed);
+        Assertions.assertThat(queue.remove(removed)).isTrue();
+        Assertions.assertThat(queue.getLaneCount()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertThat(queue.poll()).isNotNull();
+        }
+        Assertions.assertThat(queue.poll()).isNull();
+        Assertions.assertThat(queue.getLaneCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testBlockingWhenFull() throws InterruptedException {
+        final PriorityLaneQueue queue = new PriorityLaneQueue(Duration.ONE_MINUTE, 1);
+        final PriorityLane lane = new PriorityLane("lane", 0);
+        Assertions.assertThat(queue.offer(new LaneTask(lane))).isTrue();
+        Assertions.assertThat(queue.offer(new LaneTask(lane))).isFalse();
+        Assertions.assertThat(queue.offer(new LaneTask(lane), 10, TimeUnit.MILLISECONDS)).isFalse();
+        final LaneTask blocked = new LaneTask(lane);
+        final CountDownLatch putFinished = new CountDownLatch(1);
+        final Thread putThread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    queue.put(blocked);
+                    putFinished.countDown();
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        putThread.start();
+        Assertions.assertThat(putFinished.await(50, TimeUnit.MILLISECONDS)).isFalse();
+        Assertions.assertThat(queue.poll()).isNotNull();
+        Assertions.assertThat(putFinished.await(1, TimeUnit.MINUTES)).isTrue();
+        Assertions.assertThat(queue.poll()).isSameAs(blocked);
+        putThread.join();
+    }
+
+    private CountDownLatch block(final PriorityLaneExecutorService executor) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        started.await();
+        return blocker;
+    }
+
+    private Runnable newRecordingRunnable(final List<String> order, final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+            }
+        };
+    }
+
+    private static final class LaneTask implements Runnable, IPriorityLaneTask {
+        private final PriorityLane lane;
+
+        private LaneTask(final PriorityLane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public PriorityLane getLane() {
+            return lane;
+        }
+
+        @Override
+        public void run() {}
+    }
+
+}
@@ -0,0 +1,117 @@
+package de.invesdwin.util.concurrent.affinity;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.Futures;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+
+@ThreadSafe
+public class ThreadAffinityTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        //pinned fork join pools check for a default handler like the application would install
+        if (Thread.getDefaultUncaughtExceptionHandler() == null) {
+            Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(final Thread t, final Throwable e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testCpuSet() {
+        final CpuSet cpus = CpuSet.parse("0-3,8,10-11\n");
+        Assertions.assertThat(cpus.size()).isEqualTo(7);
+        Assertions.assertThat(cpus.toCpuList()).isEqualTo("0-3,8,10-11");
+        Assertions.assertThat(cpus).isEqualTo(CpuSet.of(0, 1, 2, 3, 8, 10, 11));
+        Assertions.assertThat(CpuSet.parse("").isEmpty()).isTrue();
+        Assertions.assertThat(cpus.intersect(CpuSet.parse("2-9"))).isEqualTo(CpuSet.of(2, 3, 8));
+        Assertions.assertThat(CpuSet.of(0, 65).toMask()).containsExactly(1L, 2L);
+        Assertions.assertThat(ThreadAffinity.getAllowedCpus().isEmpty()).isFalse();
+    }
+
+    @Test
+    public void testReadNodes() throws IOException {
+        final File directory = Files.createTempDirectory(ThreadAffinityTest.class.getSimpleName()).toFile();
+        try {
+            writeCpuList(directory, "node1", "4-7");
+            writeCpuList(directory, "node0", "0-3");
+            //memory only node
+            writeCpuList(directory, "node2", "");
+            final List<NumaNode> nodes = NumaTopology.readNodes(directory);
+            Assertions.assertThat(nodes).hasSize(2);
+            Assertions.assertThat(nodes.get(0).getId()).isEqualTo(0);
+            Assertions.assertThat(nodes.get(1).getCpus()).isEqualTo(CpuSet.parse("4-7"));
+        } finally {
+            for (final File node : directory.listFiles()) {
+                new File(node, "cpulist").delete();
+                node.delete();
+            }
+            directory.delete();
+        }
+        final List<NumaNode> fallback = NumaTopology.readNodes(new File("/nonexistent"));
+        Assertions.assertThat(fallback).hasSize(1);
+        Assertions.assertThat(fallback.get(0).getCpus()).isEqualTo(CpuSet.ofAvailableProcessors());
+    }
+
+    @Test
+    public void testPinnedPools() throws InterruptedException {
+        final CpuSet cpus = CpuSet.of(0);
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testPinnedPools", 1, cpus);
+        final ConfiguredForkJoinPool pool = Executors.newForkJoinPool("testPinnedPools", 1, cpus);
+        try {
+            final Callable<String> allowedCpus = new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return readAllowedCpus();
+                }
+            };
+            final String executorCpus = Futures.submitAndGet(executor, allowedCpus);
+            final String poolCpus = Futures.get(pool.submit(allowedCpus));
+            if (ThreadAffinity.isSupported()) {
+                Assertions.assertThat(executorCpus).isEqualTo("0");
+                Assertions.assertThat(poolCpus).isEqualTo("0");
+            }
+        } finally {
+            executor.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    private void writeCpuList(final File directory, final String node, final String cpuList) throws IOException {
+        final File nodeDirectory = new File(directory, node);
+        nodeDirectory.mkdir();
+        Files.write(new File(nodeDirectory, "cpulist").toPath(), cpuList.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String readAllowedCpus() throws IOException {
+        final File status = new File("/proc/thread-self/status");
+        if (!status.exists()) {
+            return null;
+        }
+        for (final String line : Files.readAllLines(status.toPath(), StandardCharsets.US_ASCII)) {
+            if (line.startsWith("Cpus_allowed_list:")) {
+                return line.substring("Cpus_allowed_list:".length()).trim();
+            }
+        }
+        return null;
+    }
+
+}
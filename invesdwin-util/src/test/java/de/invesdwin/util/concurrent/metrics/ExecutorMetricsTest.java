@@ -0,0 +1,84 @@
+package de.invesdwin.util.concurrent.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.Futures;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+
+@ThreadSafe
+public class ExecutorMetricsTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        Assertions.assertThat(histogram.getCount()).isEqualTo(1000);
+        Assertions.assertThat(histogram.getMaxNanos()).isEqualTo(TimeUnit.MICROSECONDS.toNanos(1000));
+        assertWithinPrecision(histogram.getValueAtPercentileNanos(50), TimeUnit.MICROSECONDS.toNanos(500));
+        assertWithinPrecision(histogram.getValueAtPercentileNanos(99), TimeUnit.MICROSECONDS.toNanos(990));
+        Assertions.assertThat(histogram.getValueAtPercentileNanos(100)).isEqualTo(histogram.getMaxNanos());
+        histogram.reset();
+        Assertions.assertThat(histogram.getCount()).isEqualTo(0);
+        Assertions.assertThat(histogram.getValueAtPercentileNanos(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void testBucketBounds() {
+        long previousUpperBound = -1;
+        for (int i = 0; i < LatencyHistogram.bucketIndex(Long.MAX_VALUE); i++) {
+            final long upperBound = LatencyHistogram.bucketUpperBound(i);
+            Assertions.assertThat(LatencyHistogram.bucketIndex(previousUpperBound + 1)).isEqualTo(i);
+            Assertions.assertThat(LatencyHistogram.bucketIndex(upperBound)).isEqualTo(i);
+            previousUpperBound = upperBound;
+        }
+    }
+
+    @Test
+    public void testExecutorMetrics() throws Exception {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testExecutorMetrics", 2);
+        try {
+            Assertions.assertThat(executor.getMetrics()).isNull();
+            final ExecutorMetrics metrics = executor.withMetrics(true).getMetrics();
+            final ObjectName objectName = metrics.getObjectName();
+            Assertions.assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)).isTrue();
+            for (int i = 0; i < 10; i++) {
+                Futures.submitAndWait(executor, new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(1);
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+            executor.awaitPendingCount(0);
+            Assertions.assertThat(metrics.getSubmittedCount()).isEqualTo(10);
+            Assertions.assertThat(metrics.getCompletedCount()).isEqualTo(10);
+            Assertions.assertThat(metrics.getFailedCount()).isEqualTo(0);
+            Assertions.assertThat(metrics.getRunTimeP50Nanos()).isGreaterThanOrEqualTo(
+                    TimeUnit.MILLISECONDS.toNanos(1));
+            executor.withMetrics(false);
+            Assertions.assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)).isFalse();
+            Assertions.assertThat(executor.getMetrics()).isNull();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assertWithinPrecision(final long actual, final long expected) {
+        Assertions.assertThat(actual).isBetween(expected, expected + expected / 16);
+    }
+
+}
@@ -0,0 +1,143 @@
+package de.invesdwin.util.math.decimal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.assertj.core.data.Offset;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+
+@ThreadSafe
+public class DecimalSeriesTest {
+
+    @Test
+    public void testSameAsDecimalAggregate() {
+        final Random random = new Random(42);
+        final List<Decimal> values = new ArrayList<Decimal>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(new Decimal(1D + random.nextDouble() * 10D));
+        }
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(values);
+        final DecimalSeries<Decimal> actual = DecimalSeries.valueOf(values);
+        Assertions.assertThat(actual.size()).isEqualTo(values.size());
+        assertClose(expected.sum(), actual.sum());
+        assertClose(expected.avg(), actual.avg());
+        assertClose(expected.min(), actual.min());
+        assertClose(expected.max(), actual.max());
+        assertClose(expected.variance(), actual.variance());
+        assertClose(expected.sampleVariance(), actual.sampleVariance());
+        assertClose(expected.standardDeviation(), actual.standardDeviation());
+        assertClose(expected.avgWeightedAsc(), actual.avgWeightedAsc());
+        assertClose(expected.avgWeightedDesc(), actual.avgWeightedDesc());
+        assertClose(expected.geomAvg(), actual.geomAvg());
+        assertClose(expected.growthRate(), actual.growthRate());
+        assertClose(expected.growthRatesTrend(), actual.growthRatesTrend());
+        assertClose(expected.round(2).sum(), actual.round(2).sum());
+        Assertions.assertThat(actual.toList()).isEqualTo(values);
+        Assertions.assertThat(actual.reverse().get(0)).isEqualTo(values.get(values.size() - 1));
+    }
+
+    @Test
+    public void testElementWiseOperations() {
+        final DecimalSeries<Decimal> a = new DecimalSeries<Decimal>(Decimal.ZERO, new double[] { 1D, 2D, 4D });
+        final DecimalSeries<Decimal> b = new DecimalSeries<Decimal>(Decimal.ZERO, new double[] { 2D, 2D, 2D });
+        Assertions.assertThat(a.add(b).toDoubleArray()).containsExactly(3D, 4D, 6D);
+        Assertions.assertThat(a.subtract(b).toDoubleArray()).containsExactly(-1D, 0D, 2D);
+        Assertions.assertThat(a.multiply(b).toDoubleArray()).containsExactly(2D, 4D, 8D);
+        Assertions.assertThat(a.divide(b).toDoubleArray()).containsExactly(0.5D, 1D, 2D);
+        Assertions.assertThat(a.multiply(3).toDoubleArray()).containsExactly(3D, 6D, 12D);
+        Assertions.assertThat(a.add(Decimal.ONE).toDoubleArray()).containsExactly(2D, 3D, 5D);
+        Assertions.assertThat(a.growthRates().toDoubleArray()).containsExactly(1D, 1D);
+        try {
+            a.add(new DecimalSeries<Decimal>(Decimal.ZERO, new double[1]));
+            Assertions.fail("exception expected");
+        } catch (final IllegalArgumentException e) {
+            Assertions.assertThat(e.getMessage()).contains("does not match");
+        }
+    }
+
+    @Test
+    public void testZeroDivisorSameAsDecimalAggregate() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        values.add(new Decimal(0));
+        values.add(new Decimal(1));
+        values.add(new Decimal(2));
+        values.add(new Decimal(0));
+        values.add(new Decimal(3));
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(values);
+        final DecimalSeries<Decimal> actual = DecimalSeries.valueOf(values);
+        final List<? extends Decimal> expectedGrowthRates = expected.growthRates().values();
+        final double[] actualGrowthRates = actual.growthRates().toDoubleArray();
+        Assertions.assertThat(actualGrowthRates.length).isEqualTo(expectedGrowthRates.size());
+        for (int i = 0; i < actualGrowthRates.length; i++) {
+            Assertions.assertThat(actualGrowthRates[i]).isCloseTo(expectedGrowthRates.get(i).doubleValue(),
+                    Offset.offset(1E-9D));
+        }
+        assertClose(expected.growthRate(), actual.growthRate());
+        assertClose(expected.growthRatesTrend(), actual.growthRatesTrend());
+
+        final DecimalSeries<Decimal> first3 = DecimalSeries.valueOf(values.subList(0, 3));
+        Assertions.assertThat(first3.growthRate().doubleValue()).isEqualTo(0.5D);
+
+        final DecimalSeries<Decimal> b = new DecimalSeries<Decimal>(Decimal.ZERO, new double[] { 2D, 0D, 2D, 1D, 0D });
+        final double[] divided = actual.divide(b).toDoubleArray();
+        for (int i = 0; i < divided.length; i++) {
+            Assertions.assertThat(divided[i]).isCloseTo(values.get(i).divide(b.get(i)).doubleValue(),
+                    Offset.offset(1E-9D));
+        }
+        Assertions.assertThat(actual.divide(0).toDoubleArray()).containsExactly(0D, 0D, 0D, 0D, 0D);
+        Assertions.assertThat(actual.divide(4).toDoubleArray()).containsExactly(0D, 0.25D, 0.5D, 0D, 0.75D);
+
+        final DecimalSeries<Decimal> single = DecimalSeries.valueOf(values.subList(4, 5));
+        Assertions.assertThat(single.variance().doubleValue()).isEqualTo(0D);
+        Assertions.assertThat(single.standardDeviation().doubleValue()).isEqualTo(0D);
+        assertClose(Decimal.valueOf(values.subList(4, 5)).variance(), single.variance());
+    }
+
+    @Test
+    public void testScaledValues() {
+        final List<Percent> values = new ArrayList<Percent>();
+        values.add(new Percent(new Decimal(10), PercentScale.PERCENT));
+        values.add(null);
+        values.add(new Percent(new Decimal(30), PercentScale.PERCENT));
+        final DecimalSeries<Percent> series = DecimalSeries.valueOf(values);
+        Assertions.assertThat(series.getDouble(0)).isCloseTo(0.1D, Offset.offset(1E-10D));
+        Assertions.assertThat(series.get(1)).isNull();
+        Assertions.assertThat(series.get(2).getValue(PercentScale.PERCENT)).isEqualTo(new Decimal(30));
+        Assertions.assertThat(series.get(2).getScale()).isEqualTo(PercentScale.PERCENT);
+
+        final Percent ten = new Percent(new Decimal(10), PercentScale.PERCENT);
+        Assertions.assertThat(series.add(ten).get(0)).isEqualTo(values.get(0).add(ten));
+        Assertions.assertThat(series.multiply(2).get(2)).isEqualTo(values.get(2).multiply(2));
+        Assertions.assertThat(series.toList()).isEqualTo(values);
+
+        //rounding happens in the scale of the values, but the series keeps storing default values
+        final DecimalSeries<Percent> rounded = series.round(0);
+        Assertions.assertThat(rounded.getDouble(0)).isCloseTo(0.1D, Offset.offset(1E-10D));
+        Assertions.assertThat(rounded.get(0)).isEqualTo(values.get(0).round(0));
+        Assertions.assertThat(rounded.get(1)).isNull();
+        final DecimalSeries<Percent> stepped = series.roundToStep(ten);
+        Assertions.assertThat(stepped.getDouble(2)).isCloseTo(0.3D, Offset.offset(1E-10D));
+        Assertions.assertThat(stepped.get(2)).isEqualTo(values.get(2).roundToStep(ten));
+    }
+
+    @Test
+    public void testEmpty() {
+        final DecimalSeries<Decimal> series = DecimalSeries.valueOf(new ArrayList<Decimal>());
+        Assertions.assertThat(series.size()).isEqualTo(0);
+        Assertions.assertThat(series.sum()).isNull();
+        Assertions.assertThat(series.growthRate()).isNull();
+        Assertions.assertThat(series.values()).isEmpty();
+    }
+
+    private void assertClose(final Decimal expected, final Decimal actual) {
+        Assertions.assertThat(actual.doubleValue()).isCloseTo(expected.doubleValue(), Offset.offset(1E-9D));
+    }
+
+}
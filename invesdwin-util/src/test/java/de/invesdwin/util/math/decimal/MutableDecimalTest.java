@@ -0,0 +1,64 @@
+package de.invesdwin.util.math.decimal;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.assertj.core.data.Offset;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+
+@ThreadSafe
+public class MutableDecimalTest {
+
+    @Test
+    public void testInPlaceOperations() {
+        final MutableDecimal value = new MutableDecimal(Decimal.TWO);
+        Assertions.assertThat(value.add(Decimal.ONE).multiply(4).subtract(2D).divide(Decimal.TWO).toDecimal())
+                .isEqualTo(new Decimal(5));
+        Assertions.assertThat(value.fma(Decimal.THREE, 2D).doubleValue()).isEqualTo(11D);
+        Assertions.assertThat(value.set(16D).sqrt().doubleValue()).isEqualTo(4D);
+        Assertions.assertThat(value.reset().doubleValue()).isEqualTo(0D);
+    }
+
+    @Test
+    public void testScaledDecimal() {
+        final Percent converter = new Percent(Decimal.ZERO, PercentScale.PERCENT);
+        final MutableDecimal sum = new MutableDecimal();
+        sum.add(new Percent(new Decimal(10), PercentScale.PERCENT));
+        sum.add(new Percent(new Decimal(20), PercentScale.PERCENT));
+        Assertions.assertThat(sum.doubleValue()).isEqualTo(0.3D, Offset.offset(1E-10D));
+        final Percent result = sum.toDecimal(converter);
+        Assertions.assertThat(result.getValue(PercentScale.PERCENT)).isEqualTo(new Decimal(30));
+    }
+
+    @Test
+    public void testAggregate() {
+        final IDecimalAggregate<Decimal> aggregate = Decimal.valueOf(Arrays.asList(new Decimal(1), new Decimal(2),
+                new Decimal(3), new Decimal(4)));
+        Assertions.assertThat(aggregate.sum()).isEqualTo(new Decimal(10));
+        Assertions.assertThat(aggregate.product()).isEqualTo(new Decimal(24));
+        Assertions.assertThat(aggregate.avgWeightedDesc()).isEqualTo(new Decimal(2));
+        Assertions.assertThat(aggregate.variance()).isEqualTo(new Decimal(5D / 3D));
+        Assertions.assertThat(aggregate.sampleVariance()).isEqualTo(new Decimal(1.25D));
+    }
+
+    @Test
+    public void testDivideByZero() {
+        Assertions.assertThat(new MutableDecimal(3D).divide(0D).doubleValue()).isEqualTo(0D);
+        Assertions.assertThat(new MutableDecimal(3D).divide((Decimal) null).doubleValue()).isEqualTo(0D);
+    }
+
+    @Test
+    public void testAggregateSingleValue() {
+        final IDecimalAggregate<Decimal> aggregate = Decimal.valueOf(Arrays.asList(new Decimal(3)));
+        //n - 1 is 0, which results in 0 like ADecimal.divide() does instead of NaN
+        Assertions.assertThat(aggregate.variance()).isEqualTo(Decimal.ZERO);
+        Assertions.assertThat(aggregate.standardDeviation()).isEqualTo(Decimal.ZERO);
+        Assertions.assertThat(aggregate.sampleVariance()).isEqualTo(Decimal.ZERO);
+    }
+
+}
@@ -0,0 +1,104 @@
+package de.invesdwin.util.math.decimal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.assertj.core.data.Offset;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+
+@ThreadSafe
+public class StreamingDecimalAggregateTest {
+
+    @Test
+    public void testSameAsDecimalAggregate() {
+        final Random random = new Random(42);
+        final List<Decimal> values = new ArrayList<Decimal>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(new Decimal(1D + random.nextDouble() * 10D));
+        }
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(values);
+        final IDecimalAggregate<Decimal> actual = Decimal.valueOf(WrapperCloseableIterable.maybeWrap(values));
+        assertClose(expected.sum(), actual.sum());
+        assertClose(expected.avg(), actual.avg());
+        Assertions.assertThat(actual.min()).isEqualTo(expected.min());
+        Assertions.assertThat(actual.max()).isEqualTo(expected.max());
+        assertClose(expected.variance(), actual.variance());
+        assertClose(expected.sampleVariance(), actual.sampleVariance());
+        assertClose(expected.standardDeviation(), actual.standardDeviation());
+        assertClose(expected.avgWeightedAsc(), actual.avgWeightedAsc());
+        assertClose(expected.avgWeightedDesc(), actual.avgWeightedDesc());
+        assertClose(expected.geomAvg(), actual.geomAvg());
+        assertClose(expected.growthRate(), actual.growthRate());
+        assertClose(expected.growthRatesTrend(), actual.growthRatesTrend());
+        Assertions.assertThat(actual.values()).isEqualTo(values);
+        Assertions.assertThat(actual.reverse().values().get(0)).isEqualTo(values.get(values.size() - 1));
+    }
+
+    @Test
+    public void testZeroDivisorSameAsDecimalAggregate() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        values.add(new Decimal(0));
+        values.add(new Decimal(1));
+        values.add(new Decimal(2));
+        values.add(new Decimal(2));
+        values.add(new Decimal(3));
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(values);
+        final IDecimalAggregate<Decimal> actual = Decimal.valueOf(WrapperCloseableIterable.maybeWrap(values));
+        Assertions.assertThat(actual.growthRate().doubleValue()).isEqualTo((0D + 1D + 0D + 0.5D) / 4D);
+        assertClose(expected.growthRate(), actual.growthRate());
+        assertClose(expected.growthRatesTrend(), actual.growthRatesTrend());
+    }
+
+    @Test
+    public void testSingleValueSameAsDecimalAggregate() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        values.add(new Decimal(3));
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(values);
+        final IDecimalAggregate<Decimal> actual = Decimal.valueOf(WrapperCloseableIterable.maybeWrap(values));
+        Assertions.assertThat(actual.variance().doubleValue()).isEqualTo(0D);
+        Assertions.assertThat(actual.standardDeviation().doubleValue()).isEqualTo(0D);
+        assertClose(expected.variance(), actual.variance());
+        assertClose(expected.standardDeviation(), actual.standardDeviation());
+        assertClose(expected.sampleVariance(), actual.sampleVariance());
+    }
+
+    private void assertClose(final Decimal expected, final Decimal actual) {
+        Assertions.assertThat(actual.doubleValue()).isCloseTo(expected.doubleValue(), Offset.offset(1E-9D));
+    }
+
+    @Test
+    public void testScaledValues() {
+        final List<Percent> values = new ArrayList<Percent>();
+        values.add(new Percent(new Decimal(10), PercentScale.PERCENT));
+        values.add(new Percent(new Decimal(20), PercentScale.PERCENT));
+        values.add(new Percent(new Decimal(30), PercentScale.PERCENT));
+        final ICloseableIterable<Percent> iterable = WrapperCloseableIterable.maybeWrap(values);
+        final IDecimalAggregate<Percent> aggregate = Decimal.valueOf(iterable);
+        Assertions.assertThat(aggregate.sum().getValue(PercentScale.PERCENT)).isEqualTo(new Decimal(60));
+        Assertions.assertThat(aggregate.avg().getValue(PercentScale.PERCENT)).isEqualTo(new Decimal(20));
+        Assertions.assertThat(aggregate.max()).isSameAs(values.get(2));
+        Assertions.assertThat(aggregate.min()).isSameAs(values.get(0));
+        Assertions.assertThat(aggregate.variance().getValue(PercentScale.PERCENT).doubleValue()).isCloseTo(1D,
+                Offset.offset(1E-9D));
+    }
+
+    @Test
+    public void testEmpty() {
+        final IDecimalAggregate<Decimal> aggregate = Decimal.valueOf(WrapperCloseableIterable
+                .maybeWrap(new ArrayList<Decimal>()));
+        Assertions.assertThat(aggregate.sum()).isNull();
+        Assertions.assertThat(aggregate.variance()).isNull();
+        Assertions.assertThat(aggregate.growthRate()).isNull();
+        Assertions.assertThat(aggregate.values()).isEmpty();
+    }
+
+}
@@ -0,0 +1,97 @@
+package de.invesdwin.util.math.decimal.internal.impl;
+
+import java.math.RoundingMode;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+
+@ThreadSafe
+public class PrimitiveDoubleDecimalImplTest {
+
+    private static final double[] VALUES = { 0d, -0d, 1d, -1d, 0.1d, 0.2d, 1.23456789015d, -1.23456789015d,
+            123456.5d, 1E-11d, 2.5d, -2.5d, 1D / 3D };
+
+    @Test
+    public void testSameSemanticsAsDoubleDecimalImpl() {
+        final DoubleDecimalImplFactory boxedFactory = new DoubleDecimalImplFactory();
+        final PrimitiveDoubleDecimalImplFactory primitiveFactory = new PrimitiveDoubleDecimalImplFactory();
+        for (final double a : VALUES) {
+            final DoubleDecimalImpl boxed = boxedFactory.valueOf(a);
+            final PrimitiveDoubleDecimalImpl primitive = primitiveFactory.valueOf(a);
+            assertSame(boxed, primitive);
+            assertSame(boxed.sqrt(), primitive.sqrt());
+            assertSame(boxed.pow(3), primitive.pow(3));
+            assertSame(boxed.abs(), primitive.abs());
+            for (final RoundingMode roundingMode : RoundingMode.values()) {
+                if (roundingMode != RoundingMode.UNNECESSARY) {
+                    assertSame(boxed.round(2, roundingMode), primitive.round(2, roundingMode));
+                }
+            }
+            for (final double b : VALUES) {
+                final Decimal other = new Decimal(b);
+                assertSame(boxed.add(other), primitive.add(other));
+                assertSame(boxed.subtract(other), primitive.subtract(other));
+                assertSame(boxed.multiply(other), primitive.multiply(other));
+                assertSame(boxed.multiply(b), primitive.multiply(b));
+                if (b != 0d) {
+                    assertSame(boxed.divide(other), primitive.divide(other));
+                    assertSame(boxed.remainder(other), primitive.remainder(other));
+                }
+                Assertions.assertThat(primitive.compareTo(other)).isEqualTo(boxed.compareTo(other));
+                Assertions.assertThat(primitive.compareTo(b)).isEqualTo(boxed.compareTo(b));
+            }
+        }
+    }
+
+    @Test
+    public void testLazyDefaultRounding() {
+        final PrimitiveDoubleDecimalImpl value = new PrimitiveDoubleDecimalImpl(1.00000000004d);
+        Assertions.assertThat(value.doubleValue()).isEqualTo(1.00000000004d);
+        Assertions.assertThat(value.round(Decimal.DEFAULT_ROUNDING_SCALE, Decimal.DEFAULT_ROUNDING_MODE)
+                .doubleValue()).isEqualTo(1d);
+        Assertions.assertThat(value.equals(new Decimal(1))).isTrue();
+        Assertions.assertThat(value.hashCode()).isEqualTo(Double.valueOf(1d).hashCode());
+        Assertions.assertThat(new PrimitiveDoubleDecimalImpl(Double.NaN).doubleValue()).isNaN();
+    }
+
+    /**
+     * Not a real JMH benchmark, but enough to compare the implementations manually.
+     */
+    @Ignore("manual benchmark")
+    @Test
+    public void benchmark() {
+        final DoubleDecimalImplFactory boxedFactory = new DoubleDecimalImplFactory();
+        final PrimitiveDoubleDecimalImplFactory primitiveFactory = new PrimitiveDoubleDecimalImplFactory();
+        for (int round = 0; round < 5; round++) {
+            benchmark("boxed", boxedFactory);
+            benchmark("primitive", primitiveFactory);
+        }
+    }
+
+    private void benchmark(final String name, final IDecimalImplFactory<?> factory) {
+        final int iterations = 10000000;
+        final Decimal factor = new Decimal(factory.valueOf(1.0000001d));
+        final long start = System.nanoTime();
+        Decimal sum = new Decimal(factory.valueOf(0d));
+        for (int i = 0; i < iterations; i++) {
+            sum = sum.add(new Decimal(factory.valueOf(i)).multiply(factor).divide(factor));
+        }
+        final long end = System.nanoTime();
+        System.out.println(name + ": " + (end - start) / iterations + " ns/op, " + sum.isPositive()); //SUPPRESS CHECKSTYLE single line
+    }
+
+    private void assertSame(final DoubleDecimalImpl boxed, final PrimitiveDoubleDecimalImpl primitive) {
+        Assertions.assertThat(Double.doubleToLongBits(primitive.doubleValue())).isEqualTo(
+                Double.doubleToLongBits(boxed.doubleValue()));
+        Assertions.assertThat(primitive.isZero()).isEqualTo(boxed.isZero());
+        Assertions.assertThat(primitive.isPositive()).isEqualTo(boxed.isPositive());
+        Assertions.assertThat(primitive.hashCode()).isEqualTo(boxed.hashCode());
+        Assertions.assertThat(primitive.toString()).isEqualTo(boxed.toString());
+    }
+
+}
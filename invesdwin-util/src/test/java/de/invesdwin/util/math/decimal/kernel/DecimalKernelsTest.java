@@ -0,0 +1,136 @@
+package de.invesdwin.util.math.decimal.kernel;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.assertj.core.data.Offset;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.DecimalSeries;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+
+@ThreadSafe
+public class DecimalKernelsTest {
+
+    private static final Offset<Double> ROUNDING_OFFSET = Offset.offset(Math.pow(10,
+            -Decimal.DEFAULT_ROUNDING_SCALE));
+    private static final int LARGE_SIZE = 1000000;
+
+    @Test
+    public void testDefaultMatchesDecimalAggregate() {
+        final double[] values = newPrices(LARGE_SIZE);
+        final List<Decimal> decimals = new ArrayList<Decimal>(values.length);
+        for (final double value : values) {
+            decimals.add(new Decimal(value));
+        }
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(decimals);
+        final DecimalSeries<Decimal> actual = new DecimalSeries<Decimal>(Decimal.ZERO, values);
+        Assertions.assertThat(DecimalKernels.getInstance()).isSameAs(ScalarDecimalKernels.INSTANCE);
+        Assertions.assertThat(actual.sum()).isEqualTo(expected.sum());
+        Assertions.assertThat(actual.sum().doubleValue()).isEqualTo(expected.sum().doubleValue());
+        Assertions.assertThat(actual.variance().doubleValue()).isEqualTo(expected.variance().doubleValue());
+    }
+
+    @Test
+    public void testUnrolledAccuracy() {
+        for (final int size : new int[] { 0, 1, 3, 4, 5, 1001, LARGE_SIZE }) {
+            final double[] values = newPrices(size);
+            BigDecimal exactSum = BigDecimal.ZERO;
+            for (final double value : values) {
+                exactSum = exactSum.add(new BigDecimal(value));
+            }
+            final double exact = exactSum.doubleValue();
+            final double unrolled = UnrolledDecimalKernels.INSTANCE.sum(values);
+            final double scalar = ScalarDecimalKernels.INSTANCE.sum(values);
+            //compensated summation is off by at most a few ulps, independent of the size
+            Assertions.assertThat(Math.abs(unrolled - exact)).isLessThanOrEqualTo(2 * Math.ulp(exact));
+            Assertions.assertThat(Math.abs(unrolled - exact)).isLessThanOrEqualTo(Math.abs(scalar - exact));
+
+            final double mean = exact / Math.max(1, size);
+            final double unrolledDeviations = UnrolledDecimalKernels.INSTANCE.sumOfSquaredDeviations(values, mean);
+            final double scalarDeviations = ScalarDecimalKernels.INSTANCE.sumOfSquaredDeviations(values, mean);
+            Assertions.assertThat(unrolledDeviations).isCloseTo(scalarDeviations,
+                    Offset.offset(Math.max(1E-9D, scalarDeviations * 1E-12D)));
+            Assertions.assertThat(UnrolledDecimalKernels.INSTANCE.product(values)).isEqualTo(
+                    ScalarDecimalKernels.INSTANCE.product(values));
+            Assertions.assertThat(UnrolledDecimalKernels.INSTANCE.indexOfMin(values)).isEqualTo(
+                    ScalarDecimalKernels.INSTANCE.indexOfMin(values));
+            Assertions.assertThat(UnrolledDecimalKernels.INSTANCE.indexOfMax(values)).isEqualTo(
+                    ScalarDecimalKernels.INSTANCE.indexOfMax(values));
+        }
+    }
+
+    /**
+     * Prices around 1e4.
+     */
+    private double[] newPrices(final int size) {
+        final Random random = new Random(42);
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 10000D + random.nextDouble() * 100D;
+        }
+        return values;
+    }
+
+    @Test
+    public void testMinMaxSkipNaN() {
+        final double[] values = { Double.NaN, 3D, 1D, Double.NaN, 5D, 1D, 5D };
+        Assertions.assertThat(UnrolledDecimalKernels.INSTANCE.indexOfMin(values)).isEqualTo(2);
+        Assertions.assertThat(UnrolledDecimalKernels.INSTANCE.indexOfMax(values)).isEqualTo(4);
+        Assertions.assertThat(UnrolledDecimalKernels.INSTANCE.indexOfMax(new double[] { Double.NaN })).isEqualTo(-1);
+    }
+
+    @Test
+    public void testSwitchKernels() {
+        final DecimalSeries<Decimal> series = new DecimalSeries<Decimal>(Decimal.ZERO, new double[] { 0.1D, 0.2D,
+                0.3D, 0.4D, 0.5D });
+        Assertions.assertThat(DecimalKernels.getInstance()).isSameAs(ScalarDecimalKernels.INSTANCE);
+        final Decimal scalarSum = series.sum();
+        Assertions.assertThat(scalarSum.doubleValue()).isEqualTo(0.1D + 0.2D + 0.3D + 0.4D + 0.5D);
+        DecimalKernels.setInstance(UnrolledDecimalKernels.INSTANCE);
+        try {
+            Assertions.assertThat(DecimalKernels.getInstance()).isSameAs(UnrolledDecimalKernels.INSTANCE);
+            Assertions.assertThat(series.sum().doubleValue()).isCloseTo(scalarSum.doubleValue(), ROUNDING_OFFSET);
+        } finally {
+            DecimalKernels.resetInstance();
+        }
+    }
+
+    /**
+     * Not a real JMH benchmark, but enough to compare the kernels manually.
+     */
+    @Ignore("manual benchmark")
+    @Test
+    public void benchmark() {
+        for (final int size : new int[] { 1000, 100000, 10000000 }) {
+            final double[] values = new double[size];
+            final Random random = new Random(42);
+            for (int i = 0; i < size; i++) {
+                values[i] = random.nextDouble();
+            }
+            for (int round = 0; round < 5; round++) {
+                benchmark("scalar", ScalarDecimalKernels.INSTANCE, values);
+                benchmark("unrolled", UnrolledDecimalKernels.INSTANCE, values);
+            }
+        }
+    }
+
+    private void benchmark(final String name, final IDecimalKernels kernels, final double[] values) {
+        final int iterations = Math.max(1, 100000000 / values.length);
+        double result = 0D;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result += kernels.sumOfSquaredDeviations(values, kernels.sum(values) / values.length);
+        }
+        final long end = System.nanoTime();
+        System.out.println(name + " " + values.length + ": " + (end - start) / iterations + " ns/op, " + result); //SUPPRESS CHECKSTYLE single line
+    }
+
+}
@@ -0,0 +1,133 @@
+package de.invesdwin.util.shutdown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.time.Duration;
+
+@ThreadSafe
+public class ShutdownHookManagerTest {
+
+    @Test
+    public void testOrder() {
+        final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        final IShutdownHook database = newRecordingHook(executed, "database");
+        final IShutdownHook cache = newRecordingHook(executed, "cache");
+        final IShutdownHook server = newRecordingHook(executed, "server");
+        final IShutdownHook executor = newRecordingHook(executed, "executor");
+        final List<ShutdownHookManager.Registration> registrations = Arrays.asList(
+                new ShutdownHookManager.Registration(database, 0, Arrays.asList(cache), 1),
+                new ShutdownHookManager.Registration(cache, 0, Collections.<IShutdownHook> emptyList(), 2),
+                new ShutdownHookManager.Registration(server, 10, Collections.<IShutdownHook> emptyList(), 3),
+                new ShutdownHookManager.Registration(executor, -10, Collections.<IShutdownHook> emptyList(), 4));
+        final List<ShutdownHookManager.Registration> ordered = ShutdownHookManager.order(registrations);
+        Assertions.assertThat(ordered.get(0).getHook()).isSameAs(server);
+        Assertions.assertThat(ordered.get(1).getHook()).isSameAs(cache);
+        Assertions.assertThat(ordered.get(2).getHook()).isSameAs(database);
+        Assertions.assertThat(ordered.get(3).getHook()).isSameAs(executor);
+        Assertions.assertThat(ShutdownHookManager.runHooks(registrations, Duration.ONE_MINUTE)).isTrue();
+        Assertions.assertThat(executed).containsExactly("server", "cache", "database", "executor");
+    }
+
+    @Test
+    public void testLowPriorityDependencyDoesNotBlockUnrelatedHooks() {
+        final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch unrelatedFinished = new CountDownLatch(1);
+        final IShutdownHook unrelated = new IShutdownHook() {
+            @Override
+            public void shutdown() throws Exception {
+                executed.add("unrelated");
+                unrelatedFinished.countDown();
+            }
+        };
+        final IShutdownHook dependency = new IShutdownHook() {
+            @Override
+            public void shutdown() throws Exception {
+                //would time out if the unrelated hook waited for this one
+                unrelatedFinished.await();
+                executed.add("dependency");
+            }
+        };
+        final IShutdownHook dependent = newRecordingHook(executed, "dependent");
+        final List<ShutdownHookManager.Registration> registrations = Arrays.asList(
+                new ShutdownHookManager.Registration(dependent, 10, Arrays.asList(dependency), 1),
+                new ShutdownHookManager.Registration(dependency, 0, Collections.<IShutdownHook> emptyList(), 2),
+                new ShutdownHookManager.Registration(unrelated, 10, Collections.<IShutdownHook> emptyList(), 3));
+        final int shutdownThreadsBefore = ShutdownHookManager.getShutdownThreads();
+        ShutdownHookManager.setShutdownThreads(registrations.size());
+        try {
+            Assertions.assertThat(ShutdownHookManager.runHooks(registrations, new Duration(10, TimeUnit.SECONDS)))
+                    .isTrue();
+        } finally {
+            ShutdownHookManager.setShutdownThreads(shutdownThreadsBefore);
+        }
+        Assertions.assertThat(executed).containsExactly("unrelated", "dependency", "dependent");
+    }
+
+    @Test
+    public void testParallelWithDeadline() {
+        final int count = 4;
+        final CountDownLatch allStarted = new CountDownLatch(count);
+        final List<ShutdownHookManager.Registration> registrations = new ArrayList<ShutdownHookManager.Registration>();
+        for (int i = 0; i < count; i++) {
+            registrations.add(new ShutdownHookManager.Registration(new IShutdownHook() {
+                @Override
+                public void shutdown() throws Exception {
+                    allStarted.countDown();
+                    //only completes when all hooks are running in parallel
+                    allStarted.await();
+                }
+            }, 0, Collections.<IShutdownHook> emptyList(), i));
+        }
+        final int shutdownThreadsBefore = ShutdownHookManager.getShutdownThreads();
+        ShutdownHookManager.setShutdownThreads(count);
+        try {
+            Assertions.assertThat(ShutdownHookManager.runHooks(registrations, Duration.ONE_MINUTE)).isTrue();
+        } finally {
+            ShutdownHookManager.setShutdownThreads(shutdownThreadsBefore);
+        }
+
+        final List<ShutdownHookManager.Registration> hanging = Arrays.asList(new ShutdownHookManager.Registration(
+                new IShutdownHook() {
+                    @Override
+                    public void shutdown() throws Exception {
+                        TimeUnit.MINUTES.sleep(1);
+                    }
+                }, 0, Collections.<IShutdownHook> emptyList(), 0));
+        final long startNanos = System.nanoTime();
+        Assertions.assertThat(ShutdownHookManager.runHooks(hanging, new Duration(100, TimeUnit.MILLISECONDS)))
+                .isFalse();
+        Assertions.assertThat(System.nanoTime() - startNanos).isLessThan(TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    public void testExecutorsUnregister() throws InterruptedException {
+        final int registeredBefore = ShutdownHookManager.getRegisteredCount();
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testExecutorsUnregister", 1);
+        Assertions.assertThat(ShutdownHookManager.getRegisteredCount()).isEqualTo(registeredBefore + 1);
+        executor.shutdown();
+        executor.shutdownNow();
+        Assertions.assertThat(ShutdownHookManager.getRegisteredCount()).isEqualTo(registeredBefore);
+    }
+
+    private IShutdownHook newRecordingHook(final List<String> executed, final String name) {
+        return new IShutdownHook() {
+            @Override
+            public void shutdown() throws Exception {
+                executed.add(name);
+            }
+        };
+    }
+
+}